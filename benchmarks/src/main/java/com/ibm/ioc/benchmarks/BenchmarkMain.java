@@ -0,0 +1,28 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Runs JMH with the GC profiler unless other profilers are asked for, so that every result comes with its allocation
+ * rate. Takes the usual JMH options, e.g. <code>java -jar target/benchmarks.jar PropertiesResolver -p keyCount=100</code>.
+ */
+public final class BenchmarkMain {
+  private BenchmarkMain() {}
+
+  public static void main(final String[] args) throws Exception {
+    final List<String> options = new ArrayList<>(Arrays.asList(args));
+    if (!options.contains("-prof") && !options.contains("-h") && !options.contains("-l")) {
+      options.add("-prof");
+      options.add("gc");
+    }
+    org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.ioc.benchmarks.StoreBindings.Store;
+import com.ibm.ioc.impl.BindingsMap;
+
+/*
+ * Maps injected for allRefs, looked up by referral or walked as a whole.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BindingsMapBenchmark {
+  @Param({"10", "1000"})
+  public int keyCount;
+
+  private BindingsMap<Store> map;
+  private String hit;
+  private String miss;
+
+  @Setup
+  public void setUp() {
+    this.map = new BindingsMap<>(Store.class, StoreBindings.provider(this.keyCount), Collections.emptyMap());
+    this.hit = StoreBindings.storeName(this.keyCount / 2);
+    this.miss = StoreBindings.storeName(this.keyCount);
+    this.map.values();
+  }
+
+  @Benchmark
+  public Store getHit() {
+    return this.map.get(this.hit);
+  }
+
+  @Benchmark
+  public Store getMiss() {
+    return this.map.get(this.miss);
+  }
+
+  @Benchmark
+  public Collection<Store> values() {
+    return this.map.values();
+  }
+}
@@ -0,0 +1,51 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.ioc.impl.NamingHelper;
+
+/*
+ * Parameter names converted into setters and fields, once per parameter of every object created.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NamingHelperBenchmark {
+  @Param({"port", "block-size", "max-concurrent-connection-count"})
+  public String name;
+
+  @Benchmark
+  public String setter() {
+    return NamingHelper.convertNameIntoJavaSetter(this.name);
+  }
+
+  @Benchmark
+  public String field() {
+    return NamingHelper.convertNameIntoJavaField(this.name);
+  }
+
+  @Benchmark
+  public String method() {
+    return NamingHelper.convertNameIntoJavaMethod(this.name, "get", "");
+  }
+}
@@ -0,0 +1,73 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.ioc.Size;
+import com.ibm.ioc.parsers.BigIntegerParser;
+import com.ibm.ioc.parsers.IntegerParser;
+import com.ibm.ioc.parsers.LongParser;
+
+/*
+ * Unit-aware number parsing as done for every numeric property. Run with -prof gc to check the allocation rate of the
+ * primitive entry points, which should be zero.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumberParserBenchmark {
+  @Param({"12345", "30 secs", "1.5 hours", "64KiB"})
+  public String value;
+
+  @Param({"4096", "512 MiB", "1.5 GB"})
+  public String size;
+
+  @Benchmark
+  public int parseIntPrimitive() {
+    return IntegerParser.parseInt(this.value, -1);
+  }
+
+  @Benchmark
+  public Integer parseInteger() {
+    return IntegerParser.parse(this.value);
+  }
+
+  @Benchmark
+  public long parseLongPrimitive() {
+    return LongParser.parseLong(this.value, -1L);
+  }
+
+  @Benchmark
+  public Object parseBigInteger() {
+    return BigIntegerParser.parse(this.value);
+  }
+
+  @Benchmark
+  public long sizeInBytes() {
+    return Size.getSizeInBytes(this.size);
+  }
+
+  @Benchmark
+  public String sizeInString() {
+    return Size.getSizeInString(1_610_612_736L, 2);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.ibm.ioc.impl.MemoryPropertiesProvider;
+import com.ibm.ioc.impl.OrderedPropertiesResolver;
+
+/*
+ * Resolver over a stack of in-memory providers, each holding its own keys, with the looked up keys in the provider
+ * consulted last so that a hit walks the whole stack.
+ */
+final class PropertiesFixture {
+  static final String PREFIX = "app.";
+
+  private PropertiesFixture() {}
+
+  /**
+   * @param providerCount providers, announced with orders providerCount - 1 down to 0
+   * @param keyCount keys per provider
+   */
+  static OrderedPropertiesResolver resolver(final int providerCount, final int keyCount) {
+    final OrderedPropertiesResolver resolver = new OrderedPropertiesResolver();
+    resolver.addDefaultPrefix(PREFIX);
+    for (int p = 0; p < providerCount; p++) {
+      final String type = "provider-" + p;
+      final Map<String, String> properties = new HashMap<>();
+      for (int k = 0; k < keyCount; k++) {
+        properties.put(key(p, k), Integer.toString(k));
+      }
+      final MemoryPropertiesProvider provider = new MemoryPropertiesProvider();
+      provider.addProperties(properties);
+      resolver.announcePropertiesProvider(type, providerCount - p);
+      resolver.registerPropertiesProvider(type, provider);
+    }
+    return resolver;
+  }
+
+  /**
+   * @return name of a key present in the provider consulted last
+   */
+  static String lastProviderKey(final int providerCount, final int keyCount) {
+    return key(providerCount - 1, keyCount / 2);
+  }
+
+  private static String key(final int provider, final int key) {
+    return PREFIX + "provider" + provider + ".key" + key;
+  }
+}
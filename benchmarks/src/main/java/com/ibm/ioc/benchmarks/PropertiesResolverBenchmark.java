@@ -0,0 +1,90 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.ioc.ConfigurationItemNotDefinedException;
+import com.ibm.ioc.ObjectInitializationException;
+import com.ibm.ioc.impl.OrderedPropertiesResolver;
+
+/*
+ * Property lookups through the ordered providers, where every miss in a provider costs all case combinations and
+ * default prefixes of the name.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertiesResolverBenchmark {
+  @Param({"1", "4", "16"})
+  public int providerCount;
+
+  @Param({"100", "10000"})
+  public int keyCount;
+
+  private OrderedPropertiesResolver resolver;
+  private String hit;
+  private String prefixed;
+  private String miss;
+
+  @Setup
+  public void setUp() {
+    this.resolver = PropertiesFixture.resolver(this.providerCount, this.keyCount);
+    this.hit = PropertiesFixture.lastProviderKey(this.providerCount, this.keyCount);
+    // found only once the default prefix is put back
+    this.prefixed = this.hit.substring(PropertiesFixture.PREFIX.length());
+    this.miss = this.hit + ".missing";
+  }
+
+  @Benchmark
+  public Object getPropertyHit() throws ConfigurationItemNotDefinedException {
+    return this.resolver.getProperty(this.hit);
+  }
+
+  @Benchmark
+  public Object getPropertyPrefixed() throws ConfigurationItemNotDefinedException {
+    return this.resolver.getProperty(this.prefixed);
+  }
+
+  @Benchmark
+  public Object getPropertyMiss() {
+    try {
+      return this.resolver.getProperty(this.miss);
+    } catch (final ConfigurationItemNotDefinedException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public int resolveIntHit() throws ConfigurationItemNotDefinedException, ObjectInitializationException {
+    return this.resolver.resolveInt(this.hit);
+  }
+
+  @Benchmark
+  public Object resolveIntMiss() throws ObjectInitializationException {
+    try {
+      return this.resolver.resolveInt(this.miss);
+    } catch (final ConfigurationItemNotDefinedException e) {
+      return e;
+    }
+  }
+}
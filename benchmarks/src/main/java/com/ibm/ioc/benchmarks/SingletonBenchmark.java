@@ -0,0 +1,68 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.ioc.ConfigurationItemNotDefinedException;
+import com.ibm.ioc.ObjectInitializationException;
+import com.ibm.ioc.ObjectInstantiationException;
+import com.ibm.ioc.benchmarks.StoreBindings.Consumer;
+import com.ibm.ioc.impl.ImplementationFactory;
+
+/*
+ * Getting an already created singleton, the path every injected reference takes. With overrides the required
+ * overrides of the instance have to be found first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SingletonBenchmark {
+  @Param({"10", "1000"})
+  public int keyCount;
+
+  private ImplementationFactory<Consumer> consumer;
+  private Map<Class<?>, String> noOverrides;
+  private Map<Class<?>, String> overrides;
+
+  @Setup
+  public void setUp() throws ConfigurationItemNotDefinedException, ObjectInstantiationException,
+      ObjectInitializationException {
+    this.consumer = StoreBindings.provider(this.keyCount).getDefaultImplementation(Consumer.class);
+    this.noOverrides = Collections.emptyMap();
+    this.overrides = Collections.singletonMap(StoreBindings.Store.class, StoreBindings.storeName(this.keyCount / 2));
+    this.consumer.initialize(this.noOverrides);
+    this.consumer.initialize(this.overrides);
+  }
+
+  @Benchmark
+  public Consumer initialize() throws ObjectInstantiationException, ObjectInitializationException {
+    return this.consumer.initialize(this.noOverrides);
+  }
+
+  @Benchmark
+  public Consumer initializeWithOverrides() throws ObjectInstantiationException, ObjectInitializationException {
+    return this.consumer.initialize(this.overrides);
+  }
+}
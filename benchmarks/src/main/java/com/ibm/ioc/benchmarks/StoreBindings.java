@@ -0,0 +1,80 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks;
+
+import java.util.Collections;
+
+import com.ibm.ioc.JavaBindings;
+import com.ibm.ioc.JavaBindingsProvider;
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+
+/*
+ * A default store and a number of named ones, and a consumer referring to the default store, which overrides may
+ * replace by a named one.
+ */
+public class StoreBindings implements JavaBindings {
+  // read when the bindings get registered, there is no other way to pass it to them
+  private static volatile int storeCount;
+
+  static JavaBindingsProvider provider(final int storeCount) {
+    StoreBindings.storeCount = storeCount;
+    return new JavaBindingsProvider(Collections.singletonList(StoreBindings.class));
+  }
+
+  static String storeName(final int index) {
+    return "store-" + index;
+  }
+
+  @Override
+  public void register(final BindingsFactory def) {
+    def.def(DefaultStore.class)
+        .iface(Store.class);
+    for (int i = 0; i < storeCount; i++) {
+      def.def(NamedStore.class)
+          .iface(Store.class, storeName(i))
+          .set("name", storeName(i));
+    }
+    def.def(Consumer.class)
+        .ref("store", Store.class);
+  }
+
+  public interface Store {
+    String getName();
+  }
+
+  public static class DefaultStore implements Store {
+    @Override
+    public String getName() {
+      return "default";
+    }
+  }
+
+  public static class NamedStore implements Store {
+    private String name;
+
+    public void setName(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return this.name;
+    }
+  }
+
+  public static class Consumer {
+    private Store store;
+
+    public void setStore(final Store store) {
+      this.store = store;
+    }
+
+    public Store getStore() {
+      return this.store;
+    }
+  }
+}
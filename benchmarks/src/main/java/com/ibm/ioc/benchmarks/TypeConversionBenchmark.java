@@ -0,0 +1,103 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks;
+
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.reflect.TypeToken;
+import com.ibm.ioc.TypeUtils;
+
+/*
+ * String conversion per type family, each one taking a different path through TypeUtils.createObjectFromString.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypeConversionBenchmark {
+  @Param({"string", "int", "long-with-unit", "double", "boolean", "enum", "big-integer", "int-array", "list",
+      "map", "invalid-int"})
+  public String family;
+
+  private Type type;
+  private String value;
+
+  @Setup
+  public void setUp() {
+    switch (this.family) {
+      case "string":
+        this.type = String.class;
+        this.value = "some value";
+        break;
+      case "int":
+        this.type = int.class;
+        this.value = "12345";
+        break;
+      case "long-with-unit":
+        this.type = Long.class;
+        this.value = "512 MiB";
+        break;
+      case "double":
+        this.type = Double.class;
+        this.value = "0.75";
+        break;
+      case "boolean":
+        this.type = boolean.class;
+        this.value = "true";
+        break;
+      case "enum":
+        this.type = TimeUnit.class;
+        this.value = "seconds";
+        break;
+      case "big-integer":
+        this.type = BigInteger.class;
+        this.value = "123456789012345678901234567890";
+        break;
+      case "int-array":
+        this.type = int[].class;
+        this.value = "[1, 2, 3, 4, 5, 6, 7, 8]";
+        break;
+      case "list":
+        this.type = new TypeToken<List<Integer>>() {}.getType();
+        this.value = "[\"1\", \"2\", \"3\", \"4\"]";
+        break;
+      case "map":
+        this.type = new TypeToken<Map<String, String>>() {}.getType();
+        this.value = "{\"host\": \"localhost\", \"port\": \"8080\"}";
+        break;
+      case "invalid-int":
+        this.type = Integer.class;
+        this.value = "not a number";
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown type family " + this.family);
+    }
+  }
+
+  @Benchmark
+  public Object createObjectFromString() {
+    return TypeUtils.createObjectFromString(this.type, this.value);
+  }
+}
@@ -0,0 +1,283 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks.properties;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.ioc.InflightReloader;
+import com.ibm.ioc.impl.INIPropertiesProvider;
+import com.ibm.ioc.impl.MemoryPropertiesProvider;
+import com.ibm.ioc.impl.OrderedPropertiesResolver;
+
+/*
+ * Memory and reload latency of large property sets, one CSV row per size and run:
+ *
+ * java -Xmx4g -cp target/benchmarks.jar com.ibm.ioc.benchmarks.properties.PropertyScaling \
+ *     --keys 10000,100000,1000000 --providers 4 --resolved 10000 --runs 3 --out properties.csv
+ *
+ * - ini_parse_ms, ini_heap_bytes: reading a generated INI file of that many keys, and the heap it retains
+ * - stack_heap_bytes: heap retained by a stack of in-memory providers sharing the keys between them
+ * - qualified_names_ms: the union of all names over that stack
+ * - reload_ms, reload_gc_ms: one provider change re-resolving the resolved keys, and the GC time meanwhile
+ * - detection_ms: from rewriting the INI file to its provider announcing the change, at least one poll period
+ *
+ * Heap figures are taken after explicit full GCs, so do not run with -XX:+DisableExplicitGC.
+ */
+public final class PropertyScaling {
+  static final String HEADER = "keys,providers,resolved,run,ini_file_bytes,ini_parse_ms,ini_parse_gc_ms,"
+      + "ini_heap_bytes,stack_heap_bytes,qualified_names_ms,reload_ms,reload_gc_ms,detection_ms,poll_period_ms";
+
+  private static final int KEYS_PER_SECTION = 100;
+  private static final int DEFAULT_POLL_PERIOD = 100;
+
+  // what is being measured, so that it stays reachable until its heap has been measured
+  private static volatile Object retained;
+
+  private PropertyScaling() {}
+
+  public static void main(final String[] args) throws Exception {
+    final Options options = new Options(args);
+    // read once, when the reloader starts
+    if (System.getProperty(InflightReloader.RELOAD_POLL_PERIOD_PROPERTY) == null) {
+      System.setProperty(InflightReloader.RELOAD_POLL_PERIOD_PROPERTY, Integer.toString(DEFAULT_POLL_PERIOD));
+    }
+    final Path work = options.work != null ? options.work : Files.createTempDirectory("properties");
+    Files.createDirectories(work);
+
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(options.out, StandardCharsets.UTF_8))) {
+      out.println(HEADER);
+      for (final int keys : options.keys) {
+        final Path ini = work.resolve("keys-" + keys + ".ini");
+        writeIni(ini, keys, "value");
+        for (int run = 0; run < options.runs; run++) {
+          final String row = measure(ini, keys, options.providers, Math.min(keys, options.resolved), run);
+          System.err.println(row);
+          out.println(row);
+          out.flush();
+        }
+      }
+    }
+  }
+
+  static String key(final int index) {
+    return "section" + (index / KEYS_PER_SECTION) + ".key-" + (index % KEYS_PER_SECTION);
+  }
+
+  private static void writeIni(final Path file, final int keys, final String value) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      for (int i = 0; i < keys; i++) {
+        if (i % KEYS_PER_SECTION == 0) {
+          writer.write("[section" + (i / KEYS_PER_SECTION) + "]\n");
+        }
+        writer.write("key-" + (i % KEYS_PER_SECTION) + " = " + value + i + "\n");
+      }
+    }
+  }
+
+  /**
+   * Creates what gets measured, returned only to be kept reachable
+   */
+  private interface Creation {
+    Object create() throws Exception;
+  }
+
+  /**
+   * In-memory providers, each with its share of the keys, behind one resolver
+   */
+  private static final class Stack {
+    private final OrderedPropertiesResolver resolver = new OrderedPropertiesResolver();
+    private final List<MemoryPropertiesProvider> providers = new ArrayList<>();
+
+    Stack(final int keys, final int providerCount) {
+      for (int p = 0; p < providerCount; p++) {
+        final Map<String, String> properties = new HashMap<>();
+        for (int i = p; i < keys; i += providerCount) {
+          properties.put(key(i), "value" + i);
+        }
+        final MemoryPropertiesProvider provider = new MemoryPropertiesProvider();
+        provider.addProperties(properties);
+        this.resolver.announcePropertiesProvider("memory-" + p, providerCount - p);
+        this.resolver.registerPropertiesProvider("memory-" + p, provider);
+        this.providers.add(provider);
+      }
+    }
+  }
+
+  private static String measure(final Path ini, final int keys, final int providers, final int resolved,
+      final int run) throws Exception {
+    final long[] parse = new long[2];
+    final long iniHeap = retainedHeap(() -> {
+      final long gcBefore = gcMillis();
+      final long start = System.nanoTime();
+      final INIPropertiesProvider iniProvider = new INIPropertiesProvider(ini.toFile(), false);
+      parse[0] = System.nanoTime() - start;
+      parse[1] = gcMillis() - gcBefore;
+      if (iniProvider.getQualifiedNames().size() != keys) {
+        throw new IllegalStateException("Parsed " + iniProvider.getQualifiedNames().size() + " keys, not " + keys);
+      }
+      return iniProvider;
+    });
+
+    final long stackHeap = retainedHeap(() -> new Stack(keys, providers));
+    final Stack stack = new Stack(keys, providers);
+
+    long start = System.nanoTime();
+    final int names = stack.resolver.getQualifiedNames().size();
+    final long qualifiedNames = System.nanoTime() - start;
+    if (names != keys) {
+      throw new IllegalStateException("Resolver has " + names + " names, not " + keys);
+    }
+
+    // every resolved key gets looked up again on any change of any provider
+    for (int i = 0; i < resolved; i++) {
+      stack.resolver.resolveModifiable(key(i));
+    }
+    final long gcBefore = gcMillis();
+    start = System.nanoTime();
+    stack.providers.get(0).addProperty(key(0), "changed");
+    final long reload = System.nanoTime() - start;
+    final long reloadGc = gcMillis() - gcBefore;
+
+    final long detection = detectionLatency(ini, keys, run);
+
+    return String.join(",", Integer.toString(keys), Integer.toString(providers), Integer.toString(resolved),
+        Integer.toString(run), Long.toString(Files.size(ini)), millis(parse[0]), Long.toString(parse[1]),
+        Long.toString(iniHeap), Long.toString(stackHeap), millis(qualifiedNames), millis(reload),
+        Long.toString(reloadGc), millis(detection),
+        System.getProperty(InflightReloader.RELOAD_POLL_PERIOD_PROPERTY));
+  }
+
+  private static long detectionLatency(final Path ini, final int keys, final int run) throws Exception {
+    final Path copy = ini.resolveSibling("reloaded-" + keys + "-" + run + ".ini");
+    Files.copy(ini, copy);
+    final INIPropertiesProvider provider = new INIPropertiesProvider(copy.toFile(), true);
+    final Semaphore reloads = new Semaphore(0);
+    final AtomicLong detected = new AtomicLong();
+    final AtomicBoolean armed = new AtomicBoolean();
+    // listeners get called once when added, that one does not count
+    provider.addModificationListener(() -> {
+      if (armed.get()) {
+        detected.compareAndSet(0, System.nanoTime());
+        reloads.release();
+      }
+    });
+
+    armed.set(true);
+    final long start = System.nanoTime();
+    writeIni(copy, keys, "changed");
+    // make sure the change shows on file systems with a coarse modification time
+    Files.setLastModifiedTime(copy, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+    if (!reloads.tryAcquire(1, TimeUnit.MINUTES)) {
+      throw new IllegalStateException("Change of " + copy + " was not detected");
+    }
+    final long latency = detected.get() - start;
+
+    // the reloader keeps watching the file, once it is gone the provider drops its properties
+    Files.delete(copy);
+    if (!reloads.tryAcquire(1, TimeUnit.MINUTES)) {
+      throw new IllegalStateException("Removal of " + copy + " was not detected");
+    }
+    return latency;
+  }
+
+  /**
+   * @return heap used while the created object is reachable less heap used right after it no longer is, measured
+   *         back-to-back so that garbage of earlier measurements does not count
+   */
+  private static long retainedHeap(final Creation creation) throws Exception {
+    retained = creation.create();
+    final long with = usedHeapAfterGc();
+    retained = null;
+    return with - usedHeapAfterGc();
+  }
+
+  private static long usedHeapAfterGc() {
+    // collect until nothing more goes away, a single GC may leave garbage of finalizers and references behind
+    final Runtime runtime = Runtime.getRuntime();
+    long used = Long.MAX_VALUE;
+    for (int i = 0; i < 10; i++) {
+      System.gc();
+      final long now = runtime.totalMemory() - runtime.freeMemory();
+      if (now >= used) {
+        return now;
+      }
+      used = now;
+    }
+    return used;
+  }
+
+  private static long gcMillis() {
+    long total = 0;
+    for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(0, gc.getCollectionTime());
+    }
+    return total;
+  }
+
+  private static String millis(final long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+  }
+
+  private static final class Options {
+    private List<Integer> keys = Arrays.asList(10_000, 100_000, 1_000_000);
+    private int providers = 4;
+    private int resolved = 10_000;
+    private int runs = 3;
+    private Path out = Paths.get("property-scaling.csv");
+    private Path work;
+
+    Options(final String[] args) {
+      for (int i = 0; i + 1 < args.length; i += 2) {
+        final String value = args[i + 1];
+        switch (args[i]) {
+          case "--keys":
+            this.keys = new ArrayList<>();
+            for (final String item : value.split(",")) {
+              this.keys.add(Integer.parseInt(item.trim()));
+            }
+            break;
+          case "--providers":
+            this.providers = Integer.parseInt(value);
+            break;
+          case "--resolved":
+            this.resolved = Integer.parseInt(value);
+            break;
+          case "--runs":
+            this.runs = Integer.parseInt(value);
+            break;
+          case "--out":
+            this.out = Paths.get(value);
+            break;
+          case "--work":
+            this.work = Paths.get(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + args[i]);
+        }
+      }
+    }
+  }
+}
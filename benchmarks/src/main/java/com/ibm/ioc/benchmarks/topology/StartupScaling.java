@@ -0,0 +1,211 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks.topology;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.ibm.ioc.JavaBindingsProvider;
+import com.ibm.ioc.util.StartupProfiler;
+
+/*
+ * Cold start of synthetic topologies across sizes, each measured in a JVM of its own and written as one CSV row:
+ *
+ * java -cp target/benchmarks.jar com.ibm.ioc.benchmarks.topology.StartupScaling \
+ *     --definitions 100,1000,5000 --depth 4,8 --fan-out 2,4 --runs 3 --out startup.csv
+ *
+ * Phases are loading the bindings classes, constructing the provider (which runs registerAll), creating the roots,
+ * which touches every definition reachable from them, and selfTest. Instantiation, parameter resolution, conversion
+ * and building are the profiler's self times over all phases. Heap is measured after a full GC once started.
+ */
+public final class StartupScaling {
+  static final String HEADER = "definitions,depth,fan_out,run,load_bindings_ms,construct_ms,first_touch_ms,"
+      + "self_test_ms,instantiate_ms,resolve_parameters_ms,convert_ms,build_ms,jvm_uptime_ms,heap_used_bytes";
+
+  private StartupScaling() {}
+
+  public static void main(final String[] args) throws Exception {
+    if (args.length > 0 && args[0].equals("--measure")) {
+      System.out.println(measure(Arrays.asList(args).subList(1, args.length)));
+      return;
+    }
+
+    final Options options = new Options(args);
+    final Path work = options.work != null ? options.work : Files.createTempDirectory("topology");
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(options.out, StandardCharsets.UTF_8))) {
+      out.println(HEADER);
+      for (final int definitions : options.definitions) {
+        for (final int depth : options.depths) {
+          for (final int fanOut : options.fanOuts) {
+            final TopologyShape shape = new TopologyShape(definitions, depth, fanOut, options.builderEvery);
+            final Path directory = work.resolve(definitions + "-" + depth + "-" + fanOut);
+            System.err.println("Generating " + shape);
+            final List<String> bindings = TopologyGenerator.generate(shape, directory);
+            for (int run = 0; run < options.runs; run++) {
+              final String row = fork(shape, directory.resolve("classes"), bindings, run, options.jvmArgs);
+              System.err.println(row);
+              out.println(row);
+              out.flush();
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static String fork(final TopologyShape shape, final Path classes, final List<String> bindings,
+      final int run, final List<String> jvmArgs) throws IOException, InterruptedException {
+    final List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmArgs);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path") + File.pathSeparator + classes);
+    command.add(StartupScaling.class.getName());
+    command.add("--measure");
+    command.add(Integer.toString(shape.getDefinitions()));
+    command.add(Integer.toString(shape.getDepth()));
+    command.add(Integer.toString(shape.getFanOut()));
+    command.add(Integer.toString(run));
+    command.addAll(bindings);
+
+    final Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    String row = null;
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        row = line;
+      }
+    }
+    if (process.waitFor() != 0 || row == null) {
+      throw new IllegalStateException("Measuring " + shape + " failed with exit code " + process.exitValue());
+    }
+    return row;
+  }
+
+  /**
+   * Runs in the forked JVM, the bindings classes being on its class path
+   *
+   * @param args definitions, depth, fan-out and run, for the CSV row, followed by the bindings class names
+   */
+  private static String measure(final List<String> args) throws Exception {
+    final TopologyShape shape = new TopologyShape(Integer.parseInt(args.get(0)), Integer.parseInt(args.get(1)),
+        Integer.parseInt(args.get(2)), 0);
+    final StartupProfiler profiler = StartupProfiler.start();
+
+    long start = System.nanoTime();
+    final List<Class<?>> classes = new ArrayList<>();
+    for (final String name : args.subList(4, args.size())) {
+      classes.add(Class.forName(name));
+    }
+    final long load = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    final JavaBindingsProvider provider = new JavaBindingsProvider(classes);
+    final long construct = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    @SuppressWarnings("unchecked")
+    final Class<Object> service = (Class<Object>) Class.forName(TopologyGenerator.SERVICE);
+    for (int i = 0; i < shape.sizeOf(0); i++) {
+      provider.getImplementation(service, TopologyGenerator.referral(i)).initialize();
+    }
+    final long firstTouch = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    final Map<Class<?>, List<String>> unresolved = provider.selfTest();
+    final long selfTest = System.nanoTime() - start;
+    profiler.stop();
+    if (!unresolved.isEmpty()) {
+      throw new IllegalStateException("Synthetic bindings did not resolve: " + unresolved);
+    }
+
+    final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    memory.gc();
+    final long heap = memory.getHeapMemoryUsage().getUsed();
+
+    return String.join(",", args.get(0), args.get(1), args.get(2), args.get(3),
+        millis(load), millis(construct), millis(firstTouch), millis(selfTest),
+        millis(profiler.getSelfNanos(StartupProfiler.INSTANTIATE)),
+        millis(profiler.getSelfNanos(StartupProfiler.RESOLVE_PARAMETERS)),
+        millis(profiler.getSelfNanos(StartupProfiler.CONVERT)),
+        millis(profiler.getSelfNanos(StartupProfiler.BUILD)),
+        Long.toString(ManagementFactory.getRuntimeMXBean().getUptime()),
+        Long.toString(heap));
+  }
+
+  private static String millis(final long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+  }
+
+  private static final class Options {
+    private List<Integer> definitions = Arrays.asList(100, 1000, 5000);
+    private List<Integer> depths = Arrays.asList(4);
+    private List<Integer> fanOuts = Arrays.asList(2);
+    private int builderEvery = 5;
+    private int runs = 3;
+    private Path out = Paths.get("startup-scaling.csv");
+    private Path work;
+    private List<String> jvmArgs = new ArrayList<>();
+
+    Options(final String[] args) {
+      for (int i = 0; i + 1 < args.length; i += 2) {
+        final String value = args[i + 1];
+        switch (args[i]) {
+          case "--definitions":
+            this.definitions = integers(value);
+            break;
+          case "--depth":
+            this.depths = integers(value);
+            break;
+          case "--fan-out":
+            this.fanOuts = integers(value);
+            break;
+          case "--builder-every":
+            this.builderEvery = Integer.parseInt(value);
+            break;
+          case "--runs":
+            this.runs = Integer.parseInt(value);
+            break;
+          case "--out":
+            this.out = Paths.get(value);
+            break;
+          case "--work":
+            this.work = Paths.get(value);
+            break;
+          case "--jvm-args":
+            this.jvmArgs = Arrays.asList(value.trim().split("\\s+"));
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + args[i]);
+        }
+      }
+    }
+
+    private static List<Integer> integers(final String value) {
+      final List<Integer> list = new ArrayList<>();
+      for (final String item : value.split(",")) {
+        list.add(Integer.parseInt(item.trim()));
+      }
+      return list;
+    }
+  }
+}
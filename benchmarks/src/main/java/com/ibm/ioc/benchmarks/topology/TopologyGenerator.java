@@ -0,0 +1,173 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks.topology;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/*
+ * Writes the sources of a synthetic topology and compiles them: one class per definition, a builder for some of them
+ * and JavaBindings classes registering them all. Every definition implements Service under its own referral.
+ */
+public final class TopologyGenerator {
+  static final String PACKAGE = "synthetic";
+  static final String SERVICE = PACKAGE + ".Service";
+  private static final int DEFINITIONS_PER_BINDINGS = 200;
+
+  private TopologyGenerator() {}
+
+  static String referral(final int definition) {
+    return "n" + definition;
+  }
+
+  /**
+   * @param shape of the topology
+   * @param directory to write sources and classes to, below <code>src</code> and <code>classes</code>
+   * @return names of the generated bindings classes
+   */
+  public static List<String> generate(final TopologyShape shape, final Path directory) throws IOException {
+    final Path sources = directory.resolve("src").resolve(PACKAGE);
+    final Path classes = directory.resolve("classes");
+    Files.createDirectories(sources);
+    Files.createDirectories(classes);
+
+    final List<Path> files = new ArrayList<>();
+    files.add(write(sources.resolve("Service.java"), "package " + PACKAGE + ";\n\n"
+        + "public interface Service {\n  String name();\n}\n"));
+    for (int i = 0; i < shape.getDefinitions(); i++) {
+      files.add(write(sources.resolve("N" + i + ".java"), node(shape, i)));
+      if (shape.isBuilt(i)) {
+        files.add(write(sources.resolve("N" + i + "Builder.java"), builder(shape, i)));
+      }
+    }
+    final List<String> bindings = new ArrayList<>();
+    for (int first = 0; first < shape.getDefinitions(); first += DEFINITIONS_PER_BINDINGS) {
+      final String name = "Bindings" + bindings.size();
+      files.add(write(sources.resolve(name + ".java"),
+          bindings(shape, name, first, Math.min(shape.getDefinitions(), first + DEFINITIONS_PER_BINDINGS))));
+      bindings.add(PACKAGE + "." + name);
+    }
+
+    compile(files, classes);
+    return bindings;
+  }
+
+  private static Path write(final Path file, final String source) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write(source);
+    }
+    return file;
+  }
+
+  private static int dependencies(final TopologyShape shape, final int definition) {
+    return shape.dependency(definition, 0) < 0 ? 0 : shape.getFanOut();
+  }
+
+  private static String node(final TopologyShape shape, final int i) {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("package ").append(PACKAGE).append(";\n\n");
+    sb.append("public class N").append(i).append(" implements Service {\n");
+    sb.append("  private String label;\n  private int weight;\n");
+    final int dependencies = dependencies(shape, i);
+    for (int k = 0; k < dependencies; k++) {
+      sb.append("  private Service dep").append(k).append(";\n");
+    }
+    if (shape.isBuilt(i)) {
+      // built objects get their state through the constructor
+      sb.append("\n  N").append(i).append("(final String label, final int weight");
+      for (int k = 0; k < dependencies; k++) {
+        sb.append(", final Service dep").append(k);
+      }
+      sb.append(") {\n    this.label = label;\n    this.weight = weight;\n");
+      for (int k = 0; k < dependencies; k++) {
+        sb.append("    this.dep").append(k).append(" = dep").append(k).append(";\n");
+      }
+      sb.append("  }\n");
+    } else {
+      sb.append("\n  public void setLabel(final String label) {\n    this.label = label;\n  }\n");
+      sb.append("\n  public void setWeight(final int weight) {\n    this.weight = weight;\n  }\n");
+      for (int k = 0; k < dependencies; k++) {
+        sb.append("\n  public void setDep").append(k).append("(final Service dep").append(k).append(") {\n")
+            .append("    this.dep").append(k).append(" = dep").append(k).append(";\n  }\n");
+      }
+    }
+    sb.append("\n  @Override\n  public String name() {\n    return this.label + this.weight");
+    for (int k = 0; k < dependencies; k++) {
+      sb.append(" + this.dep").append(k).append(".hashCode()");
+    }
+    sb.append(";\n  }\n}\n");
+    return sb.toString();
+  }
+
+  private static String builder(final TopologyShape shape, final int i) {
+    // builders take their parameters as public fields, all of which have to be set
+    final StringBuilder sb = new StringBuilder();
+    sb.append("package ").append(PACKAGE).append(";\n\n");
+    sb.append("public class N").append(i).append("Builder {\n");
+    sb.append("  public String label;\n  public int weight;\n");
+    final int dependencies = dependencies(shape, i);
+    for (int k = 0; k < dependencies; k++) {
+      sb.append("  public Service dep").append(k).append(";\n");
+    }
+    sb.append("\n  public N").append(i).append(" build() {\n    return new N").append(i)
+        .append("(this.label, this.weight");
+    for (int k = 0; k < dependencies; k++) {
+      sb.append(", this.dep").append(k);
+    }
+    sb.append(");\n  }\n}\n");
+    return sb.toString();
+  }
+
+  private static String bindings(final TopologyShape shape, final String name, final int first, final int end) {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("package ").append(PACKAGE).append(";\n\n");
+    sb.append("import com.ibm.ioc.JavaBindings;\n");
+    sb.append("import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;\n\n");
+    sb.append("public class ").append(name).append(" implements JavaBindings {\n");
+    sb.append("  @Override\n  public void register(final BindingsFactory def) {\n");
+    for (int i = first; i < end; i++) {
+      sb.append(shape.isBuilt(i) ? "    def.builder(N" + i + "Builder.class)\n" : "    def.def(N" + i + ".class)\n");
+      sb.append("        .iface(Service.class, \"").append(referral(i)).append("\")\n");
+      sb.append("        .set(\"label\", \"").append(referral(i)).append("\")\n");
+      sb.append("        .set(\"weight\", ").append(i).append(")");
+      for (int k = 0; k < dependencies(shape, i); k++) {
+        sb.append("\n        .ref(\"dep").append(k).append("\", Service.class, \"")
+            .append(referral(shape.dependency(i, k))).append("\")");
+      }
+      sb.append(";\n");
+    }
+    sb.append("  }\n}\n");
+    return sb.toString();
+  }
+
+  private static void compile(final List<Path> files, final Path classes) throws IOException {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("Generating a topology needs a JDK, not a JRE");
+    }
+    // an argument file keeps the command line short with thousands of sources
+    final Path argFile = classes.resolveSibling("sources.txt");
+    final List<String> lines = new ArrayList<>();
+    for (final Path file : files) {
+      lines.add("\"" + file.toAbsolutePath().toString().replace("\\", "\\\\") + "\"");
+    }
+    Files.write(argFile, lines, StandardCharsets.UTF_8);
+    final int result = compiler.run(null, null, null, "-nowarn", "-proc:none",
+        "-cp", System.getProperty("java.class.path"), "-d", classes.toString(), "@" + argFile);
+    if (result != 0) {
+      throw new IllegalStateException("Could not compile the generated topology, javac returned " + result);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.benchmarks.topology;
+
+/*
+ * Shape of a synthetic topology: definitions spread evenly over layers, each one referring to fanOut definitions of
+ * the next layer, and every builderEvery-th one created through a builder.
+ */
+public final class TopologyShape {
+  private final int definitions;
+  private final int depth;
+  private final int fanOut;
+  private final int builderEvery;
+
+  public TopologyShape(final int definitions, final int depth, final int fanOut, final int builderEvery) {
+    if (definitions < depth || depth < 1 || fanOut < 0 || builderEvery < 0) {
+      throw new IllegalArgumentException("Can't lay out " + definitions + " definitions in " + depth + " layers");
+    }
+    this.definitions = definitions;
+    this.depth = depth;
+    this.fanOut = fanOut;
+    this.builderEvery = builderEvery;
+  }
+
+  public int getDefinitions() {
+    return this.definitions;
+  }
+
+  public int getDepth() {
+    return this.depth;
+  }
+
+  public int getFanOut() {
+    return this.fanOut;
+  }
+
+  public int getBuilderEvery() {
+    return this.builderEvery;
+  }
+
+  /**
+   * @return layer of a definition, 0 for the roots
+   */
+  int layer(final int definition) {
+    return (int) ((long) definition * this.depth / this.definitions);
+  }
+
+  /**
+   * @return first definition of a layer
+   */
+  int firstOf(final int layer) {
+    return (int) (((long) layer * this.definitions + this.depth - 1) / this.depth);
+  }
+
+  /**
+   * @return number of definitions in a layer
+   */
+  int sizeOf(final int layer) {
+    return firstOf(layer + 1) - firstOf(layer);
+  }
+
+  /**
+   * @return index of the k-th dependency of a definition, -1 for the last layer
+   */
+  int dependency(final int definition, final int k) {
+    final int layer = layer(definition);
+    if (layer == this.depth - 1) {
+      return -1;
+    }
+    final int next = layer + 1;
+    return firstOf(next) + (int) (((long) (definition - firstOf(layer)) * this.fanOut + k) % sizeOf(next));
+  }
+
+  boolean isBuilt(final int definition) {
+    return this.builderEvery > 0 && definition % this.builderEvery == this.builderEvery - 1;
+  }
+
+  @Override
+  public String toString() {
+    return this.definitions + " definitions, depth " + this.depth + ", fan-out " + this.fanOut;
+  }
+}
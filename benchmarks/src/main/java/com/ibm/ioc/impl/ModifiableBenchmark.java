@@ -0,0 +1,54 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Fan-out of a changed property value to its listeners. In this package since modifiable values are not public.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModifiableBenchmark {
+  @Param({"0", "1", "16", "256"})
+  public int listenerCount;
+
+  private ModifiableImpl<Object> modifiable;
+  private final Object[] values = {"a", "b"};
+  private int next;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) {
+    this.modifiable = new ModifiableImpl<>();
+    for (int i = 0; i < this.listenerCount; i++) {
+      this.modifiable.addModificationListener(blackhole::consume);
+    }
+  }
+
+  @Benchmark
+  public void set() {
+    this.next ^= 1;
+    this.modifiable.set(this.values[this.next]);
+  }
+}
@@ -15,6 +15,8 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.ibm.ioc.impl.ConfigurationEvents;
 import com.ibm.ioc.impl.ImplementationFactory;
 
@@ -22,13 +24,34 @@ import com.ibm.ioc.impl.ImplementationFactory;
 public abstract class Binding {
   private static final Logger _logger = LoggerFactory.getLogger(Binding.class);
 
-  // Maps referral to an implementation
-  private final Map<String, ImplementationFactory<?>> referralImplementations = new HashMap<>();
+  // Maps referral to an implementation, immutable once frozen
+  private Map<String, ImplementationFactory<?>> referralImplementations = new HashMap<>();
 
   private ImplementationFactory<?> defaultImplementation = null;
 
+  private boolean frozen;
+
+  // Implementations of all referrals, set by freeze()
+  private ImmutableSet<ImplementationFactory<?>> frozenImplementations;
+
+  /**
+   * Ends registration, the binding can't be changed afterwards and returns shared immutable views
+   */
+  public void freeze() {
+    this.referralImplementations = ImmutableMap.copyOf(this.referralImplementations);
+    this.frozenImplementations = ImmutableSet.copyOf(this.referralImplementations.values());
+    this.frozen = true;
+  }
+
+  private void checkNotFrozen() {
+    if (this.frozen) {
+      throw new IllegalStateException("Binding " + getQualifiedBindingName() + " is frozen");
+    }
+  }
+
   public void setDefaultImplementationFactory(final ImplementationFactory<?> implementationFactory)
       throws IllegalConfigurationContentException {
+    checkNotFrozen();
     if (this.defaultImplementation != null) {
       _logger.error(ConfigurationEvents.MULTIPLE_DEFAULT_IMPLEMENTATIONS,
           getQualifiedBindingName(), this.defaultImplementation + ", " + implementationFactory);
@@ -49,6 +72,7 @@ public abstract class Binding {
       final String referral,
       final ImplementationFactory<?> implementationFactory)
       throws IllegalConfigurationContentException {
+    checkNotFrozen();
     checkRequiredInterface(implementationFactory);
 
     if (this.referralImplementations.containsKey(referral)) {
@@ -83,6 +107,9 @@ public abstract class Binding {
 
   @SuppressWarnings("unchecked")
   public <T> Set<ImplementationFactory<T>> getImplementationFactorySet(final Class<T> cls) {
+    if (this.frozen) {
+      return (Set<ImplementationFactory<T>>) (Set<?>) this.frozenImplementations;
+    }
     final Set<ImplementationFactory<T>> factories = new HashSet<ImplementationFactory<T>>();
     for (final ImplementationFactory<?> factory : this.referralImplementations.values()) {
       factories.add((ImplementationFactory<T>) factory);
@@ -92,6 +119,9 @@ public abstract class Binding {
 
   @SuppressWarnings("unchecked")
   public <T> Map<String, ImplementationFactory<? extends T>> getImplementationFactoryMap() {
+    if (this.frozen) {
+      return (Map<String, ImplementationFactory<? extends T>>) (Map<String, ?>) this.referralImplementations;
+    }
     final Map<String, ImplementationFactory<? extends T>> factories = new HashMap<>();
     this.referralImplementations.forEach((referral, factory) -> factories.put(referral,
         (ImplementationFactory<T>) factory));
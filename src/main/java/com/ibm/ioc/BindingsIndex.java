@@ -0,0 +1,121 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bindings classes as listed by the indexes {@link BindingsIndexProcessor} writes at build time, one per jar or class
+ * directory. Classes are loaded through the class loader reading the indexes, so the class path isn't searched for
+ * bindings class files and the classes can be archived for class data sharing like any other.
+ */
+final class BindingsIndex {
+  private static final Logger _logger = LoggerFactory.getLogger(BindingsIndex.class);
+
+  static final String RESOURCE = "META-INF/java-ioc/bindings.index";
+
+  private BindingsIndex() {}
+
+  /**
+   * @param index index resource
+   * @return binary names of the classes listed, without blank lines and <code>#</code> comments
+   */
+  static List<String> read(final URL index) throws IOException {
+    final List<String> classNames = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        if (!line.isEmpty() && !line.startsWith("#")) {
+          classNames.add(line);
+        }
+      }
+    }
+    return classNames;
+  }
+
+  /**
+   * @param classLoader to find the indexes and load the classes with
+   * @return bindings classes of all indexes in class path order, null if there is no index
+   */
+  static List<Class<?>> load(final ClassLoader classLoader) {
+    final List<URL> indexes = new ArrayList<>();
+    final List<String> classNames = new ArrayList<>();
+    final Map<String, Integer> copies = new HashMap<>();
+    try {
+      for (final Enumeration<URL> urls = classLoader.getResources(RESOURCE); urls.hasMoreElements();) {
+        final URL index = urls.nextElement();
+        _logger.info("Reading bindings index {}", index);
+        for (final String className : read(index)) {
+          indexes.add(index);
+          classNames.add(className);
+          copies.merge(className, 1, Integer::sum);
+        }
+      }
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+    if (indexes.isEmpty()) {
+      return null;
+    }
+
+    // a name listed by several indexes, e.g. Bindings in the default package, would only ever load the first copy;
+    // those are defined from their class files next to the index instead
+    final List<URL> sameNameClassFiles = new ArrayList<>();
+    final List<String> sameNames = new ArrayList<>();
+    for (int i = 0; i < classNames.size(); i++) {
+      if (copies.get(classNames.get(i)) > 1) {
+        sameNameClassFiles.add(classFile(indexes.get(i), classNames.get(i)));
+        sameNames.add(classNames.get(i));
+      }
+    }
+    final Iterator<Class<?>> sameNameClasses =
+        JavaBindingsProvider.loadBindingsClasses(sameNameClassFiles, sameNames).iterator();
+
+    final List<Class<?>> classes = new ArrayList<>(classNames.size());
+    for (final String className : classNames) {
+      if (copies.get(className) > 1) {
+        classes.add(sameNameClasses.next());
+      } else {
+        try {
+          classes.add(Class.forName(className, false, classLoader));
+        } catch (final ClassNotFoundException e) {
+          throw new IllegalStateException("Indexed bindings class not found", e);
+        }
+      }
+    }
+    return classes;
+  }
+
+  private static URL classFile(final URL index, final String className) {
+    final StringBuilder path = new StringBuilder();
+    // from META-INF/java-ioc up to the root of the jar or directory
+    for (int i = RESOURCE.split("/").length - 1; i > 0; i--) {
+      path.append("../");
+    }
+    path.append(className.replace('.', '/')).append(".class");
+    try {
+      return new URL(index, path.toString());
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
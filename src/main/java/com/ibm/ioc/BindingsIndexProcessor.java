@@ -0,0 +1,144 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor writing the index {@link JavaBindingsProvider#fromIndex()} reads: the binary names of all
+ * public, concrete, top level {@link JavaBindings} implementations compiled with it. It is not registered as a service,
+ * enable it where the bindings are compiled:
+ *
+ * <pre>
+ * &lt;plugin&gt;
+ *   &lt;artifactId&gt;maven-compiler-plugin&lt;/artifactId&gt;
+ *   &lt;configuration&gt;
+ *     &lt;annotationProcessors&gt;
+ *       &lt;annotationProcessor&gt;com.ibm.ioc.BindingsIndexProcessor&lt;/annotationProcessor&gt;
+ *     &lt;/annotationProcessors&gt;
+ *   &lt;/configuration&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ *
+ * Incremental builds compile only some of the classes, so the index already in the class output is merged with what
+ * was compiled: its entries stay as long as their classes still exist and, if compiled again, still are bindings.
+ */
+@SupportedAnnotationTypes("*")
+public final class BindingsIndexProcessor extends AbstractProcessor {
+  private final Set<String> classNames = new TreeSet<>();
+
+  // Top level classes compiled, bindings or not
+  private final Set<String> compiledNames = new HashSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      final boolean indexed = merge();
+      if (indexed || !this.classNames.isEmpty()) {
+        write();
+      }
+      return false;
+    }
+
+    final TypeElement bindings = this.processingEnv.getElementUtils().getTypeElement(JavaBindings.class.getName());
+    if (bindings == null) {
+      return false;
+    }
+    final TypeMirror bindingsType = this.processingEnv.getTypeUtils().erasure(bindings.asType());
+    for (final Element element : roundEnv.getRootElements()) {
+      if (element instanceof TypeElement) {
+        this.compiledNames.add(this.processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+      }
+      if (element.getKind() == ElementKind.CLASS
+          && element.getModifiers().contains(Modifier.PUBLIC)
+          && !element.getModifiers().contains(Modifier.ABSTRACT)
+          && this.processingEnv.getTypeUtils().isAssignable(element.asType(), bindingsType)) {
+        this.classNames.add(
+            this.processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+      }
+    }
+    // claims no annotations, other processors still see them
+    return false;
+  }
+
+  /**
+   * Adds the entries of the index a former compilation wrote that this one didn't compile and that still exist
+   *
+   * @return true if there was such an index
+   */
+  private boolean merge() {
+    final FileObject index;
+    try {
+      index = this.processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", BindingsIndex.RESOURCE);
+    } catch (final IOException | IllegalArgumentException e) {
+      return false;
+    }
+    try (Reader reader = index.openReader(true);
+        BufferedReader lines = new BufferedReader(reader)) {
+      String line;
+      while ((line = lines.readLine()) != null) {
+        final String className = line.trim();
+        if (!className.isEmpty() && !className.startsWith("#") && !this.compiledNames.contains(className)
+            && this.processingEnv.getElementUtils().getTypeElement(className) != null) {
+          this.classNames.add(className);
+        }
+      }
+      return true;
+    } catch (final FileNotFoundException | NoSuchFileException e) {
+      return false;
+    } catch (final IOException e) {
+      this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Failed to read " + BindingsIndex.RESOURCE + ": " + e);
+      return false;
+    }
+  }
+
+  private void write() {
+    try {
+      final FileObject index = this.processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "", BindingsIndex.RESOURCE);
+      try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+        writer.write("# JavaBindings implementations, written by " + BindingsIndexProcessor.class.getName() + "\n");
+        for (final String className : this.classNames) {
+          writer.write(className);
+          writer.write('\n');
+        }
+      }
+    } catch (final IOException e) {
+      this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Failed to write " + BindingsIndex.RESOURCE + ": " + e);
+    }
+  }
+}
@@ -6,6 +6,8 @@
 
 package com.ibm.ioc;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -59,6 +61,37 @@ public interface BindingsProvider {
    */
   Map<Class<?>, List<String>> selfTest();
 
+  /**
+   * Initializes every referral and default implementation, several at a time and each within a timeout, to detect
+   * objects that can't be instantiated from bindings
+   *
+   * The default implementation initializes one factory after the other on the calling thread, honouring only the
+   * strictness of the options.
+   *
+   * @param options parallelism, timeout and strictness
+   * @return outcome and duration of each initialization
+   */
+  default SelfTestReport selfTest(final SelfTestOptions options) {
+    final long start = System.nanoTime();
+    final List<SelfTestReport.Result> results = new ArrayList<>();
+    for (final InterfaceBinding binding : getInterfaceBindingsMap().values()) {
+      for (final String referral : binding.getImplementationReferralSet()) {
+        final ImplementationFactory<?> factory;
+        try {
+          factory = binding.getImplementationFactory(referral);
+        } catch (final ConfigurationItemNotDefinedException e) {
+          throw new IllegalStateException("Referral " + referral + " of " + binding + " vanished", e);
+        }
+        results.add(SelfTestReport.check(binding.getRequiredInterface(), referral, factory, options.isStrict()));
+      }
+      if (binding.getDefaultImplementationFactory() != null) {
+        results.add(SelfTestReport.check(binding.getRequiredInterface(), null,
+            binding.getDefaultImplementationFactory(), options.isStrict()));
+      }
+    }
+    return new SelfTestReport(results, Duration.ofNanos(System.nanoTime() - start));
+  }
+
   /**
    * Get the map of all interfaces in bindings
    * 
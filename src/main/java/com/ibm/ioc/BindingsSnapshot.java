@@ -0,0 +1,328 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import com.ibm.ioc.impl.PropertyReads;
+
+/**
+ * Registration calls of all definitions, recorded so that a later boot with the same bindings classes can replay them
+ * instead of loading and running the bindings classes, together with what registering them found by reflection, such as
+ * the builder fields among the parameters. Snapshots are keyed by the location, modification time and size of the
+ * bindings class files, or of the jars holding them, and by the values of the properties read through the resolver
+ * while the snapshot was taken; a snapshot with another key, changed property values, another format or unreadable
+ * content is ignored. Bindings classes reading system properties or the environment directly are not snapshotted at
+ * all, since what they register can't be told from these.
+ */
+final class BindingsSnapshot {
+  private static final Logger _logger = LoggerFactory.getLogger(BindingsSnapshot.class);
+
+  private static final int MAGIC = 0x10C5CA95;
+  private static final int VERSION = 3;
+
+  // Methods whose result may change between boots without the class file changing, by class and method name
+  private static final ImmutableSet<String> ENVIRONMENT_READS = ImmutableSet.of(
+      "java/lang/System.getProperty",
+      "java/lang/System.getProperties",
+      "java/lang/System.getenv",
+      "java/lang/Boolean.getBoolean",
+      "java/lang/Integer.getInteger",
+      "java/lang/Long.getLong");
+
+  /**
+   * One registration call, e.g. <code>ref</code> with field, interface and referral
+   */
+  static final class Step {
+    final String operation;
+    final String[] arguments;
+
+    Step(final String operation, final String... arguments) {
+      this.operation = operation;
+      this.arguments = arguments;
+    }
+
+    String get(final int index) {
+      return this.arguments[index];
+    }
+  }
+
+  /**
+   * Calls of one definition, the first one creating it
+   */
+  static final class Entry {
+    final List<Step> steps = new ArrayList<>();
+  }
+
+  private final String fingerprint;
+  private final List<Entry> entries;
+
+  BindingsSnapshot(final String fingerprint, final List<Entry> entries) {
+    this.fingerprint = fingerprint;
+    this.entries = entries;
+  }
+
+  List<Entry> getEntries() {
+    return Collections.unmodifiableList(this.entries);
+  }
+
+  String getFingerprint() {
+    return this.fingerprint;
+  }
+
+  /**
+   * @param classFiles bindings class files in discovery order
+   * @return digest of their location and of the modification time and size of the files or jars they are in; the
+   *         content of class files elsewhere is digested instead
+   */
+  static String fingerprint(final Collection<URL> classFiles) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    digest.update(Integer.toString(VERSION).getBytes(StandardCharsets.UTF_8));
+    for (final URL classFile : classFiles) {
+      digest.update(classFile.toString().getBytes(StandardCharsets.UTF_8));
+      final String stamp = stamp(classFile);
+      if (stamp != null) {
+        digest.update(stamp.getBytes(StandardCharsets.UTF_8));
+      } else {
+        try (InputStream input = classFile.openStream()) {
+          digest.update(ByteStreams.toByteArray(input));
+        }
+      }
+    }
+    final StringBuilder sb = new StringBuilder();
+    for (final byte b : digest.digest()) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @param classFile bindings class file
+   * @return modification time and size of the file, or of the jar it is in, null if it isn't in the file system
+   */
+  private static String stamp(final URL classFile) throws IOException {
+    URL location = classFile;
+    if ("jar".equals(location.getProtocol())) {
+      // jar:file:/app.jar!/Bindings.class, the outermost jar of nested ones changes with them
+      final String path = location.getPath();
+      final int separator = path.indexOf("!/");
+      location = new URL(separator < 0 ? path : path.substring(0, separator));
+    }
+    if (!"file".equals(location.getProtocol())) {
+      return null;
+    }
+    final Path file;
+    try {
+      file = Paths.get(location.toURI());
+    } catch (final URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+    final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    return attributes.lastModifiedTime().toMillis() + ":" + attributes.size();
+  }
+
+  /**
+   * @param classFiles bindings class files
+   * @return true if one of them reads system properties or the environment, see {@link #findEnvironmentRead(byte[])}
+   */
+  static boolean readsEnvironment(final Collection<URL> classFiles) throws IOException {
+    for (final URL classFile : classFiles) {
+      final String environmentRead;
+      try (InputStream input = classFile.openStream()) {
+        environmentRead = findEnvironmentRead(ByteStreams.toByteArray(input));
+      }
+      if (environmentRead != null) {
+        _logger.info("{} calls {}, bindings can't be fingerprinted", classFile, environmentRead.replace('/', '.'));
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Looks through the method references in the constant pool of a class file, which include those of its lambdas
+   *
+   * @param classFile content of a class file
+   * @return first method referenced out of {@link #ENVIRONMENT_READS}, null if none
+   */
+  static String findEnvironmentRead(final byte[] classFile) throws IOException {
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+    in.readInt(); // magic
+    in.readInt(); // minor and major version
+    final int count = in.readUnsignedShort();
+    final String[] utf8 = new String[count];
+    final int[] first = new int[count];
+    final int[] second = new int[count];
+    final boolean[] methodRef = new boolean[count];
+    for (int i = 1; i < count; i++) {
+      final int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1: // Utf8
+          utf8[i] = in.readUTF();
+          break;
+        case 7: // Class
+        case 8: // String
+        case 16: // MethodType
+        case 19: // Module
+        case 20: // Package
+          first[i] = in.readUnsignedShort();
+          break;
+        case 15: // MethodHandle
+          in.readUnsignedByte();
+          in.readUnsignedShort();
+          break;
+        case 3: // Integer
+        case 4: // Float
+          in.readInt();
+          break;
+        case 5: // Long
+        case 6: // Double, both taking two entries
+          in.readLong();
+          i++;
+          break;
+        case 9: // Fieldref
+        case 10: // Methodref
+        case 11: // InterfaceMethodref
+        case 12: // NameAndType
+        case 17: // Dynamic
+        case 18: // InvokeDynamic
+          first[i] = in.readUnsignedShort();
+          second[i] = in.readUnsignedShort();
+          methodRef[i] = tag == 10;
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+    for (int i = 1; i < count; i++) {
+      if (methodRef[i]) {
+        // Methodref: class and name and type, Class: name, NameAndType: name and descriptor
+        final String method = utf8[first[first[i]]] + "." + utf8[first[second[i]]];
+        if (ENVIRONMENT_READS.contains(method)) {
+          return method;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param file snapshot written by {@link #write(Path)}
+   * @param fingerprint of the bindings classes about to be used
+   * @return the snapshot, null if there is none for this fingerprint
+   */
+  static BindingsSnapshot read(final Path file, final String fingerprint) {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        _logger.info("Ignoring bindings snapshot {} of another format", file);
+        return null;
+      }
+      if (!fingerprint.equals(in.readUTF())) {
+        _logger.info("Bindings changed since snapshot {} was taken", file);
+        return null;
+      }
+      final String changedProperty = PropertyReads.findChanged(in);
+      if (changedProperty != null) {
+        _logger.info("Property {} changed since snapshot {} was taken", changedProperty, file);
+        return null;
+      }
+      final int entryCount = in.readInt();
+      final List<Entry> entries = new ArrayList<>(entryCount);
+      for (int i = 0; i < entryCount; i++) {
+        final Entry entry = new Entry();
+        final int stepCount = in.readInt();
+        for (int j = 0; j < stepCount; j++) {
+          final String operation = in.readUTF();
+          final String[] arguments = new String[in.readInt()];
+          for (int k = 0; k < arguments.length; k++) {
+            arguments[k] = in.readBoolean() ? in.readUTF() : null;
+          }
+          entry.steps.add(new Step(operation, arguments));
+        }
+        entries.add(entry);
+      }
+      return new BindingsSnapshot(fingerprint, entries);
+    } catch (final NoSuchFileException e) {
+      return null;
+    } catch (final IOException | RuntimeException e) {
+      _logger.warn("Ignoring unreadable bindings snapshot " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the snapshot next to the file first and then moves it over, so that a concurrent boot never reads half of it
+   *
+   * @param file to write the snapshot to
+   */
+  void write(final Path file) throws IOException {
+    final Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    final Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(this.fingerprint);
+        PropertyReads.write(out, PropertyReads.getNames());
+        out.writeInt(this.entries.size());
+        for (final Entry entry : this.entries) {
+          out.writeInt(entry.steps.size());
+          for (final Step step : entry.steps) {
+            out.writeUTF(step.operation);
+            out.writeInt(step.arguments.length);
+            for (final String argument : step.arguments) {
+              out.writeBoolean(argument != null);
+              if (argument != null) {
+                out.writeUTF(argument);
+              }
+            }
+          }
+        }
+      }
+      try {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException e) {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+}
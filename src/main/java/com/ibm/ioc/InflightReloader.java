@@ -16,6 +16,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ibm.ioc.metrics.Metrics;
+import com.ibm.ioc.util.FlightRecorderEvents;
+
 public class InflightReloader {
   private static final Logger _logger = LoggerFactory.getLogger(InflightReloader.class);
 
@@ -31,7 +34,7 @@ public class InflightReloader {
   private Thread thread;
 
   private InflightReloader() {
-
+    Metrics.gauge(Metrics.WATCHED_FILES, this.watchList::size);
   }
 
   public interface ReloadEvent {
@@ -123,10 +126,21 @@ public class InflightReloader {
               throw new IllegalStateException(e);
             }
 
+            final Object event = FlightRecorderEvents.begin(FlightRecorderEvents.Kind.RELOAD_CYCLE);
+            final long start = Metrics.startTime();
             final Set<ReloadableFile> watchListSnapshot =
                 new HashSet<>(InflightReloader.this.watchList);
-            for (final ReloadableFile reloadable : watchListSnapshot) {
-              reloadable.checkModAndSignal();
+            int modified = 0;
+            try {
+              for (final ReloadableFile reloadable : watchListSnapshot) {
+                if (reloadable.checkModAndSignal()) {
+                  modified++;
+                }
+              }
+            } finally {
+              FlightRecorderEvents.endReloadCycle(event, watchListSnapshot.size(), modified);
+              Metrics.add(Metrics.RELOADS, modified);
+              Metrics.record(Metrics.RELOAD_CYCLE_TIME, start);
             }
 
           }
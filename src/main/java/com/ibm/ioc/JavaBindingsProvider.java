@@ -7,19 +7,26 @@
 package com.ibm.ioc;
 
 import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,22 +35,27 @@ import com.ibm.ioc.impl.BindingsMapEvaluator;
 import com.ibm.ioc.impl.BindingsProviderBase;
 import com.ibm.ioc.impl.BooleanLiteral;
 import com.ibm.ioc.impl.BuilderImplementationFactory;
+import com.ibm.ioc.impl.ConstructorImplementationFactory;
 import com.ibm.ioc.impl.DoubleLiteral;
 import com.ibm.ioc.impl.Evaluatable;
 import com.ibm.ioc.impl.ImplementationFactory;
 import com.ibm.ioc.impl.ImplementationFactoryImpl;
 import com.ibm.ioc.impl.IntegerLiteral;
 import com.ibm.ioc.impl.InterfaceBinding;
+import com.ibm.ioc.impl.LazyProxyEvaluator;
 import com.ibm.ioc.impl.LiteralEvaluator;
 import com.ibm.ioc.impl.LongLiteral;
 import com.ibm.ioc.impl.NamedEvaluator;
+import com.ibm.ioc.impl.PropertyReads;
 import com.ibm.ioc.impl.PropertyEvaluator;
 import com.ibm.ioc.impl.ProxyEvaluator;
 import com.ibm.ioc.impl.RefPropEvaluator;
 import com.ibm.ioc.impl.ReferenceEvaluator;
+import com.ibm.ioc.impl.ScopedImplementationFactory;
 import com.ibm.ioc.impl.SingletonImplementationFactory;
 import com.ibm.ioc.impl.StringLiteral;
 import com.ibm.ioc.impl.TernaryImplementationFactory;
+import com.ibm.ioc.util.StartupProfiler;
 
 public final class JavaBindingsProvider extends BindingsProviderBase {
 
@@ -65,22 +77,369 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
 
   interface RegistrableDefinition {
     void register();
+
+    /**
+     * @return interfaces the definition binds, null if they aren't known before registering it
+     */
+    Set<Class<?>> getInterfaces();
   }
 
-  private final HashSet<RegistrableDefinition> allDefs = new HashSet<>();
+  private static final String[] DEFAULT_BINDINGS_CLASS_FILES = {"Bindings.class", "TestBindings.class"};
+
+  // Definitions waiting for registerAll(), dropped once the bindings are frozen
+  private HashSet<RegistrableDefinition> allDefs = new HashSet<>();
+
+  // Definitions left for lazy registration, by the interfaces they bind
+  private Map<Class<?>, List<RegistrableDefinition>> pendingDefs;
+  private Set<RegistrableDefinition> pendingDefSet;
+
+  // Definitions as registered, only while taking a snapshot and as long as every call can be recorded
+  private List<BindingsSnapshot.Entry> recording;
+
+  // Bindings classes the definitions were taken from, null if replayed from a snapshot
+  private final List<? extends Class<?>> classList;
+  // Digest of their class files, taken on the first cached self test
+  private String bindingsFingerprint;
 
   public JavaBindingsProvider(final List<? extends Class<?>> classList) {
+    this(classList, false, false);
+  }
+
+  public JavaBindingsProvider() {
+    this(loadAllBindingsClasses(DEFAULT_BINDINGS_CLASS_FILES));
+  }
+
+  private JavaBindingsProvider(final List<? extends Class<?>> classList, final boolean record, final boolean lazy) {
+    this.classList = classList;
+    if (record) {
+      this.recording = new ArrayList<>();
+    }
     final BindingsFactory factory = new BindingsFactory();
 
-    for (final Class<?> bindingsClass : classList) {
-      initializeBinding(bindingsClass, factory);
+    final StartupProfiler.Frame register = StartupProfiler.enter(StartupProfiler.REGISTER);
+    try {
+      for (final Class<?> bindingsClass : classList) {
+        initializeBinding(bindingsClass, factory);
+      }
+      if (lazy) {
+        registerLazily();
+      } else {
+        registerAll();
+        freeze();
+      }
+    } finally {
+      StartupProfiler.exit(register);
     }
-    registerAll();
     _logger.info("Finished loading and registering bindings");
   }
 
-  public JavaBindingsProvider() {
-    this(loadAllBindingsClasses("Bindings.class", "TestBindings.class"));
+  /**
+   * Same as {@link #JavaBindingsProvider()}, but with lazy registration, see {@link #lazy(List)}
+   *
+   * @return provider registering bindings on their first lookup
+   */
+  public static JavaBindingsProvider lazy() {
+    return lazy(loadAllBindingsClasses(DEFAULT_BINDINGS_CLASS_FILES));
+  }
+
+  /**
+   * Same as {@link #JavaBindingsProvider(List)}, but definitions are only indexed by the interfaces they bind. Their
+   * implementation factories are created on the first lookup of one of these interfaces, so processes using few of the
+   * bindings don't pay for all of them. Definitions binding no interface but their builder's product are still
+   * registered right away. Illegal definitions fail their first lookup rather than the construction of the provider;
+   * {@link #selfTest()} and {@link #getInterfaceBindingsMap()} register everything.
+   *
+   * @param classList bindings classes
+   * @return provider registering bindings on their first lookup
+   */
+  public static JavaBindingsProvider lazy(final List<? extends Class<?>> classList) {
+    return new JavaBindingsProvider(classList, false, true);
+  }
+
+  private JavaBindingsProvider(final BindingsSnapshot snapshot) throws ClassNotFoundException {
+    this.classList = null;
+    this.bindingsFingerprint = snapshot.getFingerprint();
+    final StartupProfiler.Frame register = StartupProfiler.enter(StartupProfiler.REGISTER);
+    try {
+      replay(snapshot);
+      registerAll();
+      freeze();
+    } finally {
+      StartupProfiler.exit(register);
+    }
+    _logger.info("Finished replaying and registering bindings");
+  }
+
+  /**
+   * Same as {@link #JavaBindingsProvider()}, but takes the bindings classes from the indexes
+   * {@link BindingsIndexProcessor} wrote at build time instead of searching the class path for
+   * <code>Bindings.class</code> and <code>TestBindings.class</code>. Each jar or class directory contributing bindings
+   * must then carry an index; without any index on the class path the bindings classes are searched as usual.
+   *
+   * @return provider with all indexed bindings registered
+   */
+  public static JavaBindingsProvider fromIndex() {
+    final List<Class<?>> classList;
+    final StartupProfiler.Frame load = StartupProfiler.enter(StartupProfiler.LOAD_BINDINGS);
+    try {
+      classList = BindingsIndex.load(JavaBindingsProvider.class.getClassLoader());
+    } finally {
+      StartupProfiler.exit(load);
+    }
+    if (classList == null) {
+      _logger.info("No bindings index found, searching the class path for bindings classes");
+      return new JavaBindingsProvider();
+    }
+    return new JavaBindingsProvider(classList);
+  }
+
+  /**
+   * Same as {@link #JavaBindingsProvider()}, but replays the definitions from the snapshot file if the bindings classes
+   * haven't changed since it was written. Otherwise the bindings are discovered as usual and the snapshot is rewritten.
+   * <p>
+   * A snapshot is only replayed while the bindings class files, or the jars holding them, keep their modification time
+   * and size, and while the properties read through the resolver when it was written keep their values. Bindings
+   * classes calling <code>System.getProperty</code>, <code>System.getenv</code> and the like are never snapshotted.
+   * Replaying doesn't call {@link JavaBindings#register(BindingsFactory)}, nor look up the fields and build methods of
+   * builders again, so the bindings classes must not depend on any other input, such as files or classes of their own
+   * reading system properties, nor rely on side effects of registering.
+   *
+   * @param snapshot file holding the definitions of the last boot
+   * @return provider with all bindings registered
+   */
+  public static JavaBindingsProvider fromSnapshot(final Path snapshot) {
+    final List<URL> classFiles = findBindingsClassFiles(DEFAULT_BINDINGS_CLASS_FILES);
+    return fromSnapshot(snapshot, classFiles, () -> loadBindingsClasses(classFiles));
+  }
+
+  /**
+   * Same as {@link #JavaBindingsProvider(List)}, see {@link #fromSnapshot(Path)}
+   *
+   * @param snapshot file holding the definitions of the last boot
+   * @param classList bindings classes
+   * @return provider with all bindings registered
+   */
+  public static JavaBindingsProvider fromSnapshot(final Path snapshot, final List<? extends Class<?>> classList) {
+    final List<URL> classFiles = findClassFiles(classList);
+    if (classFiles == null) {
+      _logger.info("Bindings snapshot disabled");
+    }
+    return fromSnapshot(snapshot, classFiles, () -> classList);
+  }
+
+  private static List<URL> findClassFiles(final List<? extends Class<?>> classList) {
+    final List<URL> classFiles = new ArrayList<>(classList.size());
+    for (final Class<?> bindingsClass : classList) {
+      final String name = bindingsClass.getName();
+      final URL classFile = bindingsClass.getResource(name.substring(name.lastIndexOf('.') + 1) + ".class");
+      if (classFile == null) {
+        _logger.info("No class file for {}", name);
+        return null;
+      }
+      classFiles.add(classFile);
+    }
+    return classFiles;
+  }
+
+  @Override
+  protected synchronized String getBindingsFingerprint() {
+    if (this.bindingsFingerprint == null && this.classList != null) {
+      final List<URL> classFiles = findClassFiles(this.classList);
+      if (classFiles != null) {
+        try {
+          if (!BindingsSnapshot.readsEnvironment(classFiles)) {
+            this.bindingsFingerprint = BindingsSnapshot.fingerprint(classFiles);
+          }
+        } catch (final IOException e) {
+          _logger.warn("Failed to read bindings class files, self test results not cached", e);
+        }
+      }
+    }
+    return this.bindingsFingerprint;
+  }
+
+  private static JavaBindingsProvider fromSnapshot(
+      final Path file,
+      final List<URL> classFiles,
+      final Supplier<List<? extends Class<?>>> classList) {
+    String fingerprint = null;
+    if (classFiles != null) {
+      try {
+        fingerprint = BindingsSnapshot.fingerprint(classFiles);
+      } catch (final IOException e) {
+        _logger.warn("Failed to stat bindings class files, bindings snapshot disabled", e);
+      }
+    }
+
+    if (fingerprint != null) {
+      final BindingsSnapshot snapshot = BindingsSnapshot.read(file, fingerprint);
+      if (snapshot != null) {
+        try {
+          final JavaBindingsProvider provider = new JavaBindingsProvider(snapshot);
+          _logger.info("Replayed bindings snapshot {}, bindings classes were not run", file);
+          return provider;
+        } catch (final ClassNotFoundException | RuntimeException e) {
+          _logger.warn("Failed to replay bindings snapshot " + file + ", discovering bindings", e);
+        }
+      }
+    }
+
+    if (fingerprint == null) {
+      return new JavaBindingsProvider(classList.get(), false, false);
+    }
+    // the snapshot depends on the properties the bindings classes read
+    PropertyReads.start();
+    try {
+      final JavaBindingsProvider provider = new JavaBindingsProvider(classList.get(), true, false);
+      if (provider.recording != null) {
+        try {
+          if (!BindingsSnapshot.readsEnvironment(classFiles)) {
+            new BindingsSnapshot(fingerprint, provider.recording).write(file);
+            _logger.info("Wrote bindings snapshot {}", file);
+          }
+        } catch (final IOException e) {
+          _logger.warn("Failed to write bindings snapshot " + file, e);
+        }
+        provider.recording = null;
+      }
+      return provider;
+    } finally {
+      PropertyReads.stop();
+    }
+  }
+
+  private BindingsSnapshot.Entry startRecording(final String operation, final String... arguments) {
+    if (this.recording == null) {
+      return null;
+    }
+    final BindingsSnapshot.Entry entry = new BindingsSnapshot.Entry();
+    entry.steps.add(new BindingsSnapshot.Step(operation, arguments));
+    this.recording.add(entry);
+    return entry;
+  }
+
+  private void stopRecording(final Object definition, final String reason) {
+    if (this.recording != null) {
+      _logger.info("Definition of {} {}, bindings snapshot disabled", definition, reason);
+      this.recording = null;
+    }
+  }
+
+  private static String name(final Class<?> cls) {
+    return cls == null ? null : cls.getName();
+  }
+
+  private static Class<?> load(final String name) throws ClassNotFoundException {
+    return name == null ? null : Class.forName(name, false, JavaBindingsProvider.class.getClassLoader());
+  }
+
+  private void replay(final BindingsSnapshot snapshot) throws ClassNotFoundException {
+    final BindingsFactory factory = new BindingsFactory();
+    for (final BindingsSnapshot.Entry entry : snapshot.getEntries()) {
+      final Iterator<BindingsSnapshot.Step> steps = entry.steps.iterator();
+      final BindingsSnapshot.Step first = steps.next();
+      switch (first.operation) {
+        case "def":
+          replay(factory.def(load(first.get(0))), steps);
+          break;
+        case "builder":
+          replay(factory.builder(load(first.get(0))), steps);
+          break;
+        case "ternaryDef":
+          final BindingsFactory.TernaryDefinition def = factory.ternaryDef(first.get(0), load(first.get(1)),
+              first.get(2), first.get(3));
+          while (steps.hasNext()) {
+            final BindingsSnapshot.Step step = steps.next();
+            switch (step.operation) {
+              case "iface":
+                def.iface(load(step.get(0)), step.get(1));
+                break;
+              case "withRef":
+                def.withRef(load(step.get(0)), step.get(1));
+                break;
+              default:
+                throw new IllegalStateException("Unknown ternary definition step " + step.operation);
+            }
+          }
+          break;
+        default:
+          throw new IllegalStateException("Unknown definition " + first.operation);
+      }
+    }
+  }
+
+  private static void replay(final BindingsFactory.Definition def, final Iterator<BindingsSnapshot.Step> steps)
+      throws ClassNotFoundException {
+    while (steps.hasNext()) {
+      final BindingsSnapshot.Step step = steps.next();
+      switch (step.operation) {
+        case "iface":
+          def.iface(load(step.get(0)), step.get(1));
+          break;
+        case "withRef":
+          def.withRef(load(step.get(0)), step.get(1));
+          break;
+        case "scope":
+          def.scope(Scope.valueOf(step.get(0)));
+          break;
+        case "pooled":
+          def.pooled(Integer.parseInt(step.get(0)));
+          break;
+        case "setString":
+          def.set(step.get(0), step.get(1));
+          break;
+        case "setBoolean":
+          def.set(step.get(0), Boolean.parseBoolean(step.get(1)));
+          break;
+        case "setLong":
+          def.set(step.get(0), Long.parseLong(step.get(1)));
+          break;
+        case "setInt":
+          def.set(step.get(0), Integer.parseInt(step.get(1)));
+          break;
+        case "setDouble":
+          def.set(step.get(0), Double.parseDouble(step.get(1)));
+          break;
+        case "prop":
+          def.prop(step.get(0), step.get(1));
+          break;
+        case "literal":
+          def.literal(step.get(0), step.get(1));
+          break;
+        case "allRefs":
+          def.allRefs(step.get(0), load(step.get(1)));
+          break;
+        case "ref":
+          def.ref(step.get(0), load(step.get(1)), step.get(2));
+          break;
+        case "refprop":
+          def.refprop(step.get(0), load(step.get(1)), step.get(2));
+          break;
+        case "lazyRef":
+          def.lazyRef(step.get(0), load(step.get(1)), step.get(2));
+          break;
+        case "lazyRefprop":
+          def.lazyRefprop(step.get(0), load(step.get(1)), step.get(2));
+          break;
+        case "nullRef":
+          def.nullRef(step.get(0));
+          break;
+        case "constructor":
+          def.constructor();
+          break;
+        case "constructorArgs":
+          def.constructor(step.arguments);
+          break;
+        case "builderFields":
+          def.builderFields = Arrays.asList(step.arguments);
+          break;
+        case "product":
+          def.product = load(step.get(0));
+          break;
+        default:
+          throw new IllegalStateException("Unknown definition step " + step.operation);
+      }
+    }
   }
 
   private static void withRef(final Class<?> cls, final String override,
@@ -98,7 +457,7 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
   // helper passthrough class to let the various Bindings register themselves
   public class BindingsFactory {
     public final <T> Definition def(final Class<T> objectClass) {
-      return new Definition(objectClass);
+      return new Definition(objectClass, false);
     }
 
     public final <T> Definition def(final Class<T> objectClass, final Class<?> interfaceClass) {
@@ -108,17 +467,14 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
     }
 
     public final <T> Definition builder(final Class<T> builderClass) {
-      final Definition def = new Definition(builderClass);
-      def.isBuilder = true;
-      return def;
+      return new Definition(builderClass, true);
     }
 
     public final <T> Definition builder(
         final Class<T> builderClass,
         final Class<?> interfaceClass) {
-      final Definition def = new Definition(builderClass);
+      final Definition def = new Definition(builderClass, true);
       def.iface(interfaceClass);
-      def.isBuilder = true;
       return def;
     }
 
@@ -144,6 +500,7 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
       private final String falseRef;
       private final Map<Class<?>, String> implOverrides = new HashMap<>();
       private final Map<Class<?>, String> interfaceClassMap = new HashMap<>();
+      private final BindingsSnapshot.Entry recorded;
 
       private TernaryDefinition(final Class<?> interfaceClass,
           final String propertyName,
@@ -153,24 +510,40 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
         this.propertyName = propertyName;
         this.trueRef = trueRef;
         this.falseRef = falseRef;
-        JavaBindingsProvider.this.allDefs.add(this);
+        addDefinition(this);
+        this.recorded = startRecording("ternaryDef", propertyName, name(interfaceClass), trueRef, falseRef);
+      }
+
+      private void record(final String operation, final String... arguments) {
+        if (this.recorded != null) {
+          this.recorded.steps.add(new BindingsSnapshot.Step(operation, arguments));
+        }
       }
 
       public TernaryDefinition iface(final Class<?> interfaceClass) {
-        this.interfaceClassMap.put(interfaceClass, null);
-        return this;
+        return iface(interfaceClass, null);
       }
 
       public TernaryDefinition iface(final Class<?> interfaceClass, final String name) {
         this.interfaceClassMap.put(interfaceClass, name);
+        record("iface", name(interfaceClass), name);
         return this;
       }
 
       public TernaryDefinition withRef(final Class<?> cls, final String override) {
         JavaBindingsProvider.withRef(cls, override, this.implOverrides);
+        record("withRef", name(cls), override);
         return this;
       }
 
+      @Override
+      public Set<Class<?>> getInterfaces() {
+        // bound to its own interface unless told otherwise
+        return this.interfaceClassMap.isEmpty()
+            ? Collections.singleton(this.interfaceClass)
+            : this.interfaceClassMap.keySet();
+      }
+
       @Override
       public void register() {
         try {
@@ -185,7 +558,7 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
                   this.implOverrides);
 
           if (this.interfaceClassMap.isEmpty()) {
-            iface(iFactory.getImplementationClass());
+            this.interfaceClassMap.put(iFactory.getImplementationClass(), null);
           }
 
           iFactory.setImplementedInterfaces(this.interfaceClassMap);
@@ -209,11 +582,27 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
       private final Map<Class<?>, String> interfaceClassMap = new HashMap<>();
       private final Map<Class<?>, String> implOverrides = new HashMap<>();
       List<NamedEvaluator> params = new ArrayList<>();
-      private boolean isBuilder;
-
-      private Definition(final Class<?> objectClass) {
+      private final boolean isBuilder;
+      private Scope scope = Scope.SINGLETON;
+      private int poolSize = Runtime.getRuntime().availableProcessors();
+      private boolean constructorInjection;
+      private List<String> constructorParameters;
+      // what registering found by reflection before, when replayed from a snapshot
+      private List<String> builderFields;
+      private Class<?> product;
+      private final BindingsSnapshot.Entry recorded;
+
+      private Definition(final Class<?> objectClass, final boolean isBuilder) {
         this.objectClass = objectClass;
-        JavaBindingsProvider.this.allDefs.add(this);
+        this.isBuilder = isBuilder;
+        addDefinition(this);
+        this.recorded = startRecording(isBuilder ? "builder" : "def", name(objectClass));
+      }
+
+      private void record(final String operation, final String... arguments) {
+        if (this.recorded != null) {
+          this.recorded.steps.add(new BindingsSnapshot.Step(operation, arguments));
+        }
       }
 
       @Override
@@ -222,17 +611,63 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
       }
 
       public Definition iface(final Class<?> interfaceClass) {
-        this.interfaceClassMap.put(interfaceClass, null);
-        return this;
+        return iface(interfaceClass, null);
       }
 
       public Definition iface(final Class<?> interfaceClass, final String name) {
         this.interfaceClassMap.put(interfaceClass, name);
+        record("iface", name(interfaceClass), name);
         return this;
       }
 
       public Definition withRef(final Class<?> cls, final String override) {
         JavaBindingsProvider.withRef(cls, override, this.implOverrides);
+        record("withRef", name(cls), override);
+        return this;
+      }
+
+      /**
+       * @param scope how many instances the binding hands out, {@link Scope#SINGLETON} unless set
+       */
+      public Definition scope(final Scope scope) {
+        this.scope = scope;
+        record("scope", scope.name());
+        return this;
+      }
+
+      /**
+       * {@link Scope#POOLED} binding of at most maxSize instances, references to it must be declared as {@link Pool}
+       */
+      public Definition pooled(final int maxSize) {
+        if (maxSize < 1) {
+          throw new IllegalArgumentException("Pool size must be positive, got " + maxSize);
+        }
+        this.scope = Scope.POOLED;
+        this.poolSize = maxSize;
+        record("pooled", Integer.toString(maxSize));
+        return this;
+      }
+
+      /**
+       * Passes all parameters to the constructor whose parameter names match them instead of setting them on a new
+       * object, so that they can be final fields. Needs the class compiled with <code>-parameters</code>.
+       */
+      public Definition constructor() {
+        this.constructorInjection = true;
+        this.constructorParameters = null;
+        record("constructor");
+        return this;
+      }
+
+      /**
+       * Passes the named parameters to the constructor in this order, the other parameters are set on the new object
+       *
+       * @param parameterNames parameter names as given to set(), prop(), ref() etc.
+       */
+      public Definition constructor(final String... parameterNames) {
+        this.constructorInjection = true;
+        this.constructorParameters = Arrays.asList(parameterNames);
+        record("constructorArgs", parameterNames);
         return this;
       }
 
@@ -246,6 +681,7 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
 
       public Definition set(final String name, final String constantValue) {
         this.params.add(new NamedEvaluator(name, true, new StringLiteral(constantValue)));
+        record("setString", name, constantValue);
         return this;
       }
 
@@ -253,46 +689,72 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
       public Definition set(final String name, final Object constantValue) {
         this.params
             .add(new NamedEvaluator(name, true, new ReferenceEvaluator(constantValue, null)));
+        stopRecording(this, "sets an object constant");
         return this;
       }
 
       public Definition set(final String name, final boolean constantValue) {
         this.params.add(new NamedEvaluator(name, true, new BooleanLiteral(constantValue)));
+        record("setBoolean", name, Boolean.toString(constantValue));
         return this;
       }
 
       public Definition set(final String name, final long constantValue) {
         this.params.add(new NamedEvaluator(name, true, new LongLiteral(constantValue)));
+        record("setLong", name, Long.toString(constantValue));
         return this;
       }
 
       public Definition set(final String name, final int constantValue) {
         this.params.add(new NamedEvaluator(name, true, new IntegerLiteral(constantValue)));
+        record("setInt", name, Integer.toString(constantValue));
         return this;
       }
 
       public Definition set(final String name, final double constantValue) {
         this.params.add(new NamedEvaluator(name, true, new DoubleLiteral(constantValue)));
+        record("setDouble", name, Double.toString(constantValue));
         return this;
       }
 
+      @Override
+      public Set<Class<?>> getInterfaces() {
+        if (!this.interfaceClassMap.isEmpty()) {
+          return this.interfaceClassMap.keySet();
+        }
+        // what a builder builds is only known once its factory is created
+        return this.isBuilder ? null : Collections.singleton(this.objectClass);
+      }
+
       @SuppressWarnings({"rawtypes", "unchecked"})
       @Override
       public void register() {
         try {
           final ImplementationFactory iFactory;
           if (this.isBuilder) {
-            iFactory = new SingletonImplementationFactory(
-                new BuilderImplementationFactory(this.objectClass, this.params),
-                this.implOverrides);
+            final BuilderImplementationFactory<?> builder = this.builderFields == null
+                ? new BuilderImplementationFactory<>(this.objectClass, this.params)
+                : new BuilderImplementationFactory<>(this.objectClass, this.params, this.builderFields);
+            record("builderFields", builder.getBuilderFields().toArray(new String[0]));
+            iFactory = ScopedImplementationFactory.create(this.scope, builder, this.implOverrides, this.poolSize);
+          } else if (this.constructorInjection) {
+            iFactory = ScopedImplementationFactory.create(this.scope, new ConstructorImplementationFactory(
+                this.objectClass, this.params, this.constructorParameters), this.implOverrides, this.poolSize);
           } else {
             // Create the implementation factory
-            iFactory = new SingletonImplementationFactory(new ImplementationFactoryImpl(
-                this.objectClass, this.params), this.implOverrides);
+            iFactory = ScopedImplementationFactory.create(this.scope, new ImplementationFactoryImpl(
+                this.objectClass, this.params), this.implOverrides, this.poolSize);
           }
 
           if (this.interfaceClassMap.isEmpty()) {
-            iface(iFactory.getImplementationClass());
+            if (this.product == null) {
+              // a builder's product takes a look at its build method
+              this.product = iFactory.getImplementationClass();
+              if (this.isBuilder) {
+                record("product", name(this.product));
+              }
+            }
+            this.interfaceClassMap.put(this.product, null);
           }
 
           iFactory.setImplementedInterfaces(this.interfaceClassMap);
@@ -313,22 +775,24 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
 
       public Definition prop(final String name, final String propertyName) {
         set(name, false, new PropertyEvaluator(propertyName));
+        record("prop", name, propertyName);
         return this;
       }
 
       public Definition literal(final String name, final String value) {
         set(name, false, new LiteralEvaluator(value));
+        record("literal", name, value);
         return this;
       }
 
       public <V> Definition allRefs(final String name, final Class<V> class1) {
         set(name, true, new BindingsMapEvaluator<>(class1, JavaBindingsProvider.this));
+        record("allRefs", name, name(class1));
         return this;
       }
 
       public Definition ref(final String field, final Class<?> class1) {
-        set(field, true, new ProxyEvaluator(JavaBindingsProvider.this, class1, null));
-        return this;
+        return ref(field, class1, null);
       }
 
       public Definition ref(
@@ -336,6 +800,7 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
           final Class<?> class1,
           final String referralName) {
         set(field, true, new ProxyEvaluator(JavaBindingsProvider.this, class1, referralName));
+        record("ref", field, name(class1), referralName);
         return this;
       }
 
@@ -344,11 +809,51 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
           final Class<?> class1,
           final String referralPropertyName) {
         set(field, true, new RefPropEvaluator(JavaBindingsProvider.this, class1, referralPropertyName));
+        record("refprop", field, name(class1), referralPropertyName);
+        return this;
+      }
+
+      /**
+       * Same as {@link #ref(String, Class)}, but the field gets a proxy of the interface and the referenced object is
+       * only created on the first call to it
+       */
+      public Definition lazyRef(final String field, final Class<?> class1) {
+        return lazyRef(field, class1, null);
+      }
+
+      /**
+       * Lazy {@link #ref(String, Class, String)}
+       *
+       * @see #lazyRef(String, Class)
+       */
+      public Definition lazyRef(
+          final String field,
+          final Class<?> class1,
+          final String referralName) {
+        set(field, true, new LazyProxyEvaluator(
+            new ProxyEvaluator(JavaBindingsProvider.this, class1, referralName), class1));
+        record("lazyRef", field, name(class1), referralName);
+        return this;
+      }
+
+      /**
+       * Lazy {@link #refprop(String, Class, String)}
+       *
+       * @see #lazyRef(String, Class)
+       */
+      public Definition lazyRefprop(
+          final String field,
+          final Class<?> class1,
+          final String referralPropertyName) {
+        set(field, true, new LazyProxyEvaluator(
+            new RefPropEvaluator(JavaBindingsProvider.this, class1, referralPropertyName), class1));
+        record("lazyRefprop", field, name(class1), referralPropertyName);
         return this;
       }
 
       public Definition nullRef(final String field) {
         set(field, false, new LiteralEvaluator(null));
+        record("nullRef", field);
         return this;
       }
     }
@@ -362,102 +867,167 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
     }
   }
 
+  /**
+   * Defines bindings classes from bytes already read. Bindings classes of the same code source, e.g. the same jar or
+   * class directory, share a loader, so a reference from one to another links to the copy next to it rather than to the
+   * one the parent loader finds first. A loader can define a class name only once, bindings classes of the same name
+   * in one code source each need a loader of their own.
+   */
   private static final class BindingsLoader extends ClassLoader {
+    static {
+      registerAsParallelCapable();
+    }
 
-    private final String className;
-
-    private BindingsLoader(final ClassLoader parent, final String className) {
+    private BindingsLoader(final ClassLoader parent) {
       super(parent);
-      this.className = className;
     }
 
-    private static void checkClassVersion(final URL classLocation)
+    private Class<?> define(final String className, final byte[] b, final URL classLocation)
         throws ClassNotFoundException {
-
-
-      try (DataInputStream in = new DataInputStream(classLocation.openStream());) {
-        final int magic = in.readInt();
-        if (magic != 0xcafebabe) {
-          throw new ClassNotFoundException("Invalid class file format: " + classLocation);
-        }
-
-        in.readUnsignedShort(); // minor
-        final int major = in.readUnsignedShort();
-
-        if (JAVA_VERSION <= 6 && major > 50) {
-          final String msg = "Class format " + major + " not supported at runtime level " +
-              JAVA_VERSION + ": " + classLocation;
-          _logger.debug(msg);
-          throw new IgnoreNewClassFormatException(msg);
-
-        }
-
-      } catch (final IOException e) {
-        throw new ClassNotFoundException("Error loading class file: " + classLocation, e);
+      try {
+        return defineClass(className, b, 0, b.length, null);
+      } catch (final ClassFormatError e) {
+        throw new ClassNotFoundException("Invalid format: " + classLocation, e);
       }
     }
+  }
+
+  private static void checkClassVersion(final byte[] b, final URL classLocation) throws ClassNotFoundException {
+    final int magic = b.length < 8 ? 0
+        : (b[0] & 0xff) << 24 | (b[1] & 0xff) << 16 | (b[2] & 0xff) << 8 | (b[3] & 0xff);
+    if (magic != 0xcafebabe) {
+      throw new ClassNotFoundException("Invalid class file format: " + classLocation);
+    }
 
-    @Override
-    protected Class<?> findClass(final String fileName) throws ClassNotFoundException {
-      try {
-        final URL url = new URL(fileName);
+    // minor version in b[4] and b[5]
+    final int major = (b[6] & 0xff) << 8 | (b[7] & 0xff);
 
-        checkClassVersion(url);
+    if (JAVA_VERSION <= 6 && major > 50) {
+      final String msg = "Class format " + major + " not supported at runtime level " +
+          JAVA_VERSION + ": " + classLocation;
+      _logger.debug(msg);
+      throw new IgnoreNewClassFormatException(msg);
+    }
+  }
 
-        url.openStream();
-        final URLConnection openConnection = url.openConnection();
-        final int contentLength = openConnection.getContentLength();
-        final ByteArrayOutputStream output = new ByteArrayOutputStream(contentLength);
-        final InputStream input = openConnection.getInputStream();
+  private static byte[] readClassFile(final URL classLocation) throws ClassNotFoundException {
+    try {
+      final URLConnection connection = classLocation.openConnection();
+      final int contentLength = connection.getContentLength();
+      try (InputStream input = connection.getInputStream()) {
+        if (contentLength >= 0) {
+          // the usual case for files and jar entries, read straight into the class bytes
+          final byte[] b = new byte[contentLength];
+          int read = 0;
+          int len;
+          while (read < contentLength && (len = input.read(b, read, contentLength - read)) > 0) {
+            read += len;
+          }
+          if (read < contentLength) {
+            throw new EOFException("Truncated after " + read + " of " + contentLength + " bytes");
+          }
+          return b;
+        }
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
         final byte[] buf = new byte[4096];
         int len;
         while ((len = input.read(buf)) > 0) {
           output.write(buf, 0, len);
         }
-
-        final byte[] b = output.toByteArray();
-        return defineClass(this.className, b, 0, b.length, null);
-      } catch (final MalformedURLException e) {
-        throw new ClassNotFoundException("Bad URL " + fileName, e);
-      } catch (final ClassFormatError e) {
-        throw new ClassNotFoundException("Invalid format", e);
-      } catch (final IOException e) {
-        throw new ClassNotFoundException("IOException", e);
+        return output.toByteArray();
       }
+    } catch (final IOException e) {
+      throw new ClassNotFoundException("Error loading class file: " + classLocation, e);
     }
   }
 
-
   private static List<Class<?>> loadAllBindingsClasses(final String... classResourceNames) {
-    final List<Class<?>> allBindingsClasses = new ArrayList<>();
+    return loadBindingsClasses(findBindingsClassFiles(classResourceNames));
+  }
+
+  private static List<URL> findBindingsClassFiles(final String... classResourceNames) {
+    final List<URL> classFiles = new ArrayList<>();
     try {
       final ClassLoader classLoader = JavaBindingsProvider.class.getClassLoader();
       for (final String classResourceName : classResourceNames) {
+        // classResourceName must end with ".class"
+        if (!classResourceName.endsWith(".class")) {
+          throw new IllegalArgumentException("Invalid class resource name: "
+              + classResourceName);
+        }
+
         final Enumeration<URL> urls = classLoader.getResources(classResourceName);
         while (urls.hasMoreElements()) {
-          final URL officialUrl = urls.nextElement();
-          _logger.info("Loading File {}", officialUrl);
-
-          // classResourceName must end with ".class"
-          if (!classResourceName.endsWith(".class")) {
-            throw new IllegalArgumentException("Invalid class resource name: "
-                + classResourceName);
-          }
+          classFiles.add(urls.nextElement());
+        }
+      }
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return classFiles;
+  }
 
-          // split length must be at least 2 because of the above check
-          final String[] splitClassName = classResourceName.split("\\.");
-          final String className = splitClassName[splitClassName.length - 2];
+  /**
+   * @param classFiles bindings class files, each named after its class in the default package
+   * @return the classes in the order of their files
+   */
+  static List<Class<?>> loadBindingsClasses(final List<URL> classFiles) {
+    final List<String> classNames = new ArrayList<>(classFiles.size());
+    for (final URL classFile : classFiles) {
+      // the class file name without ".class" is the class name
+      final String path = classFile.getPath();
+      classNames.add(path.substring(path.lastIndexOf('/') + 1, path.length() - ".class".length()));
+    }
+    return loadBindingsClasses(classFiles, classNames);
+  }
 
-          final Class<?> bindingsFile =
-              new BindingsLoader(classLoader, className).loadClass(officialUrl.toString());
+  /**
+   * Reads and defines the bindings classes concurrently, each class file read once
+   *
+   * @param classFiles bindings class files
+   * @param classNames binary names of the classes, in the order of their files
+   * @return the classes in the order of their files, see {@link BindingsLoader} for the loaders defining them
+   */
+  static List<Class<?>> loadBindingsClasses(final List<URL> classFiles, final List<String> classNames) {
+    final StartupProfiler.Frame load = StartupProfiler.enter(StartupProfiler.LOAD_BINDINGS);
+    try {
+      // the n-th class file of a name in a code source goes to the n-th loader of that code source
+      final ClassLoader classLoader = JavaBindingsProvider.class.getClassLoader();
+      final BindingsLoader[] loaders = new BindingsLoader[classFiles.size()];
+      final Map<String, Integer> copies = new HashMap<>();
+      final Map<String, BindingsLoader> codeSourceLoaders = new HashMap<>();
+      for (int i = 0; i < loaders.length; i++) {
+        final String codeSource = getCodeSource(classFiles.get(i), classNames.get(i));
+        final int copy = copies.merge(codeSource + '!' + classNames.get(i), 1, Integer::sum);
+        loaders[i] = codeSourceLoaders.computeIfAbsent(codeSource + '#' + copy, k -> new BindingsLoader(classLoader));
+        _logger.info("Loading File {}", classFiles.get(i));
+      }
 
-          allBindingsClasses.add(bindingsFile);
+      return IntStream.range(0, loaders.length).parallel().mapToObj(i -> {
+        final URL classFile = classFiles.get(i);
+        try {
+          final byte[] b = readClassFile(classFile);
+          checkClassVersion(b, classFile);
+          return loaders[i].define(classNames.get(i), b, classFile);
+        } catch (final ClassNotFoundException e) {
+          throw new IllegalStateException(e);
         }
-      }
-    } catch (final IOException | ClassNotFoundException e) {
-      throw new IllegalStateException(e);
+      }).collect(Collectors.toList());
+    } finally {
+      StartupProfiler.exit(load);
     }
-    return allBindingsClasses;
+  }
+
+  /**
+   * @param classFile class file of a bindings class
+   * @param className binary name of the class
+   * @return location of the jar or directory the class file is in, the class file itself if it isn't where its name
+   *         says
+   */
+  private static String getCodeSource(final URL classFile, final String className) {
+    final String location = classFile.toString();
+    final String path = className.replace('.', '/') + ".class";
+    return location.endsWith("/" + path) ? location.substring(0, location.length() - path.length()) : location;
   }
 
   void initializeBinding(final Class<?> cls, final BindingsFactory factory) {
@@ -469,9 +1039,67 @@ public final class JavaBindingsProvider extends BindingsProviderBase {
     }
   }
 
+  private void addDefinition(final RegistrableDefinition def) {
+    if (this.allDefs == null) {
+      throw new IllegalStateException("Bindings are frozen, can't add " + def);
+    }
+    this.allDefs.add(def);
+  }
+
   void registerAll() {
     for (final RegistrableDefinition def : this.allDefs) {
       def.register();
     }
   }
+
+  private void registerLazily() {
+    this.pendingDefs = new HashMap<>();
+    this.pendingDefSet = new HashSet<>();
+    for (final RegistrableDefinition def : this.allDefs) {
+      final Set<Class<?>> interfaces = def.getInterfaces();
+      if (interfaces == null) {
+        def.register();
+      } else {
+        this.pendingDefSet.add(def);
+        for (final Class<?> iface : interfaces) {
+          this.pendingDefs.computeIfAbsent(iface, key -> new ArrayList<>()).add(def);
+        }
+      }
+    }
+    freezeLazily();
+  }
+
+  @Override
+  protected void registerPending(final Class<?> interfaceClass) {
+    final List<RegistrableDefinition> defs = this.pendingDefs.remove(interfaceClass);
+    if (defs != null) {
+      for (final RegistrableDefinition def : defs) {
+        // may have been registered for another of its interfaces
+        if (this.pendingDefSet.remove(def)) {
+          def.register();
+        }
+      }
+    }
+  }
+
+  @Override
+  protected void registerAllPending() {
+    for (final RegistrableDefinition def : this.pendingDefSet) {
+      def.register();
+    }
+    this.pendingDefs = null;
+    this.pendingDefSet = null;
+  }
+
+  @Override
+  protected void freeze() {
+    super.freeze();
+    this.allDefs = null;
+  }
+
+  @Override
+  protected void freezeLazily() {
+    super.freezeLazily();
+    this.allDefs = null;
+  }
 }
@@ -0,0 +1,64 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of instances of a {@link Scope#POOLED} binding. Instances are created on demand up to the maximum size;
+ * every borrowed instance has to be released back exactly once.
+ */
+public interface Pool<T> {
+  /**
+   * Borrows an idle instance, creates one if the pool isn't full, otherwise waits for one to be released
+   *
+   * @return instance to be released after use
+   * @throws ObjectInitializationException if an instance can't be created or the thread is interrupted
+   */
+  T borrow() throws ObjectInitializationException;
+
+  /**
+   * Same as {@link #borrow()}, giving up after a while
+   *
+   * @return instance to be released after use, null if none became available in time
+   * @throws ObjectInitializationException if an instance can't be created or the thread is interrupted
+   */
+  T borrow(long timeout, TimeUnit unit) throws ObjectInitializationException;
+
+  /**
+   * @param instance borrowed from this pool
+   * @throws IllegalArgumentException if the instance is not borrowed from this pool, e.g. released already
+   */
+  void release(T instance);
+
+  int getMaxSize();
+
+  /**
+   * @return instances created so far
+   */
+  long getCreatedCount();
+
+  /**
+   * @return borrows so far
+   */
+  long getBorrowCount();
+
+  /**
+   * @return borrows that had to wait for a release
+   */
+  long getWaitCount();
+
+  /**
+   * @return instances currently borrowed
+   */
+  int getActiveCount();
+
+  /**
+   * @return instances currently waiting in the pool
+   */
+  int getIdleCount();
+}
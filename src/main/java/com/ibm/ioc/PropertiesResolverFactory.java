@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import com.ibm.ioc.impl.INIPropertiesProvider;
 import com.ibm.ioc.impl.OrderedPropertiesResolver;
 import com.ibm.ioc.impl.SystemPropertiesProvider;
+import com.ibm.ioc.metrics.Metrics;
 
 public class PropertiesResolverFactory {
   private static final Logger _logger = LoggerFactory.getLogger(PropertiesResolverFactory.class);
@@ -59,6 +60,7 @@ public class PropertiesResolverFactory {
 
   PropertiesResolverFactory() {
     this.resolver = new OrderedPropertiesResolver();
+    Metrics.gauge(Metrics.RESOLVED_PROPERTIES, this.resolver::getResolvedPropertiesCount);
     commonPrefixes.forEach(this.resolver::addDefaultPrefix);
 
     // Likely to make sense to have ignorable values also obtained from system properties
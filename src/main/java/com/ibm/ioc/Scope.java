@@ -0,0 +1,24 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+/**
+ * How many instances a binding hands out and for how long, see
+ * {@link JavaBindingsProvider.BindingsFactory.Definition#scope(Scope)}
+ */
+public enum Scope {
+  /** One instance per set of overrides it depends on, the default */
+  SINGLETON,
+  /** A new instance every time */
+  PROTOTYPE,
+  /** One instance per thread */
+  THREAD_LOCAL,
+  /** A bounded {@link Pool} of instances, references to the binding get the pool */
+  POOLED,
+  /** A singleton the garbage collector may drop under memory pressure, created again when needed */
+  SOFT
+}
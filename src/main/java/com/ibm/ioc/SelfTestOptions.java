@@ -0,0 +1,81 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * How {@link BindingsProvider#selfTest(SelfTestOptions)} checks the bindings
+ */
+public final class SelfTestOptions {
+  private final int parallelism;
+  private final Duration timeout;
+  private final boolean strict;
+  private final Path cache;
+
+  public static class Builder {
+    // factories initialized at the same time
+    public int parallelism = Runtime.getRuntime().availableProcessors();
+    // per factory, it fails once it took longer
+    public Duration timeout = Duration.ofMinutes(1);
+    // fail on property values that can't be converted rather than inject null. Strictness holds on the threads checking
+    // factories only, so a singleton another thread happens to be creating at the same time converts as usual
+    public boolean strict = true;
+    // file keeping the last successful outcome, a boot with the same code and configuration then skips the self test
+    public Path cache;
+
+    public SelfTestOptions build() {
+      return new SelfTestOptions(this.parallelism, this.timeout, this.strict, this.cache);
+    }
+  }
+
+  private SelfTestOptions(final int parallelism, final Duration timeout, final boolean strict, final Path cache) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism);
+    }
+    if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("Timeout must be positive, got " + timeout);
+    }
+    this.parallelism = parallelism;
+    this.timeout = timeout;
+    this.strict = strict;
+    this.cache = cache;
+  }
+
+  /**
+   * @return options {@link BindingsProvider#selfTest()} uses
+   */
+  public static SelfTestOptions defaults() {
+    return new Builder().build();
+  }
+
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  public Duration getTimeout() {
+    return this.timeout;
+  }
+
+  public boolean isStrict() {
+    return this.strict;
+  }
+
+  /**
+   * @return file caching the outcome, null if the self test always runs
+   */
+  public Path getCache() {
+    return this.cache;
+  }
+
+  @Override
+  public String toString() {
+    return "parallelism=" + this.parallelism + ", timeout=" + this.timeout + ", strict=" + this.strict
+        + ", cache=" + this.cache;
+  }
+}
@@ -0,0 +1,184 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.ibm.ioc.impl.ImplementationFactory;
+
+/**
+ * Outcome of {@link BindingsProvider#selfTest(SelfTestOptions)}, one result per referral and default implementation
+ */
+public final class SelfTestReport {
+
+  public enum Status {
+    PASSED,
+    // passed before with the same code and configuration, not run again
+    CACHED,
+    FAILED,
+    TIMED_OUT
+  }
+
+  /**
+   * Outcome of initializing one implementation factory
+   */
+  public static final class Result {
+    private final Class<?> interfaceClass;
+    private final String referral;
+    private final ImplementationFactory<?> factory;
+    private final Status status;
+    private final Duration duration;
+    private final Throwable failure;
+
+    public Result(
+        final Class<?> interfaceClass,
+        final String referral,
+        final ImplementationFactory<?> factory,
+        final Status status,
+        final Duration duration,
+        final Throwable failure) {
+      this.interfaceClass = interfaceClass;
+      this.referral = referral;
+      this.factory = factory;
+      this.status = status;
+      this.duration = duration;
+      this.failure = failure;
+    }
+
+    public Class<?> getInterfaceClass() {
+      return this.interfaceClass;
+    }
+
+    /**
+     * @return referral of the implementation, null for the default implementation
+     */
+    public String getReferral() {
+      return this.referral;
+    }
+
+    public ImplementationFactory<?> getFactory() {
+      return this.factory;
+    }
+
+    public Status getStatus() {
+      return this.status;
+    }
+
+    /**
+     * @return time spent initializing, the timeout if it timed out
+     */
+    public Duration getDuration() {
+      return this.duration;
+    }
+
+    /**
+     * @return why it failed or timed out, null if it passed
+     */
+    public Throwable getFailure() {
+      return this.failure;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%-9s %8dms  %s%s%s", this.status, this.duration.toMillis(), this.interfaceClass.getName(),
+          this.referral == null ? "" : "[" + this.referral + "]",
+          this.failure == null ? "" : ": " + this.failure.getMessage());
+    }
+  }
+
+  private final List<Result> results;
+  private final Duration elapsed;
+
+  /**
+   * Initializes a factory on the current thread, without timeout
+   *
+   * @param strict whether invalid property values fail the check, see {@link TypeUtils#callStrictly}
+   * @return outcome of the initialization
+   */
+  static Result check(
+      final Class<?> interfaceClass,
+      final String referral,
+      final ImplementationFactory<?> factory,
+      final boolean strict) {
+    final long start = System.nanoTime();
+    Throwable failure = null;
+    try {
+      if (strict) {
+        TypeUtils.callStrictly(factory::initialize);
+      } else {
+        factory.initialize();
+      }
+    } catch (final Exception | LinkageError e) {
+      failure = e;
+    }
+    return new Result(interfaceClass, referral, factory, failure != null ? Status.FAILED : Status.PASSED,
+        Duration.ofNanos(System.nanoTime() - start), failure);
+  }
+
+  public SelfTestReport(final List<Result> results, final Duration elapsed) {
+    this.results = Collections.unmodifiableList(new ArrayList<>(results));
+    this.elapsed = elapsed;
+  }
+
+  public List<Result> getResults() {
+    return this.results;
+  }
+
+  /**
+   * @return results that failed or timed out
+   */
+  public List<Result> getFailures() {
+    return this.results.stream()
+        .filter(result -> result.getStatus() == Status.FAILED || result.getStatus() == Status.TIMED_OUT)
+        .collect(Collectors.toList());
+  }
+
+  public boolean isSuccessful() {
+    return getFailures().isEmpty();
+  }
+
+  /**
+   * @return true if the outcome was taken from the cache rather than checked again
+   */
+  public boolean isCached() {
+    return !this.results.isEmpty() && this.results.stream().allMatch(result -> result.getStatus() == Status.CACHED);
+  }
+
+  /**
+   * @return wall clock time of the whole self test
+   */
+  public Duration getElapsed() {
+    return this.elapsed;
+  }
+
+  /**
+   * @return failure messages by factory class, as returned by {@link BindingsProvider#selfTest()}
+   */
+  public Map<Class<?>, List<String>> toFailureMap() {
+    final Map<Class<?>, List<String>> failures = new HashMap<>();
+    for (final Result result : getFailures()) {
+      failures.computeIfAbsent(result.getFactory().getClass(), key -> new ArrayList<>())
+          .add(result.getFailure().getMessage());
+    }
+    return failures;
+  }
+
+  @Override
+  public String toString() {
+    return this.results.stream()
+        .sorted((a, b) -> b.getDuration().compareTo(a.getDuration()))
+        .map(Result::toString)
+        .collect(Collectors.joining("\n", "Checked " + this.results.size() + " implementations in "
+            + this.elapsed.toMillis() + "ms, " + getFailures().size() + " failed\n", ""));
+  }
+}
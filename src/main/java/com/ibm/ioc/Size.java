@@ -6,6 +6,13 @@
 
 package com.ibm.ioc;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import com.ibm.ioc.parsers.NumberParser;
+
 /**
  * Utility class to convert sizes to string and back.
  */
@@ -18,6 +25,9 @@ public final class Size {
   public static final long TiB = ONE_KB * GiB; // NOSONAR
   public static final long PiB = ONE_KB * TiB; // NOSONAR
 
+  // Last default locale known to format numbers with ascii digits and a '.' separator
+  private static volatile Locale plainLocale = Locale.ROOT; // NOSONAR
+
   private long size; // NOSONAR
 
   public Size() {}
@@ -67,55 +77,29 @@ public final class Size {
       sizeSuffix = "PiB";
     }
 
-    return String.format("%." + precision + "f %s", finalSize, sizeSuffix); // NOSONAR - precision string used for
-                                                                            // formatting
-
+    if (precision < 0 || !isPlainLocale()) {
+      return String.format("%." + precision + "f %s", finalSize, sizeSuffix); // NOSONAR - precision string used for
+                                                                              // formatting
+    }
+    // Same digits as %.Nf, which rounds the shortest decimal representation half up
+    return BigDecimal.valueOf(finalSize).setScale(precision, RoundingMode.HALF_UP).toPlainString() + ' '
+        + sizeSuffix;
   }
 
-  public static long getSizeInBytes(final String rawCapacityStr) {
-    // I hope that something more standard could be used
-    final String capacityStr = rawCapacityStr.trim();
-    double baseValue = -1;
-    long multiplier = 1;
-
-    int index = 0;
-
-    // while the character is a numerical value (0-9) or is a decimal point (.)
-    while (index != capacityStr.length()
-        && ((capacityStr.charAt(index) >= '0' && capacityStr.charAt(index) <= '9')
-            || capacityStr.charAt(index) == '.')) {
-      index++;
+  private static boolean isPlainLocale() {
+    final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+    if (locale.equals(plainLocale)) {
+      return true;
     }
-    if (index != 0) {
-      baseValue = Double.parseDouble(capacityStr.substring(0, index));
-      while (index != capacityStr.length() && capacityStr.charAt(index) == ' ') {
-        index++;
-      }
-      final String multiplierStr =
-          (index == capacityStr.length()) ? "" : capacityStr.substring(index);
-
-      if (!"".equals(multiplierStr)) {
-        if ("K".equalsIgnoreCase(multiplierStr) || "KB".equalsIgnoreCase(multiplierStr)
-            || "KiB".equalsIgnoreCase(multiplierStr)) {
-          multiplier = KiB;
-        } else if ("M".equalsIgnoreCase(multiplierStr) || "MB".equalsIgnoreCase(multiplierStr)
-            || "MiB".equalsIgnoreCase(multiplierStr)) {
-          multiplier = MiB;
-        } else if ("G".equalsIgnoreCase(multiplierStr) || "GB".equalsIgnoreCase(multiplierStr)
-            || "GiB".equalsIgnoreCase(multiplierStr)) {
-          multiplier = GiB;
-        } else if ("T".equalsIgnoreCase(multiplierStr) || "TB".equalsIgnoreCase(multiplierStr)
-            || "TiB".equalsIgnoreCase(multiplierStr)) {
-          multiplier = TiB;
-        } else if ("P".equalsIgnoreCase(multiplierStr) || "PB".equalsIgnoreCase(multiplierStr)
-            || "PiB".equalsIgnoreCase(multiplierStr)) {
-          multiplier = PiB;
-        } else {
-          throw new IllegalArgumentException("Bad multiplier " + multiplierStr);
-        }
-      }
-      return (long) (multiplier * baseValue);
+    final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+    if (symbols.getDecimalSeparator() == '.' && symbols.getZeroDigit() == '0') {
+      plainLocale = locale;
+      return true;
     }
-    throw new IllegalArgumentException("Can't parse " + capacityStr);
+    return false;
+  }
+
+  public static long getSizeInBytes(final String rawCapacityStr) {
+    return NumberParser.parseSize(rawCapacityStr, 0, rawCapacityStr.length());
   }
 }
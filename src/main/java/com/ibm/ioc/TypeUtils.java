@@ -16,10 +16,10 @@ import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,18 +29,28 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 import com.ibm.ioc.impl.NamingHelper;
+import com.ibm.ioc.metrics.Metrics;
 import com.ibm.ioc.parsers.BigIntegerParser;
+import com.ibm.ioc.parsers.EnumParser;
 import com.ibm.ioc.parsers.IntegerParser;
 import com.ibm.ioc.parsers.LocalDateTimeParser;
 import com.ibm.ioc.parsers.LocalTimeParser;
 import com.ibm.ioc.parsers.LongParser;
+import com.ibm.ioc.parsers.PrimitiveArrayParser;
+import com.ibm.ioc.util.FlightRecorderEvents;
 
 // Utilities used for reflection and other class related activities
 
 public final class TypeUtils {
   private static final Logger _logger = LoggerFactory.getLogger(TypeUtils.class);
+  /**
+   * System property making all conversions strict JVM-wide, see {@link #callStrictly(Callable)} to do so for one action
+   */
   public static final String DISALLOW_INVALID_VALUES_TEST_PROPERTY = "configuration.test.disallow-invalid-values";
 
+  // Set while the current thread converts strictly, see callStrictly()
+  private static final ThreadLocal<Boolean> strictConversions = new ThreadLocal<>();
+
   public static final Gson gson = new GsonBuilder()
       .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
       .registerTypeAdapter(int.class, IntegerParser.getGsonTypeAdapter())
@@ -50,8 +60,36 @@ public final class TypeUtils {
       .registerTypeAdapter(LocalTime.class, LocalTimeParser.getGsonTypeAdapter())
       .registerTypeAdapter(LocalDateTime.class, LocalDateTimeParser.getGsonTypeAdapter())
       .registerTypeAdapter(BigInteger.class, BigIntegerParser.getGsonTypeAdapter())
+      .registerTypeAdapter(int[].class, PrimitiveArrayParser.getIntArrayGsonTypeAdapter())
+      .registerTypeAdapter(long[].class, PrimitiveArrayParser.getLongArrayGsonTypeAdapter())
+      .registerTypeAdapter(double[].class, PrimitiveArrayParser.getDoubleArrayGsonTypeAdapter())
       .create();
 
+  /**
+   * @return true if conversions on the current thread throw on values they can't convert instead of returning null
+   */
+  public static boolean isStrict() {
+    return strictConversions.get() != null || Boolean.getBoolean(DISALLOW_INVALID_VALUES_TEST_PROPERTY);
+  }
+
+  /**
+   * Runs the action with strict conversions on the current thread only, see {@link #isStrict()}
+   *
+   * @param action to run
+   * @return what the action returned
+   */
+  public static <T> T callStrictly(final Callable<T> action) throws Exception {
+    final Boolean previous = strictConversions.get();
+    strictConversions.set(Boolean.TRUE);
+    try {
+      return action.call();
+    } finally {
+      if (previous == null) {
+        strictConversions.remove();
+      }
+    }
+  }
+
   /**
    * Class collects primitive class information used to cast, print and parse value of primitive types
    */
@@ -559,7 +597,6 @@ public final class TypeUtils {
     return list;
   }
 
-  @SuppressWarnings({"unchecked"})
   public static Object createObjectFromString(final Type type, final String stringValue) {
     if (type.equals(String.class)) {
       return stringValue;
@@ -567,31 +604,51 @@ public final class TypeUtils {
     if (stringValue == null || stringValue.isEmpty()) {
       return null;
     }
+    final Object event = FlightRecorderEvents.begin(FlightRecorderEvents.Kind.CONVERSION);
+    final long start = Metrics.startTime();
+    boolean converted = false;
+    try {
+      final Object convertedObject = convertFromString(type, stringValue);
+      converted = convertedObject != null;
+      return convertedObject;
+    } finally {
+      FlightRecorderEvents.endConversion(event, type, converted);
+      Metrics.increment(Metrics.CONVERSIONS);
+      if (!converted) {
+        Metrics.increment(Metrics.CONVERSION_FAILURES);
+      }
+      Metrics.record(Metrics.CONVERSION_TIME, start);
+    }
+  }
+
+  @SuppressWarnings({"unchecked"})
+  private static Object convertFromString(final Type type, final String stringValue) {
 
     final Class<?> rawType = getRawType(type);
 
+    // Numeric tables are parsed straight into primitive storage, the generic path below boxes each element
+    if (PrimitiveArrayParser.isSupported(rawType)) {
+      final Object primitiveArray = PrimitiveArrayParser.parse(rawType, stringValue);
+      if (primitiveArray != null) {
+        return primitiveArray;
+      }
+    }
+
     final Class<?> wrapperType = getNonPrimitiveFor(rawType);
 
     Object convertedObject = null;
     Method conversionMethod;
 
-    final String[] stringConversionSuspects = new String[] {"valueOf", "fromString", "decode"};
-    final List<String> caseCandidates;
     if (rawType.isEnum()) {
-      caseCandidates =
-          Arrays.asList(stringValue, stringValue.toUpperCase(),
-              stringValue.toLowerCase(),
-              NamingHelper.convertNameIntoJava(stringValue, null, null, true));
+      // Constant names in all accepted spellings and the enum's own fromString/decode, from a table built once
+      convertedObject = EnumParser.parseConstant(rawType, stringValue);
     } else {
-      caseCandidates = Arrays.asList(stringValue);
-    }
-    for (final String conversionSuspect : stringConversionSuspects) {
-      for (final String val : caseCandidates) {
+      for (final String conversionSuspect : new String[] {"valueOf", "fromString", "decode"}) {
         try {
           conversionMethod = wrapperType.getMethod(conversionSuspect, String.class);
           if (conversionMethod != null && Modifier.isStatic(conversionMethod.getModifiers())
               && isAssignableFrom(rawType, conversionMethod.getReturnType())) {
-            convertedObject = conversionMethod.invoke(null, val);
+            convertedObject = conversionMethod.invoke(null, stringValue);
           }
         } catch (final Exception ignore) {
           // Ignore
@@ -600,9 +657,6 @@ public final class TypeUtils {
           break;
         }
       }
-      if (convertedObject != null) {
-        break;
-      }
     }
     if (convertedObject == null) {
       // Try to find a helper parser class for a given type
@@ -702,7 +756,7 @@ public final class TypeUtils {
     // and the string value couldn't be converted to the expected object type, OR
     // the expected object type is a boolean but the string value is not "true" or "false",
     // then throw an IllegalArgumentException
-    if (Boolean.valueOf(System.getProperty(DISALLOW_INVALID_VALUES_TEST_PROPERTY)) &&
+    if (isStrict() &&
         (convertedObject == null || (Boolean.class.equals(wrapperType) && !isValidBoolean(stringValue)))) {
       throw new IllegalArgumentException(
           new IllegalConfigurationContentException("Could not convert \"" + stringValue + "\" to " + type));
@@ -16,6 +16,7 @@ import com.ibm.ioc.BindingsProvider;
 import com.ibm.ioc.ConfigurationItemNotDefinedException;
 import com.ibm.ioc.ObjectInitializationException;
 import com.ibm.ioc.ObjectInstantiationException;
+import com.ibm.ioc.metrics.Metrics;
 
 public class BindingsMap<V> implements Map<String, V> {
 
@@ -45,13 +46,16 @@ public class BindingsMap<V> implements Map<String, V> {
       throw new NullPointerException();
     }
 
+    Metrics.increment(Metrics.BINDINGS_MAP_LOOKUPS);
     if (!(key instanceof String)) {
+      Metrics.increment(Metrics.BINDINGS_MAP_MISSES);
       return null;
     }
 
     try {
       return this.bindingsProvider.getImplementation(this.interfaceClass, (String) key);
     } catch (final ConfigurationItemNotDefinedException e) {
+      Metrics.increment(Metrics.BINDINGS_MAP_MISSES);
       return null;
     }
   }
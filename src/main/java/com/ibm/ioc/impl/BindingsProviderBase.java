@@ -6,16 +6,34 @@
 
 package com.ibm.ioc.impl;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableMap;
 import com.ibm.ioc.BindingsProvider;
 import com.ibm.ioc.ConfigurationItemNotDefinedException;
+import com.ibm.ioc.SelfTestOptions;
+import com.ibm.ioc.SelfTestReport;
 import com.ibm.ioc.TypeUtils;
 
 // TODO: Describe class or interface
@@ -25,7 +43,108 @@ public abstract class BindingsProviderBase implements BindingsProvider {
   private final Map<Class<?>, InterfaceBinding> interfaceBindingsMap =
       new HashMap<Class<?>, InterfaceBinding>();
 
-  private final Map<Class<?>, String> interfaceOverrides = new HashMap<Class<?>, String>();
+  // Set by freeze(), after that bindings are only read through the class value
+  private volatile ImmutableMap<Class<?>, InterfaceBinding> frozenBindings;
+
+  // Set by freezeLazily() until everything pending got registered, bindings are registered on their first lookup
+  private volatile boolean lazy;
+
+  private final ClassValue<InterfaceBinding> bindings = new ClassValue<InterfaceBinding>() {
+    @Override
+    protected InterfaceBinding computeValue(final Class<?> interfaceClass) {
+      if (BindingsProviderBase.this.lazy) {
+        synchronized (BindingsProviderBase.this.interfaceBindingsMap) {
+          if (BindingsProviderBase.this.lazy) {
+            return registerLazily(interfaceClass);
+          }
+        }
+      }
+      return BindingsProviderBase.this.frozenBindings.get(interfaceClass);
+    }
+  };
+
+  private static final ClassValue<DefaultOverride> defaultOverrides = new ClassValue<DefaultOverride>() {
+    @Override
+    protected DefaultOverride computeValue(final Class<?> interfaceClass) {
+      return new DefaultOverride(interfaceClass);
+    }
+  };
+
+  /**
+   * Referral overriding the default implementation of an interface, taken from the property named after the interface
+   * or, for nested interfaces, after its name in Java notation. Resolved once and again only when one of these two
+   * properties changes. The class value may create more than one instance under contention, so only the one it keeps
+   * listens to the properties, see {@link #listen()}.
+   */
+  private static final class DefaultOverride implements ModificationListener<Object> {
+    private final Class<?> interfaceClass;
+    private final Modifiable<?> property;
+    private final Modifiable<?> javaNameProperty;
+    private final AtomicBoolean listening = new AtomicBoolean();
+    private volatile String override;
+
+    DefaultOverride(final Class<?> interfaceClass) {
+      this.interfaceClass = interfaceClass;
+      this.property = new PropertyEvaluator(interfaceClass.getName()).evaluate();
+      // Replace $ to . to support inner classes and maintain Java notation
+      final String fixedInterfaceClassName = interfaceClass.getName().replace('$', '.');
+      this.javaNameProperty = fixedInterfaceClassName.equals(interfaceClass.getName())
+          ? null
+          : new PropertyEvaluator(fixedInterfaceClassName).evaluate();
+      this.override = resolve();
+    }
+
+    /**
+     * Starts listening to the properties, once and only for the instance the class value returned
+     *
+     * @return this
+     */
+    @SuppressWarnings("unchecked")
+    DefaultOverride listen() {
+      if (!this.listening.get() && this.listening.compareAndSet(false, true)) {
+        if (this.override != null) {
+          logOverride(this.override);
+        }
+        // listeners get called right away, which only finds a change if there was one since resolving
+        if (this.property != null) {
+          ((Modifiable<Object>) this.property).addModificationListener(this);
+        }
+        if (this.javaNameProperty != null) {
+          ((Modifiable<Object>) this.javaNameProperty).addModificationListener(this);
+        }
+      }
+      return this;
+    }
+
+    private static String get(final Modifiable<?> property) {
+      final Object value = property == null ? null : property.get();
+      return value == null || value.toString().isEmpty() ? null : value.toString();
+    }
+
+    private String resolve() {
+      final String resolved = get(this.property);
+      return resolved != null ? resolved : get(this.javaNameProperty);
+    }
+
+    private void logOverride(final String referral) {
+      _logger.warn(
+          "Overriding a default implementation for interface {} with the referral {}",
+          this.interfaceClass.getName(), referral);
+    }
+
+    @Override
+    public synchronized void updated(final Object value) {
+      final String resolved = resolve();
+      if (Objects.equals(resolved, this.override)) {
+        return;
+      }
+      this.override = resolved;
+      if (resolved != null) {
+        logOverride(resolved);
+      }
+      SingletonImplementationFactory.invalidateDefaultRefs(this.interfaceClass);
+    }
+  }
 
   @Override
   @SuppressWarnings("unchecked")
@@ -33,31 +152,16 @@ public abstract class BindingsProviderBase implements BindingsProvider {
       throws ConfigurationItemNotDefinedException {
     assert interfaceClass != null;
 
-    final InterfaceBinding binding = this.interfaceBindingsMap.get(interfaceClass);
+    final InterfaceBinding binding = getBinding(interfaceClass);
     if (binding == null) {
       throw new ConfigurationItemNotDefinedException("No binding defined for interface "
           + interfaceClass.getCanonicalName());
     }
 
     // If there's an override present, return referral implementation
-    String override = findOverride(interfaceClass.getName());
+    final String override = defaultOverrides.get(interfaceClass).listen().override;
 
-    if (override == null || override.isEmpty()) {
-      // Replace $ to . to support inner classes and maintain Java notation
-      final String fixedInterfaceClassName = interfaceClass.getName().replace('$', '.');
-      if (!fixedInterfaceClassName.equals(interfaceClass.getName())) {
-        override = findOverride(fixedInterfaceClassName);
-      }
-    }
-
-    if (override != null && !override.isEmpty()) {
-      if (!override.equals(this.interfaceOverrides.get(interfaceClass))) {
-        // only report overriding the default implementation once
-        this.interfaceOverrides.put(interfaceClass, override);
-        _logger.warn(
-            "Overriding a default implementation for interface {} with the referral {}",
-            interfaceClass.getName(), override);
-      }
+    if (override != null) {
       return getImplementation(interfaceClass, override);
     } else {
       // defaultest default
@@ -65,12 +169,6 @@ public abstract class BindingsProviderBase implements BindingsProvider {
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private String findOverride(final String propertyName) {
-    final Modifiable<?> defaultReferral = new PropertyEvaluator(propertyName).evaluate();
-    return defaultReferral == null ? null : ((Modifiable<String>) defaultReferral).get();
-  }
-
   @Override
   @SuppressWarnings("unchecked")
   public <T> ImplementationFactory<T> getImplementation(
@@ -78,7 +176,7 @@ public abstract class BindingsProviderBase implements BindingsProvider {
       final String referral) throws ConfigurationItemNotDefinedException {
     assert interfaceClass != null;
 
-    final InterfaceBinding binding = this.interfaceBindingsMap.get(interfaceClass);
+    final InterfaceBinding binding = getBinding(interfaceClass);
     if (binding == null) {
       throw new ConfigurationItemNotDefinedException("No binding defined for interface "
           + interfaceClass.getCanonicalName());
@@ -90,7 +188,7 @@ public abstract class BindingsProviderBase implements BindingsProvider {
   @Override
   public <T> Map<String, ImplementationFactory<? extends T>> getImplementations(
       final Class<T> interfaceClass) throws ConfigurationItemNotDefinedException {
-    final InterfaceBinding binding = this.interfaceBindingsMap.get(interfaceClass);
+    final InterfaceBinding binding = getBinding(interfaceClass);
     if (binding == null) {
       throw new ConfigurationItemNotDefinedException("No binding defined for interface "
           + interfaceClass.getName());
@@ -98,46 +196,275 @@ public abstract class BindingsProviderBase implements BindingsProvider {
     return binding.getImplementationFactoryMap();
   }
 
-  private void tryInitialize(
-      final ImplementationFactory<?> factory,
-      final Map<Class<?>, List<String>> unresolvedBindings) {
-    if (factory == null) {
-      return;
+  /**
+   * One factory to initialize, with what {@link SelfTestReport.Result} needs once it's done
+   */
+  private static final class SelfTestCheck {
+    private final Class<?> interfaceClass;
+    private final String referral;
+    private final ImplementationFactory<?> factory;
+    private final AtomicBoolean done = new AtomicBoolean();
+    private long durationNanos;
+    private Throwable failure;
+    private boolean timedOut;
+
+    SelfTestCheck(final Class<?> interfaceClass, final String referral, final ImplementationFactory<?> factory) {
+      this.interfaceClass = interfaceClass;
+      this.referral = referral;
+      this.factory = factory;
     }
-    try {
-      factory.initialize();
-    } catch (final Exception e) {
-      _logger.debug("Problem initializing " + factory, e);
-      List<String> errorEntries = unresolvedBindings.get(factory.getClass());
-      if (errorEntries == null) {
-        errorEntries = new ArrayList<String>();
-        unresolvedBindings.put(factory.getClass(), errorEntries);
+
+    /**
+     * Records the outcome, unless the check is done already: the factory returned before the timeout or vice versa
+     *
+     * @return true if this call recorded the outcome
+     */
+    boolean complete(final long durationNanos, final Throwable failure, final boolean timedOut) {
+      if (!this.done.compareAndSet(false, true)) {
+        return false;
       }
-      errorEntries.add(e.getMessage());
+      this.durationNanos = durationNanos;
+      this.failure = failure;
+      this.timedOut = timedOut;
+      return true;
+    }
+
+    SelfTestReport.Result toResult() {
+      final SelfTestReport.Status status = this.timedOut
+          ? SelfTestReport.Status.TIMED_OUT
+          : this.failure != null ? SelfTestReport.Status.FAILED : SelfTestReport.Status.PASSED;
+      return new SelfTestReport.Result(this.interfaceClass, this.referral, this.factory, status,
+          Duration.ofNanos(this.durationNanos), this.failure);
     }
   }
 
   @Override
   public Map<Class<?>, List<String>> selfTest() {
-    System.setProperty(TypeUtils.DISALLOW_INVALID_VALUES_TEST_PROPERTY, Boolean.TRUE.toString());
-    final Map<Class<?>, List<String>> unresolvedBindings = new HashMap<>();
+    return selfTest(SelfTestOptions.defaults()).toFailureMap();
+  }
+
+  @Override
+  public SelfTestReport selfTest(final SelfTestOptions options) {
+    if (options.getCache() == null) {
+      return runSelfTest(options);
+    }
+    // a cached outcome depends on the properties the checks read
+    PropertyReads.start();
     try {
-      for (final InterfaceBinding kb : this.interfaceBindingsMap.values()) {
+      return runSelfTest(options);
+    } finally {
+      PropertyReads.stop();
+    }
+  }
+
+  private SelfTestReport runSelfTest(final SelfTestOptions options) {
+    final long start = System.nanoTime();
+    final List<SelfTestCheck> checks = new ArrayList<>();
+    try {
+      for (final InterfaceBinding kb : getInterfaceBindings().values()) {
         for (final String referral : kb.getImplementationReferralSet()) {
-          tryInitialize(kb.getImplementationFactory(referral), unresolvedBindings);
+          checks.add(new SelfTestCheck(kb.getRequiredInterface(), referral, kb.getImplementationFactory(referral)));
+        }
+        if (kb.getDefaultImplementationFactory() != null) {
+          checks.add(new SelfTestCheck(kb.getRequiredInterface(), null, kb.getDefaultImplementationFactory()));
         }
-        tryInitialize(kb.getDefaultImplementationFactory(), unresolvedBindings);
       }
-    } catch (final Exception e) {
+    } catch (final ConfigurationItemNotDefinedException e) {
       throw new RuntimeException("Should not be here", e);
+    }
+
+    final Path cache = options.getCache();
+    String fingerprint = null;
+    if (cache != null) {
+      final List<Class<?>> implementationClasses = new ArrayList<>(checks.size());
+      try {
+        for (final SelfTestCheck check : checks) {
+          final Class<?> implementationClass = check.factory.getImplementationClass();
+          if (implementationClass != null) {
+            implementationClasses.add(implementationClass);
+          }
+        }
+        fingerprint = SelfTestCache.fingerprint(getBindingsFingerprint(), implementationClasses, options.isStrict());
+      } catch (final RuntimeException e) {
+        _logger.debug("Can't fingerprint the bindings, self test results not cached", e);
+      }
+      if (fingerprint != null && SelfTestCache.matches(cache, fingerprint)) {
+        _logger.info("Bindings passed the self test cached in {} already", cache);
+        final List<SelfTestReport.Result> results = new ArrayList<>(checks.size());
+        for (final SelfTestCheck check : checks) {
+          results.add(new SelfTestReport.Result(check.interfaceClass, check.referral, check.factory,
+              SelfTestReport.Status.CACHED, Duration.ZERO, null));
+        }
+        return new SelfTestReport(results, Duration.ofNanos(System.nanoTime() - start));
+      }
+    }
+    // A timed out factory may keep its thread busy for good, so the thread pool is unbounded: permits limit how many
+    // checks run at a time, and a check gives its permit back once it's done or timed out
+    final Semaphore permits = new Semaphore(options.getParallelism());
+    final CountDownLatch remaining = new CountDownLatch(checks.size());
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+        daemonThreads("self-test-timer", threadCount));
+    final ExecutorService executor = Executors.newCachedThreadPool(daemonThreads("self-test", threadCount));
+    try {
+      for (final SelfTestCheck check : checks) {
+        permits.acquire();
+        final Future<?> future = executor.submit(() -> {
+          final long checkStart = System.nanoTime();
+          Throwable failure = null;
+          try {
+            if (options.isStrict()) {
+              TypeUtils.callStrictly(check.factory::initialize);
+            } else {
+              check.factory.initialize();
+            }
+          } catch (final Throwable e) {
+            // linkage errors such as NoClassDefFoundError are what a self test is there to find as well, other errors
+            // fail the check with their real cause before they go on
+            _logger.debug("Problem initializing " + check.factory, e);
+            failure = e;
+          }
+          if (check.complete(System.nanoTime() - checkStart, failure, false)) {
+            permits.release();
+            remaining.countDown();
+          }
+          if (failure instanceof Error && !(failure instanceof LinkageError)) {
+            _logger.error("Error initializing " + check.factory, failure);
+            throw (Error) failure;
+          }
+        });
+        timer.schedule(() -> {
+          final TimeoutException timeout =
+              new TimeoutException("Timed out after " + options.getTimeout().toMillis() + "ms");
+          if (check.complete(options.getTimeout().toNanos(), timeout, true)) {
+            future.cancel(true);
+            permits.release();
+            remaining.countDown();
+          }
+        }, options.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+      }
+      remaining.await();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while testing bindings", e);
     } finally {
-      System.clearProperty(TypeUtils.DISALLOW_INVALID_VALUES_TEST_PROPERTY);
+      executor.shutdownNow();
+      timer.shutdownNow();
+    }
+
+    final List<SelfTestReport.Result> results = new ArrayList<>(checks.size());
+    for (final SelfTestCheck check : checks) {
+      results.add(check.toResult());
+    }
+    final SelfTestReport report = new SelfTestReport(results, Duration.ofNanos(System.nanoTime() - start));
+    if (fingerprint != null && report.isSuccessful()) {
+      try {
+        // singletons created before the self test read their properties as modifiable values, which are included
+        SelfTestCache.write(cache, fingerprint, PropertyReads.getNames());
+      } catch (final IOException e) {
+        _logger.warn("Failed to write self test cache " + cache, e);
+      }
+    }
+    return report;
+  }
+
+  /**
+   * @return digest of the definitions, e.g. of the bindings class files they were taken from; null if unknown, which
+   *         disables caching self test results
+   */
+  protected String getBindingsFingerprint() {
+    return null;
+  }
+
+  private static ThreadFactory daemonThreads(final String name, final AtomicInteger threadCount) {
+    return runnable -> {
+      final Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private InterfaceBinding getBinding(final Class<?> interfaceClass) {
+    return this.frozenBindings != null || this.lazy
+        ? this.bindings.get(interfaceClass)
+        : this.interfaceBindingsMap.get(interfaceClass);
+  }
+
+  private Map<Class<?>, InterfaceBinding> getInterfaceBindings() {
+    registerAllLazily();
+    final Map<Class<?>, InterfaceBinding> frozen = this.frozenBindings;
+    return frozen != null ? frozen : this.interfaceBindingsMap;
+  }
+
+  /**
+   * Ends registration. Bindings become immutable, lookups stop locking and allocating, and the maps returned by
+   * {@link #getImplementations(Class)} and {@link #getInterfaceBindingsMap()} are shared immutable views.
+   */
+  protected void freeze() {
+    if (this.frozenBindings != null) {
+      return;
     }
+    for (final InterfaceBinding binding : this.interfaceBindingsMap.values()) {
+      binding.freeze();
+    }
+    this.frozenBindings = ImmutableMap.copyOf(this.interfaceBindingsMap);
+    this.interfaceBindingsMap.clear();
+  }
 
-    return unresolvedBindings;
+  /**
+   * Ends registration like {@link #freeze()}, but leaves the definitions not registered so far pending.
+   * {@link #registerPending(Class)} registers those of an interface right before its first lookup, and
+   * {@link #registerAllPending()} all of them before anything needs all bindings, such as {@link #selfTest()}.
+   */
+  protected void freezeLazily() {
+    if (this.frozenBindings == null) {
+      this.lazy = true;
+    }
+  }
+
+  /**
+   * Registers the pending definitions binding the interface, see {@link #freezeLazily()}. Called while registration is
+   * locked, at most once per interface.
+   *
+   * @param interfaceClass interface about to be looked up for the first time
+   */
+  protected void registerPending(final Class<?> interfaceClass) {}
+
+  /**
+   * Registers all pending definitions, see {@link #freezeLazily()}. Called while registration is locked.
+   */
+  protected void registerAllPending() {}
+
+  private InterfaceBinding registerLazily(final Class<?> interfaceClass) {
+    registerPending(interfaceClass);
+    // every definition binding the interface is registered now, so its binding is complete
+    final InterfaceBinding binding = this.interfaceBindingsMap.get(interfaceClass);
+    if (binding != null) {
+      binding.freeze();
+    }
+    return binding;
+  }
+
+  private void registerAllLazily() {
+    if (this.lazy) {
+      synchronized (this.interfaceBindingsMap) {
+        if (this.lazy) {
+          registerAllPending();
+          freeze();
+          this.lazy = false;
+        }
+      }
+    }
+  }
+
+  public boolean isFrozen() {
+    return this.frozenBindings != null || this.lazy;
   }
 
   protected InterfaceBinding getOrCreateInterfaceBinding(final Class<?> interfaceClass) {
+    if (this.frozenBindings != null) {
+      throw new IllegalStateException("Bindings are frozen, can't bind " + interfaceClass.getName());
+    }
     InterfaceBinding binding = this.interfaceBindingsMap.get(interfaceClass);
     if (binding == null) {
       binding = new InterfaceBinding(interfaceClass);
@@ -147,6 +474,8 @@ public abstract class BindingsProviderBase implements BindingsProvider {
   }
 
   public Map<Class<?>, InterfaceBinding> getInterfaceBindingsMap() {
-    return new HashMap<>(this.interfaceBindingsMap);
+    registerAllLazily();
+    final Map<Class<?>, InterfaceBinding> frozen = this.frozenBindings;
+    return frozen != null ? frozen : new HashMap<>(this.interfaceBindingsMap);
   }
 }
@@ -0,0 +1,146 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.MapMaker;
+import com.ibm.ioc.ObjectInitializationException;
+import com.ibm.ioc.ObjectInstantiationException;
+import com.ibm.ioc.Pool;
+
+/**
+ * Pool bounded by a semaphore, one permit per instance that may be borrowed at a time. Idle instances are reused most
+ * recently released first, so that a lightly used pool keeps touching the same few.
+ */
+class BoundedPool<T> implements Pool<T> {
+  private final ImplementationFactory<T> factory;
+  private final OverrideContext overrides;
+  private final int maxSize;
+  private final Semaphore permits;
+  private final Deque<T> idle = new ConcurrentLinkedDeque<>();
+  // Instances currently borrowed, by identity, weakly so that one a borrower lost doesn't stay around
+  private final Set<T> borrowed = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+  private final AtomicLong created = new AtomicLong();
+  private final AtomicLong borrows = new AtomicLong();
+  private final AtomicLong waits = new AtomicLong();
+
+  BoundedPool(final ImplementationFactory<T> factory, final OverrideContext overrides, final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Pool size must be positive, got " + maxSize);
+    }
+    this.factory = factory;
+    this.overrides = overrides;
+    this.maxSize = maxSize;
+    this.permits = new Semaphore(maxSize, true);
+  }
+
+  @Override
+  public T borrow() throws ObjectInitializationException {
+    if (!this.permits.tryAcquire()) {
+      this.waits.incrementAndGet();
+      try {
+        this.permits.acquire();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ObjectInitializationException("Interrupted waiting for " + this, e);
+      }
+    }
+    return take();
+  }
+
+  @Override
+  public T borrow(final long timeout, final TimeUnit unit) throws ObjectInitializationException {
+    if (!this.permits.tryAcquire()) {
+      this.waits.incrementAndGet();
+      try {
+        if (!this.permits.tryAcquire(timeout, unit)) {
+          return null;
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ObjectInitializationException("Interrupted waiting for " + this, e);
+      }
+    }
+    return take();
+  }
+
+  private T take() throws ObjectInitializationException {
+    this.borrows.incrementAndGet();
+    final T instance = this.idle.pollFirst();
+    if (instance != null) {
+      this.borrowed.add(instance);
+      return instance;
+    }
+    try {
+      final T created = this.factory.initialize(this.overrides);
+      this.created.incrementAndGet();
+      this.borrowed.add(created);
+      return created;
+    } catch (final ObjectInstantiationException e) {
+      this.permits.release();
+      throw new ObjectInitializationException("Failed to create pooled " + this.factory, e);
+    } catch (final ObjectInitializationException | RuntimeException e) {
+      this.permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public void release(final T instance) {
+    if (instance == null) {
+      throw new IllegalArgumentException("Released null to " + this);
+    }
+    // Releasing twice or somebody else's instance would grow the pool past its size
+    if (!this.borrowed.remove(instance)) {
+      throw new IllegalArgumentException("Released " + instance + " not borrowed from " + this);
+    }
+    this.idle.offerFirst(instance);
+    this.permits.release();
+  }
+
+  @Override
+  public int getMaxSize() {
+    return this.maxSize;
+  }
+
+  @Override
+  public long getCreatedCount() {
+    return this.created.get();
+  }
+
+  @Override
+  public long getBorrowCount() {
+    return this.borrows.get();
+  }
+
+  @Override
+  public long getWaitCount() {
+    return this.waits.get();
+  }
+
+  @Override
+  public int getActiveCount() {
+    return this.maxSize - this.permits.availablePermits();
+  }
+
+  @Override
+  public int getIdleCount() {
+    return this.idle.size();
+  }
+
+  @Override
+  public String toString() {
+    return "pool of " + this.factory + " (" + getActiveCount() + "/" + this.maxSize + " active)";
+  }
+}
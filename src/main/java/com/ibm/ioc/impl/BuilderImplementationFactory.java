@@ -11,6 +11,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -23,6 +24,7 @@ import org.slf4j.LoggerFactory;
 
 import com.ibm.ioc.ObjectInitializationException;
 import com.ibm.ioc.ObjectInstantiationException;
+import com.ibm.ioc.util.StartupProfiler;
 
 public final class BuilderImplementationFactory<T> implements ImplementationFactory<T> {
   private static final Logger _logger =
@@ -35,11 +37,43 @@ public final class BuilderImplementationFactory<T> implements ImplementationFact
   public <U> BuilderImplementationFactory(
       final Class<U> builderClass,
       final List<NamedEvaluator> parameters) {
+    this(builderClass, parameters, findBuilderFields(builderClass, parameters));
+  }
+
+  /**
+   * @param builderClass builder creating the implementation
+   * @param parameters of the definition
+   * @param builderFields names of the parameters setting public fields of the builder, as found by the other
+   *          constructor and kept from {@link #getBuilderFields()}; the others are set on the implementation
+   */
+  public <U> BuilderImplementationFactory(
+      final Class<U> builderClass,
+      final List<NamedEvaluator> parameters,
+      final Collection<String> builderFields) {
     this.nonBuilderParameters = new ArrayList<NamedEvaluator>();
+    this.builderParameters = new ArrayList<NamedEvaluator>();
+    final Set<String> fields = new HashSet<>(builderFields);
+    for (final NamedEvaluator param : parameters) {
+      if (fields.remove(param.getName())) {
+        this.builderParameters.add(param);
+      } else {
+        this.nonBuilderParameters.add(param);
+      }
+    }
+
+    this.builderImplementationFactory =
+        new ImplementationFactoryImpl<U>(builderClass, this.builderParameters);
+
+    if (_logger.isTraceEnabled()) {
+      _logger.trace(ConfigurationEvents.ADDED_IMPLEMENTATION, getImplementationClass(),
+          builderClass);
+    }
+  }
 
+  private static Set<String> findBuilderFields(final Class<?> builderClass, final List<NamedEvaluator> parameters) {
     final Set<Field> allPublicFields =
         new HashSet<Field>(Arrays.asList(builderClass.getFields()));
-    this.builderParameters = new ArrayList<NamedEvaluator>();
+    final Set<String> builderFields = new HashSet<>();
 
     for (final NamedEvaluator param : parameters) {
       final String fieldName = NamingHelper.convertNameIntoJavaField(param.getName());
@@ -58,9 +92,8 @@ public final class BuilderImplementationFactory<T> implements ImplementationFact
         _logger.debug(
             "Field or method not found {} on *builder* {} (maybe it's on implementation instead)",
             param, builderClass.getName());
-        this.nonBuilderParameters.add(param);
       } else {
-        this.builderParameters.add(param);
+        builderFields.add(param.getName());
       }
     }
 
@@ -68,12 +101,18 @@ public final class BuilderImplementationFactory<T> implements ImplementationFact
       throw new RuntimeException("Fields on builder " + builderClass
           + " not set: " + allPublicFields);
     }
+    return builderFields;
+  }
 
-    this.builderImplementationFactory =
-        new ImplementationFactoryImpl<U>(builderClass, this.builderParameters);
-
-    _logger.trace(ConfigurationEvents.ADDED_IMPLEMENTATION, getImplementationClass(),
-        builderClass);
+  /**
+   * @return names of the parameters setting public fields of the builder
+   */
+  public List<String> getBuilderFields() {
+    final List<String> names = new ArrayList<>(this.builderParameters.size());
+    for (final NamedEvaluator param : this.builderParameters) {
+      names.add(param.getName());
+    }
+    return names;
   }
 
   public Object getBuilder(final Map<Class<?>, String> overrides)
@@ -99,24 +138,40 @@ public final class BuilderImplementationFactory<T> implements ImplementationFact
   @SuppressWarnings("unchecked")
   public T initialize(final Map<Class<?>, String> overrides)
       throws ObjectInstantiationException, ObjectInitializationException {
-    final Object builder = getBuilder(overrides);
+    final StartupProfiler.Frame binding = StartupProfiler.enter(getBuilderClass(overrides).getName());
+    try {
+      final Object builder = getBuilder(overrides);
 
-    if (_logger.isTraceEnabled()) {
-      _logger.trace(ConfigurationEvents.BUILDING_OBJECT, builder);
-    }
+      if (_logger.isTraceEnabled()) {
+        _logger.trace(ConfigurationEvents.BUILDING_OBJECT, builder);
+      }
 
-    try {
-      final T object = (T) builder.getClass().getMethod("build", new Class[0]).invoke(builder);
-      addAdditionalBuilderParams(object);
-
-      final ReferenceEvaluator<T> ref =
-          new ReferenceEvaluator<T>(object, this.nonBuilderParameters);
-      return ref.evaluate(overrides);
-    } catch (final InvocationTargetException e) {
-      _logger.error("Could not construct " + builder.getClass(), e);
-      throw new ObjectInitializationException(e.getTargetException().getMessage(), e);
-    } catch (final Exception e) {
-      throw new ObjectInitializationException(e.getMessage(), e);
+      try {
+        final T object;
+        final StartupProfiler.Frame build = StartupProfiler.enter(StartupProfiler.BUILD);
+        try {
+          object = (T) builder.getClass().getMethod("build", new Class[0]).invoke(builder);
+        } finally {
+          StartupProfiler.exit(build);
+        }
+        addAdditionalBuilderParams(object);
+
+        final StartupProfiler.Frame setters = StartupProfiler.enter(StartupProfiler.POST_BUILD_SETTERS);
+        try {
+          final ReferenceEvaluator<T> ref =
+              new ReferenceEvaluator<T>(object, this.nonBuilderParameters);
+          return ref.evaluate(overrides);
+        } finally {
+          StartupProfiler.exit(setters);
+        }
+      } catch (final InvocationTargetException e) {
+        _logger.error("Could not construct " + builder.getClass(), e);
+        throw new ObjectInitializationException(e.getTargetException().getMessage(), e);
+      } catch (final Exception e) {
+        throw new ObjectInitializationException(e.getMessage(), e);
+      }
+    } finally {
+      StartupProfiler.exit(binding);
     }
   }
 
@@ -0,0 +1,279 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.ibm.ioc.Annotations.RequireParameterBinding;
+import com.ibm.ioc.ObjectInitializationException;
+import com.ibm.ioc.ObjectInstantiationException;
+import com.ibm.ioc.util.StartupProfiler;
+
+/**
+ * Creates objects by passing evaluated parameters straight to a constructor, so that they can keep their state in final
+ * fields. Constructor parameters are matched either by name, which needs classes compiled with <code>-parameters</code>,
+ * or by an explicit order of parameter names. Parameters not passed to the constructor are set afterwards the same way
+ * {@link ImplementationFactoryImpl} sets them.
+ */
+public final class ConstructorImplementationFactory<T> implements ImplementationFactory<T> {
+  private final Class<T> implementationClass;
+  private final List<NamedEvaluator> parameters;
+  private final List<String> constructorParameters;
+  private volatile Injection<T> injection;
+  private Map<Class<?>, String> interfaceMap;
+
+  private static final class Injection<T> {
+    private final Constructor<T> constructor;
+    private final NamedEvaluator[] arguments;
+    private final Type[] types;
+    // what an unset optional parameter gets, zero for primitives
+    private final Object[] defaults;
+    private final List<NamedEvaluator> remaining;
+    private final boolean hasRequiredSetters;
+
+    Injection(final Constructor<T> constructor, final NamedEvaluator[] arguments,
+        final List<NamedEvaluator> remaining) {
+      this.constructor = constructor;
+      this.arguments = arguments;
+      this.types = constructor.getGenericParameterTypes();
+      this.defaults = new Object[arguments.length];
+      final Class<?>[] rawTypes = constructor.getParameterTypes();
+      for (int i = 0; i < rawTypes.length; i++) {
+        if (rawTypes[i].isPrimitive()) {
+          this.defaults[i] = Array.get(Array.newInstance(rawTypes[i], 1), 0);
+        }
+      }
+      this.remaining = remaining;
+      boolean required = false;
+      for (final Method method : constructor.getDeclaringClass().getMethods()) {
+        required |= method.isAnnotationPresent(RequireParameterBinding.class);
+      }
+      this.hasRequiredSetters = required;
+    }
+  }
+
+  /**
+   * @param implementationClass class to create
+   * @param parameters of the definition
+   * @param constructorParameters names of the parameters to pass to the constructor in its order, null to pass all of
+   *          them to the constructor with matching parameter names
+   */
+  public ConstructorImplementationFactory(
+      final Class<T> implementationClass,
+      final List<NamedEvaluator> parameters,
+      final List<String> constructorParameters) {
+    this.implementationClass = implementationClass;
+    this.parameters = parameters;
+    this.constructorParameters = constructorParameters;
+  }
+
+  private Injection<T> getInjection() throws ObjectInstantiationException {
+    Injection<T> result = this.injection;
+    if (result == null) {
+      result = resolve();
+      this.injection = result;
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Injection<T> resolve() throws ObjectInstantiationException {
+    final Map<String, NamedEvaluator> byName = new HashMap<>();
+    for (final NamedEvaluator param : this.parameters) {
+      byName.put(NamingHelper.convertNameIntoJavaField(param.getName()), param);
+    }
+
+    final List<String> names = new ArrayList<>();
+    if (this.constructorParameters == null) {
+      names.addAll(byName.keySet());
+    } else {
+      for (final String name : this.constructorParameters) {
+        final String javaName = NamingHelper.convertNameIntoJavaField(name);
+        if (!byName.containsKey(javaName)) {
+          throw new ObjectInstantiationException("Constructor parameter '" + name
+              + "' is not a parameter of the definition of " + this.implementationClass.getName());
+        }
+        names.add(javaName);
+      }
+    }
+
+    // with an explicit order any constructor of that arity will do, unless its parameter names pick one of several
+    final List<Constructor<?>> candidates = new ArrayList<>();
+    final List<Constructor<?>> named = new ArrayList<>();
+    boolean namesPresent = false;
+    for (final Constructor<?> constructor : this.implementationClass.getDeclaredConstructors()) {
+      if (constructor.getParameterCount() != names.size()) {
+        continue;
+      }
+      final List<String> declared = new ArrayList<>();
+      for (final Parameter parameter : constructor.getParameters()) {
+        namesPresent |= parameter.isNamePresent();
+        declared.add(parameter.getName());
+      }
+      final boolean namesMatch = this.constructorParameters == null
+          ? new HashSet<>(declared).equals(new HashSet<>(names))
+          : declared.equals(names);
+      if (namesMatch) {
+        named.add(constructor);
+      }
+      if (namesMatch || this.constructorParameters != null) {
+        candidates.add(constructor);
+      }
+    }
+    if (candidates.size() > 1 && named.size() == 1) {
+      candidates.retainAll(named);
+    }
+
+    if (candidates.size() != 1) {
+      String whatHappened = candidates.isEmpty()
+          ? "No constructor of " + this.implementationClass.getName() + " takes " + names
+          : "Several constructors of " + this.implementationClass.getName() + " take " + names;
+      if (!namesPresent && this.constructorParameters == null) {
+        whatHappened += ", compile it with -parameters or give the constructor parameters in order";
+      }
+      throw new ObjectInstantiationException(whatHappened);
+    }
+
+    final Constructor<T> constructor = (Constructor<T>) candidates.get(0);
+    final NamedEvaluator[] arguments = new NamedEvaluator[names.size()];
+    final Parameter[] declared = constructor.getParameters();
+    for (int i = 0; i < arguments.length; i++) {
+      arguments[i] = byName.get(this.constructorParameters == null ? declared[i].getName() : names.get(i));
+    }
+    final List<NamedEvaluator> remaining = new ArrayList<>(this.parameters);
+    remaining.removeAll(Arrays.asList(arguments));
+
+    try {
+      constructor.setAccessible(true);
+    } catch (final RuntimeException e) {
+      // SecurityException or, for packages a module doesn't open, InaccessibleObjectException
+      if (!Modifier.isPublic(constructor.getModifiers())
+          || !Modifier.isPublic(this.implementationClass.getModifiers())) {
+        throw new ObjectInstantiationException("Constructor of " + this.implementationClass.getName()
+            + " is not accessible, make it public or open its package to java-ioc", e);
+      }
+    }
+    return new Injection<>(constructor, arguments, remaining);
+  }
+
+  @Override
+  public T initialize(final Map<Class<?>, String> overrides)
+      throws ObjectInstantiationException, ObjectInitializationException {
+    final StartupProfiler.Frame binding = StartupProfiler.enter(this.implementationClass.getName());
+    try {
+      return initialize(getInjection(), overrides);
+    } finally {
+      StartupProfiler.exit(binding);
+    }
+  }
+
+  private T initialize(final Injection<T> injection, final Map<Class<?>, String> overrides)
+      throws ObjectInstantiationException, ObjectInitializationException {
+    final Object[] values = new Object[injection.arguments.length];
+    for (int i = 0; i < values.length; i++) {
+      final NamedEvaluator argument = injection.arguments[i];
+      Object value = null;
+      final StartupProfiler.Frame resolve = StartupProfiler.enter(StartupProfiler.RESOLVE_PARAMETERS);
+      try {
+        value = argument.evaluate(overrides);
+      } catch (final ObjectInitializationException e) {
+        if (argument.isRequired()) {
+          throw new ObjectInitializationException("Exception evaluating parameter " + argument.getName()
+              + " for " + this.implementationClass.getName(), e);
+        }
+      } finally {
+        StartupProfiler.exit(resolve);
+      }
+      final StartupProfiler.Frame convert = StartupProfiler.enter(StartupProfiler.CONVERT);
+      try {
+        values[i] = ReferenceEvaluator.convertToType(injection.types[i], value);
+      } finally {
+        StartupProfiler.exit(convert);
+      }
+      if (values[i] == null) {
+        if (argument.isRequired()) {
+          throw new ObjectInitializationException("Constructor parameter " + argument.getName() + " of "
+              + this.implementationClass.getName() + " is not resolved"
+              + (value != null ? " (for parameter " + value + ")" : ""));
+        }
+        values[i] = injection.defaults[i];
+      }
+    }
+
+    final T classInstance;
+    final StartupProfiler.Frame instantiate = StartupProfiler.enter(StartupProfiler.INSTANTIATE);
+    try {
+      classInstance = injection.constructor.newInstance(values);
+    } catch (final InvocationTargetException e) {
+      throw new ObjectInstantiationException("Can't instatiate an object of type '"
+          + this.implementationClass.getName() + "'", e.getCause());
+    } catch (final Exception e) {
+      throw new ObjectInstantiationException("Can't instatiate an object of type '"
+          + this.implementationClass.getName() + "'", e);
+    } finally {
+      StartupProfiler.exit(instantiate);
+    }
+
+    if (injection.remaining.isEmpty() && !injection.hasRequiredSetters) {
+      return classInstance;
+    }
+    return new ReferenceEvaluator<T>(classInstance, injection.remaining).evaluate(overrides);
+  }
+
+  @Override
+  public Class<T> getImplementationClass(final Map<Class<?>, String> overrides) {
+    return this.implementationClass;
+  }
+
+  @Override
+  public List<NamedEvaluator> getParameters(final Map<Class<?>, String> overrides) {
+    return this.parameters;
+  }
+
+  @Override
+  public String toString() {
+    return this.implementationClass.toString();
+  }
+
+  @Override
+  public Set<Class<?>> getDefaultRefs(final Map<Class<?>, String> overrides) {
+    final Set<Class<?>> set = new HashSet<>();
+    for (final NamedEvaluator param : this.parameters) {
+      set.addAll(param.getDefaultRefs(overrides));
+    }
+    return set;
+  }
+
+  @Override
+  public Map<Class<?>, String> getCombinedOverrides(final Map<Class<?>, String> overrides) {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public Map<Class<?>, String> getImplementedInterfaces() {
+    return this.interfaceMap;
+  }
+
+  @Override
+  public void setImplementedInterfaces(final Map<Class<?>, String> interfaceMap) {
+    this.interfaceMap = interfaceMap;
+  }
+}
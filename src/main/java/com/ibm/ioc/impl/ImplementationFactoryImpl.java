@@ -15,6 +15,7 @@ import java.util.Set;
 
 import com.ibm.ioc.ObjectInitializationException;
 import com.ibm.ioc.ObjectInstantiationException;
+import com.ibm.ioc.util.StartupProfiler;
 
 // TODO: Describe class or interface
 public final class ImplementationFactoryImpl<T> implements ImplementationFactory<T> {
@@ -38,18 +39,26 @@ public final class ImplementationFactoryImpl<T> implements ImplementationFactory
   @Override
   public T initialize(final Map<Class<?>, String> overrides)
       throws ObjectInstantiationException, ObjectInitializationException {
-    final T classInstance;
-
+    final StartupProfiler.Frame binding = StartupProfiler.enter(this.implementationClass.getName());
     try {
-      classInstance = this.implementationClass.getDeclaredConstructor().newInstance();
-    } catch (final Exception e) {
-      throw new ObjectInstantiationException("Can't instatiate an object of type '"
-          + this.implementationClass.getName() + "'", e);
+      final T classInstance;
+
+      final StartupProfiler.Frame instantiate = StartupProfiler.enter(StartupProfiler.INSTANTIATE);
+      try {
+        classInstance = this.implementationClass.getDeclaredConstructor().newInstance();
+      } catch (final Exception e) {
+        throw new ObjectInstantiationException("Can't instatiate an object of type '"
+            + this.implementationClass.getName() + "'", e);
+      } finally {
+        StartupProfiler.exit(instantiate);
+      }
+
+      final ReferenceEvaluator<T> evaluator =
+          new ReferenceEvaluator<T>(classInstance, this.parameters);
+      return evaluator.evaluate(overrides);
+    } finally {
+      StartupProfiler.exit(binding);
     }
-
-    final ReferenceEvaluator<T> evaluator =
-        new ReferenceEvaluator<T>(classInstance, this.parameters);
-    return evaluator.evaluate(overrides);
   }
 
   /**
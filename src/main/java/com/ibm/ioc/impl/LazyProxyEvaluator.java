@@ -0,0 +1,174 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.ioc.ConfigurationItemNotDefinedException;
+import com.ibm.ioc.ObjectInitializationException;
+
+/**
+ * Evaluates a reference to an interface proxy that creates the referenced object on its first method call, so that
+ * dependencies only some code paths use are not built together with the object referencing them.
+ */
+public class LazyProxyEvaluator implements DelayedEvaluator {
+  private static final Logger _logger = LoggerFactory.getLogger(LazyProxyEvaluator.class);
+
+  // Accessible copies of the interface methods proxies are called through, so that interfaces that are not public
+  // work too. Kept with the interface declaring them, so they go away together with its class loader
+  private static final ClassValue<ConcurrentMap<Method, Method>> accessibleMethods =
+      new ClassValue<ConcurrentMap<Method, Method>>() {
+        @Override
+        protected ConcurrentMap<Method, Method> computeValue(final Class<?> declaringClass) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private final DelayedEvaluator evaluator;
+  private final Class<?> requiredInterface;
+
+  public LazyProxyEvaluator(final DelayedEvaluator evaluator, final Class<?> requiredInterface) {
+    if (!requiredInterface.isInterface()) {
+      throw new IllegalArgumentException("Lazy references need an interface, got " + requiredInterface.getName());
+    }
+    this.evaluator = evaluator;
+    this.requiredInterface = requiredInterface;
+  }
+
+  private static final class LazyHandler implements InvocationHandler {
+    private final DelayedEvaluator evaluator;
+    private final Map<Class<?>, String> overrides;
+    private volatile Object target;
+
+    LazyHandler(final DelayedEvaluator evaluator, final Map<Class<?>, String> overrides) {
+      this.evaluator = evaluator;
+      this.overrides = overrides;
+    }
+
+    private Object getTarget() {
+      Object result = this.target;
+      if (result == null) {
+        synchronized (this) {
+          result = this.target;
+          if (result == null) {
+            try {
+              result = this.evaluator.evaluate(this.overrides);
+            } catch (final ObjectInitializationException e) {
+              throw new IllegalStateException("Failed to initialize lazy reference " + this.evaluator, e);
+            }
+            if (result == null) {
+              throw new IllegalStateException("Lazy reference " + this.evaluator + " evaluated to null");
+            }
+            _logger.debug("Initialized lazy reference {}", this.evaluator);
+            this.target = result;
+          }
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      // Identity and description don't need the real object
+      if (method.getDeclaringClass() == Object.class) {
+        switch (method.getName()) {
+          case "equals":
+            return proxy == args[0];
+          case "hashCode":
+            return System.identityHashCode(proxy);
+          case "toString":
+            final Object current = this.target;
+            return current == null ? "Lazy reference " + this.evaluator + " (not initialized)" : current.toString();
+          default:
+            break;
+        }
+      }
+      try {
+        return getAccessible(method).invoke(getTarget(), args);
+      } catch (final InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  private static Method getAccessible(final Method method) {
+    final ConcurrentMap<Method, Method> methods = accessibleMethods.get(method.getDeclaringClass());
+    Method accessible = methods.get(method);
+    if (accessible == null) {
+      accessible = method;
+      try {
+        // a copy, the proxy class shares the method it passes in
+        final Method copy = method.getDeclaringClass().getDeclaredMethod(method.getName(), method.getParameterTypes());
+        copy.setAccessible(true);
+        accessible = copy;
+      } catch (final NoSuchMethodException | RuntimeException e) {
+        _logger.debug("Calling " + method + " without making it accessible", e);
+      }
+      methods.putIfAbsent(method, accessible);
+    }
+    return accessible;
+  }
+
+  @Override
+  public Object evaluate(final Map<Class<?>, String> overrides) throws ObjectInitializationException {
+    return Proxy.newProxyInstance(this.requiredInterface.getClassLoader(), new Class<?>[] {this.requiredInterface},
+        new LazyHandler(this.evaluator, overrides));
+  }
+
+  @Override
+  public List<NamedEvaluator> getParameters(final Map<Class<?>, String> overrides)
+      throws ConfigurationItemNotDefinedException, ObjectInitializationException {
+    return this.evaluator.getParameters(overrides);
+  }
+
+  @Override
+  public String getReferral() {
+    return this.evaluator.getReferral();
+  }
+
+  @Override
+  public Class<?> getRequiredInterface() {
+    return this.requiredInterface;
+  }
+
+  @Override
+  public Class<?> getImplementationClass(final Map<Class<?>, String> overrides)
+      throws ConfigurationItemNotDefinedException, ObjectInitializationException {
+    return this.evaluator.getImplementationClass(overrides);
+  }
+
+  @Override
+  public Set<Class<?>> getDefaultRefs(final Map<Class<?>, String> overrides) {
+    return this.evaluator.getDefaultRefs(overrides);
+  }
+
+  @Override
+  public Map<Class<?>, String> getCombinedOverrides(final Map<Class<?>, String> overrides) {
+    return this.evaluator.getCombinedOverrides(overrides);
+  }
+
+  @Override
+  public Map<Class<?>, String> getImplementedInterfaces(final Map<Class<?>, String> overrides) {
+    return this.evaluator.getImplementedInterfaces(overrides);
+  }
+
+  @Override
+  public String toString() {
+    return "lazy " + this.evaluator;
+  }
+}
@@ -10,4 +10,6 @@ interface Modifiable<T> {
   T get();
 
   void addModificationListener(ModificationListener<T> listener);
+
+  void removeModificationListener(ModificationListener<T> listener);
 }
@@ -6,11 +6,16 @@
 
 package com.ibm.ioc.impl;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.ibm.ioc.metrics.Metrics;
+import com.ibm.ioc.util.FlightRecorderEvents;
 
 final class ModifiableImpl<T> implements Modifiable<T> {
   private volatile T value;
-  private final ArrayList<ModificationListener<T>> listeners = new ArrayList<>();
+  // Copy on write so that a listener may unregister itself while being notified
+  private final List<ModificationListener<T>> listeners = new CopyOnWriteArrayList<>();
 
   public ModifiableImpl() {
     this(null);
@@ -28,8 +33,19 @@ final class ModifiableImpl<T> implements Modifiable<T> {
   public void set(final T newValue) {
     this.value = newValue;
     synchronized (this) {
-      for (final ModificationListener<T> listener : this.listeners) {
-        listener.updated(newValue);
+      final Object event = FlightRecorderEvents.begin(FlightRecorderEvents.Kind.LISTENER_NOTIFICATION);
+      final long start = Metrics.startTime();
+      int notified = 0;
+      try {
+        for (final ModificationListener<T> listener : this.listeners) {
+          listener.updated(newValue);
+          notified++;
+        }
+      } finally {
+        FlightRecorderEvents.endListenerNotification(event, newValue, notified);
+        Metrics.increment(Metrics.NOTIFICATIONS);
+        Metrics.add(Metrics.LISTENERS_NOTIFIED, notified);
+        Metrics.record(Metrics.NOTIFICATION_TIME, start);
       }
     }
   }
@@ -40,6 +56,15 @@ final class ModifiableImpl<T> implements Modifiable<T> {
     listener.updated(this.value);
   }
 
+  @Override
+  public void removeModificationListener(final ModificationListener<T> listener) {
+    this.listeners.remove(listener);
+  }
+
+  boolean hasListeners() {
+    return !this.listeners.isEmpty();
+  }
+
   @Override
   public String toString() {
     return String.valueOf(this.value);
@@ -7,7 +7,18 @@
 package com.ibm.ioc.impl;
 
 import java.lang.reflect.Type;
-
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
 import com.ibm.ioc.TypeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +26,17 @@ import org.slf4j.LoggerFactory;
 class ModifiableUtils {
   private static final Logger _logger = LoggerFactory.getLogger(ModifiableUtils.class);
 
+  // Types whose values can't be changed in place, only views of these are shared between consumers
+  private static final Set<Class<?>> IMMUTABLE_TYPES = ImmutableSet.of(
+      String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+      Double.class, BigInteger.class, BigDecimal.class, Duration.class, LocalDate.class, LocalTime.class,
+      LocalDateTime.class, UUID.class);
+
+  // Shared typed views per original modifiable (by identity) and target type. A view is referenced by its consumers,
+  // and by its original only while it has listeners, so it goes away once nobody uses it
+  private static final ConcurrentMap<Modifiable<?>, ConcurrentMap<Type, TypedModifiable>> sharedViews =
+      new MapMaker().weakKeys().makeMap();
+
   private static class NonModifiable<T> implements Modifiable<T> {
     private final T value;
 
@@ -30,12 +52,121 @@ class ModifiableUtils {
     @Override
     public void addModificationListener(final ModificationListener<T> listener) {}
 
+    @Override
+    public void removeModificationListener(final ModificationListener<T> listener) {}
+
     @Override
     public String toString() {
       return String.valueOf(this.value);
     }
   }
 
+  /**
+   * Original value and what it was converted to
+   */
+  private static final class Converted {
+    private final Object originalValue;
+    private final Object typedValue;
+    // the original value couldn't be converted, the typed value is the one before
+    private final boolean rejected;
+
+    Converted(final Object originalValue, final Object typedValue, final boolean rejected) {
+      this.originalValue = originalValue;
+      this.typedValue = typedValue;
+      this.rejected = rejected;
+    }
+  }
+
+  /**
+   * Original value converted to a type. Reads convert again once the original changed; listeners are notified through a
+   * single listener on the original, registered only as long as the view has listeners itself
+   */
+  private static final class TypedModifiable implements Modifiable<Object> {
+    private final Modifiable<Object> originalValue;
+    private final Type modifiableType;
+    private final Object conversionLock = new Object();
+    private volatile Converted converted;
+    // Holds the listeners of the view
+    private final ModifiableImpl<Object> value = new ModifiableImpl<>();
+    private final ModificationListener<Object> converter = this::updated;
+
+    TypedModifiable(final Modifiable<Object> originalValue, final Type modifiableType) {
+      this.originalValue = originalValue;
+      this.modifiableType = modifiableType;
+      final Object initialValue = originalValue.get();
+      this.converted = new Converted(initialValue, convertOrConform(modifiableType, initialValue), false);
+    }
+
+    @Override
+    public Object get() {
+      final Object current = this.originalValue.get();
+      Converted converted = this.converted;
+      if (converted.originalValue != current) {
+        converted = convert(current);
+      }
+      return converted.typedValue;
+    }
+
+    private void updated(final Object newValue) {
+      final Converted converted = convert(newValue);
+      if (!converted.rejected) {
+        this.value.set(converted.typedValue);
+      }
+    }
+
+    private Converted convert(final Object newValue) {
+      synchronized (this.conversionLock) {
+        final Converted previous = this.converted;
+        if (previous.originalValue == newValue) {
+          return previous;
+        }
+        final Converted next;
+        if (newValue == null) {
+          next = new Converted(null, null, false);
+        } else {
+          final Object newTypedValue = convertOrConform(this.modifiableType, newValue);
+
+          if (newTypedValue != null || ((newValue instanceof String) && ((String) newValue).isEmpty())) {
+            next = new Converted(newValue, newTypedValue, false);
+          } else {
+            _logger.warn("Cannot modify "
+                + this.modifiableType
+                + " containing existing value "
+                + previous.typedValue
+                + " with new value " + newValue + ", which cannot be evaluated to "
+                + this.modifiableType);
+            next = new Converted(newValue, previous.typedValue, true);
+          }
+        }
+        this.converted = next;
+        return next;
+      }
+    }
+
+    @Override
+    public synchronized void addModificationListener(final ModificationListener<Object> listener) {
+      if (!this.value.hasListeners()) {
+        // From now on the original keeps the view up to date, and alive for its listeners
+        this.originalValue.addModificationListener(this.converter);
+        this.value.set(get());
+      }
+      this.value.addModificationListener(listener);
+    }
+
+    @Override
+    public synchronized void removeModificationListener(final ModificationListener<Object> listener) {
+      this.value.removeModificationListener(listener);
+      if (!this.value.hasListeners()) {
+        this.originalValue.removeModificationListener(this.converter);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(get());
+    }
+  }
+
   private static Object convertOrConform(final Type type, final Object value) {
     if (value == null) {
       return null;
@@ -49,50 +180,48 @@ class ModifiableUtils {
     return null;
   }
 
-  private static Modifiable<Object> createModifiableImpl(
-      final Type type,
+  private static Type getModifiableType(final Type type) {
+    return Modifiable.class.isAssignableFrom(TypeUtils.getRawType(type))
+        ? TypeUtils.getGenericTypes(type, Modifiable.class)[0]
+        : type;
+  }
+
+  private static boolean isImmutable(final Type type) {
+    final Class<?> rawType = TypeUtils.getRawType(type);
+    return rawType.isPrimitive() || rawType.isEnum() || IMMUTABLE_TYPES.contains(rawType);
+  }
+
+  private static Modifiable<Object> getSharedModifiable(
+      final Type modifiableType,
       final Modifiable<Object> originalValue) {
-    final Type modifiableType =
-        Modifiable.class.isAssignableFrom(TypeUtils.getRawType(type))
-            ? TypeUtils.getGenericTypes(type, Modifiable.class)[0]
-            : type;
-    final Object typedValue;
-
-    // try convert from a string
-    typedValue = convertOrConform(modifiableType, originalValue.get());
-
-    final ModifiableImpl<Object> modifiableObject = new ModifiableImpl<>(typedValue);
-    originalValue.addModificationListener(newValue -> {
-      if (newValue == null) {
-        modifiableObject.set(null);
-      } else {
-        final Object newTypedValue =
-            convertOrConform(modifiableType, newValue);
-
-        if (newTypedValue != null || ((newValue instanceof String) && ((String) newValue).isEmpty())) {
-          modifiableObject.set(newTypedValue);
-        } else {
-          _logger.warn("Cannot modify "
-              + type
-              + " containing existing value "
-              + typedValue
-              + " with new value " + newValue + ", which cannot be evaluated to "
-              + modifiableType);
-        }
+    final ConcurrentMap<Type, TypedModifiable> views =
+        sharedViews.computeIfAbsent(originalValue, k -> new MapMaker().weakValues().makeMap());
+
+    final TypedModifiable existing = views.get(modifiableType);
+    if (existing != null) {
+      if (TypeUtils.isStrict()) {
+        // A view created leniently holds null for an invalid value, strict consumers still have to fail on it
+        convertOrConform(modifiableType, originalValue.get());
       }
-    });
-    return modifiableObject;
+      return existing;
+    }
+    final TypedModifiable created = new TypedModifiable(originalValue, modifiableType);
+    final TypedModifiable previous = views.putIfAbsent(modifiableType, created);
+    return previous != null ? previous : created;
   }
 
   @SuppressWarnings("unchecked")
   static Modifiable<Object> createModifiable(
       final Type type,
       final Object originalValue) {
-
-    if (originalValue instanceof Modifiable) {
-      return createModifiableImpl(type, (Modifiable<Object>) originalValue);
+    final Type modifiableType = getModifiableType(type);
+    if (!(originalValue instanceof Modifiable)) {
+      return new TypedModifiable(new NonModifiable<>(originalValue), modifiableType);
+    } else if (isImmutable(modifiableType)) {
+      return getSharedModifiable(modifiableType, (Modifiable<Object>) originalValue);
     } else {
-      return createModifiableImpl(type, new NonModifiable<>(originalValue));
+      // Consumers may change converted arrays, collections and beans in place, each one gets its own
+      return new TypedModifiable((Modifiable<Object>) originalValue, modifiableType);
     }
   }
 }
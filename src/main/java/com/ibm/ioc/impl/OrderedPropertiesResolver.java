@@ -28,6 +28,8 @@ import com.ibm.ioc.ConfigurationItemNotDefinedException;
 import com.ibm.ioc.ObjectInitializationException;
 import com.ibm.ioc.PropertiesProvider;
 import com.ibm.ioc.PropertiesResolver;
+import com.ibm.ioc.metrics.Metrics;
+import com.ibm.ioc.util.FlightRecorderEvents;
 
 import com.google.common.base.CaseFormat;
 import com.google.common.collect.Lists;
@@ -195,6 +197,9 @@ public class OrderedPropertiesResolver extends PropertiesProviderBase
   }
 
   private <T> T iterateAndGet(final String name, final TypedInvoker<T> invoker) {
+    final Object event = FlightRecorderEvents.begin(FlightRecorderEvents.Kind.PROPERTY_LOOKUP);
+    final long start = Metrics.startTime();
+    int variants = 0;
     for (final String type : this.providerTypes.values()) {
       final List<String> triedNames = Lists.newArrayList();
       final PropertiesProvider pp = this.providers.get(type);
@@ -207,6 +212,7 @@ public class OrderedPropertiesResolver extends PropertiesProviderBase
         triedNames.add(nameVariation);
         if (pp != null) {
           invoker.setParameters(nameVariation, pp);
+          variants++;
           T resolved;
           try {
             resolved = invoker.call();
@@ -214,6 +220,7 @@ public class OrderedPropertiesResolver extends PropertiesProviderBase
             resolved = null;
           }
           if (resolved != null) {
+            lookedUp(event, start, name, type, variants);
             return resolved;
           } else {
             // Only if allow prefixing - doesn't start with default
@@ -223,15 +230,19 @@ public class OrderedPropertiesResolver extends PropertiesProviderBase
               final String prefix = startWithDefaultPrefix(nameVariation);
               if (prefix != null) {
                 // If starts with a default prefix, try resolving without the prefix
+                variants++;
                 resolved = tryResolve(invoker, pp, nameVariation.substring(prefix.length()));
                 if (resolved != null) {
+                  lookedUp(event, start, name, type, variants);
                   return resolved;
                 }
               }
               // If couldn't resolve with the default prefix, try all default prefixes
               for (final String defaultPrefixes : this.defaultPrefixes) {
+                variants++;
                 resolved = tryResolve(invoker, pp, defaultPrefixes + nameVariation);
                 if (resolved != null) {
+                  lookedUp(event, start, name, type, variants);
                   return resolved;
                 }
               }
@@ -240,9 +251,21 @@ public class OrderedPropertiesResolver extends PropertiesProviderBase
         }
       }
     }
+    lookedUp(event, start, name, null, variants);
     return null;
   }
 
+  private static void lookedUp(final Object event, final long start, final String name, final String type,
+      final int variants) {
+    FlightRecorderEvents.endLookup(event, name, type, variants);
+    if (type != null) {
+      Metrics.increment(Metrics.LOOKUP_HITS, type);
+    } else {
+      Metrics.increment(Metrics.LOOKUP_MISSES);
+    }
+    Metrics.record(Metrics.LOOKUP_TIME, start);
+  }
+
   private static <T> T tryResolve(
       final TypedInvoker<T> invoker,
       final PropertiesProvider pp,
@@ -280,6 +303,7 @@ public class OrderedPropertiesResolver extends PropertiesProviderBase
 
   @Override
   public boolean isSet(final String qualifiedName) {
+    read(qualifiedName);
     try {
       // Use iterateAndGet to make sure we go through same code-path as getProperty()
       // and try all prefixes...
@@ -376,6 +400,10 @@ public class OrderedPropertiesResolver extends PropertiesProviderBase
   private final ConcurrentMap<String, ModifiableImpl<Object>> resolvedProperties =
       new ConcurrentHashMap<>();
 
+  // Names of the properties read while a recording is running, on any thread, see PropertyReads
+  private final Set<String> readNames = ConcurrentHashMap.newKeySet();
+  private volatile int recordings;
+
   private void reloadResolvedProperties() {
     for (final Map.Entry<String, ModifiableImpl<Object>> entry : this.resolvedProperties
         .entrySet()) {
@@ -402,7 +430,41 @@ public class OrderedPropertiesResolver extends PropertiesProviderBase
     }
   }
 
+  /**
+   * @return number of properties resolved as modifiable values, all of which get re-resolved on every reload
+   */
+  public int getResolvedPropertiesCount() {
+    return this.resolvedProperties.size();
+  }
+
+  private void read(final String qualifiedName) {
+    if (this.recordings > 0) {
+      this.readNames.add(qualifiedName);
+    }
+  }
+
+  synchronized void startRecording() {
+    this.recordings++;
+  }
+
+  synchronized void stopRecording() {
+    if (--this.recordings == 0) {
+      this.readNames.clear();
+    }
+  }
+
+  /**
+   * @return names of the properties read while recording and of those resolved as modifiable values, which are kept
+   *         for reloading anyway
+   */
+  Set<String> getReadNames() {
+    final Set<String> names = new HashSet<>(this.readNames);
+    names.addAll(this.resolvedProperties.keySet());
+    return names;
+  }
+
   public ModifiableImpl<?> resolveModifiable(final String qualifiedName) {
+    read(qualifiedName);
     final ModifiableImpl<Object> previouslyResolved = this.resolvedProperties.get(qualifiedName);
 
     if (previouslyResolved != null) {
@@ -425,6 +487,7 @@ public class OrderedPropertiesResolver extends PropertiesProviderBase
   @Override
   public Object getProperty(final String qualifiedName)
       throws ConfigurationItemNotDefinedException {
+    read(qualifiedName);
     Object res = null;
     res = iterateAndGet(qualifiedName, new TypedInvoker<Object>() {
       @Override
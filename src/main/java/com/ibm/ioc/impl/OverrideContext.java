@@ -0,0 +1,137 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
+
+/**
+ * Immutable set of interface overrides. Contexts are interned, so equal override sets are the same object with a hash
+ * computed once, and caches keyed by them are cheap to probe.
+ */
+final class OverrideContext extends AbstractMap<Class<?>, String> {
+  private static final Interner<OverrideContext> interner = Interners.newWeakInterner();
+
+  static final OverrideContext EMPTY = interner.intern(new OverrideContext(Collections.emptyMap()));
+
+  private final Map<Class<?>, String> overrides;
+  private final int hash;
+  // Values factories derived from this context, weakly keyed so that they go away with this context or their owner
+  private volatile ConcurrentMap<Object, Object> memos;
+
+  private OverrideContext(final Map<Class<?>, String> overrides) {
+    this.overrides = overrides;
+    this.hash = overrides.hashCode();
+  }
+
+  /**
+   * @param overrides any override map
+   * @return the canonical context with the same overrides
+   */
+  static OverrideContext of(final Map<Class<?>, String> overrides) {
+    if (overrides instanceof OverrideContext) {
+      return (OverrideContext) overrides;
+    }
+    if (overrides.isEmpty()) {
+      return EMPTY;
+    }
+    return interner.intern(new OverrideContext(Collections.unmodifiableMap(new HashMap<>(overrides))));
+  }
+
+  /**
+   * @param additions overrides taking precedence over these
+   * @return the canonical context with both
+   */
+  OverrideContext with(final Map<Class<?>, String> additions) {
+    if (additions.isEmpty()) {
+      return this;
+    }
+    if (isEmpty()) {
+      return of(additions);
+    }
+    final Map<Class<?>, String> combined = new HashMap<>(this.overrides);
+    combined.putAll(additions);
+    return interner.intern(new OverrideContext(Collections.unmodifiableMap(combined)));
+  }
+
+  /**
+   * @param key owner of the value, compared by identity
+   * @return value stored by {@link #putMemo(Object, Object)}, null if none
+   */
+  Object getMemo(final Object key) {
+    final ConcurrentMap<Object, Object> memos = this.memos;
+    return memos == null ? null : memos.get(key);
+  }
+
+  /**
+   * @param key owner of the value, compared by identity and weakly referenced
+   * @param value derived from this context
+   */
+  void putMemo(final Object key, final Object value) {
+    ConcurrentMap<Object, Object> memos = this.memos;
+    if (memos == null) {
+      synchronized (this) {
+        memos = this.memos;
+        if (memos == null) {
+          memos = new MapMaker().weakKeys().makeMap();
+          this.memos = memos;
+        }
+      }
+    }
+    memos.put(key, value);
+  }
+
+  @Override
+  public String get(final Object key) {
+    return this.overrides.get(key);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return this.overrides.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return this.overrides.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.overrides.isEmpty();
+  }
+
+  @Override
+  public Set<Entry<Class<?>, String>> entrySet() {
+    return this.overrides.entrySet();
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof OverrideContext) {
+      final OverrideContext other = (OverrideContext) obj;
+      return this.hash == other.hash && this.overrides.equals(other.overrides);
+    }
+    return this.overrides.equals(obj);
+  }
+}
@@ -0,0 +1,51 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ibm.ioc.ObjectInitializationException;
+import com.ibm.ioc.ObjectInstantiationException;
+import com.ibm.ioc.Pool;
+
+/**
+ * Keeps a bounded {@link Pool} per set of overrides. References to a pooled binding are given the pool rather than an
+ * instance, see {@link ProxyEvaluator}.
+ */
+public class PooledImplementationFactory<T> extends ScopedImplementationFactory<T> {
+  private final int maxSize;
+  private final ConcurrentMap<OverrideContext, Pool<T>> pools = new ConcurrentHashMap<>();
+
+  public PooledImplementationFactory(final ImplementationFactory<T> factory,
+      final Map<Class<?>, String> implOverrides, final int maxSize) {
+    super(factory, implOverrides);
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Pool size must be positive, got " + maxSize);
+    }
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @param overrides of the caller
+   * @return the pool shared by everyone with the same overrides
+   */
+  public Pool<T> getPool(final Map<Class<?>, String> overrides) {
+    return this.pools.computeIfAbsent(combine(overrides),
+        context -> new BoundedPool<>(this.factory, context, this.maxSize));
+  }
+
+  /**
+   * Creates an instance outside of the pool, so that code walking all bindings doesn't drain it
+   */
+  @Override
+  public T initialize(final Map<Class<?>, String> overrides)
+      throws ObjectInstantiationException, ObjectInitializationException {
+    return this.factory.initialize(combine(overrides));
+  }
+}
@@ -0,0 +1,103 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.ibm.ioc.ConfigurationItemNotDefinedException;
+import com.ibm.ioc.PropertiesResolverFactory;
+
+/**
+ * Properties read through the resolver, for results kept across boots as long as none of them changes. Only digests of
+ * the values are written, so that secrets don't end up in such files.
+ */
+public final class PropertyReads {
+  private PropertyReads() {}
+
+  /**
+   * Starts keeping the names of the properties read on any thread, until the matching {@link #stop()}
+   */
+  public static void start() {
+    PropertiesResolverFactory.getInstance().startRecording();
+  }
+
+  /**
+   * Ends what {@link #start()} started, the names are dropped once no recording is running
+   */
+  public static void stop() {
+    PropertiesResolverFactory.getInstance().stopRecording();
+  }
+
+  /**
+   * @return names of the properties read while recording, and of all properties resolved as modifiable values
+   */
+  public static Set<String> getNames() {
+    return PropertiesResolverFactory.getInstance().getReadNames();
+  }
+
+  /**
+   * @param out to write to
+   * @param names of the properties whose current values to write digests of
+   */
+  public static void write(final DataOutput out, final Collection<String> names) throws IOException {
+    final Collection<String> sortedNames = new TreeSet<>(names);
+    out.writeInt(sortedNames.size());
+    for (final String name : sortedNames) {
+      out.writeUTF(name);
+      out.writeUTF(digest(name));
+    }
+  }
+
+  /**
+   * Reads all that {@link #write(DataOutput, Collection)} wrote
+   *
+   * @param in to read from
+   * @return name of a property whose value changed since, null if none did
+   */
+  public static String findChanged(final DataInput in) throws IOException {
+    String changed = null;
+    final int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      final String name = in.readUTF();
+      final String valueDigest = in.readUTF();
+      if (changed == null && !valueDigest.equals(digest(name))) {
+        changed = name;
+      }
+    }
+    return changed;
+  }
+
+  private static String digest(final String name) {
+    Object value;
+    try {
+      value = PropertiesResolverFactory.getInstance().getProperty(name);
+    } catch (final ConfigurationItemNotDefinedException e) {
+      value = null;
+    }
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    // an unset property differs from any value
+    digest.update((value == null ? "unset" : "set:" + value).getBytes(StandardCharsets.UTF_8));
+    final StringBuilder sb = new StringBuilder();
+    for (final byte b : digest.digest()) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,28 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.util.Map;
+
+import com.ibm.ioc.ObjectInitializationException;
+import com.ibm.ioc.ObjectInstantiationException;
+
+/**
+ * Creates a new instance on every call, going straight to the wrapped factory with a cached override context
+ */
+public class PrototypeImplementationFactory<T> extends ScopedImplementationFactory<T> {
+  public PrototypeImplementationFactory(final ImplementationFactory<T> factory,
+      final Map<Class<?>, String> implOverrides) {
+    super(factory, implOverrides);
+  }
+
+  @Override
+  public T initialize(final Map<Class<?>, String> overrides)
+      throws ObjectInstantiationException, ObjectInitializationException {
+    return this.factory.initialize(combine(overrides));
+  }
+}
@@ -62,7 +62,11 @@ public class ProxyEvaluator implements DelayedEvaluator {
   private Object evaluateImpl(final Map<Class<?>, String> overrides)
       throws ObjectInitializationException {
     try {
-      return getImplementationFactory(overrides).initialize(overrides);
+      final ImplementationFactory<?> implementationFactory = getImplementationFactory(overrides);
+      if (implementationFactory instanceof PooledImplementationFactory) {
+        return ((PooledImplementationFactory<?>) implementationFactory).getPool(overrides);
+      }
+      return implementationFactory.initialize(overrides);
     } catch (final ObjectInstantiationException e) {
       throw new ObjectInitializationException("Invalid binding reference: " + toString(), e);
     } catch (final ConfigurationItemNotDefinedException e) {
@@ -34,6 +34,8 @@ import java.util.stream.Collectors;
 import com.ibm.ioc.Annotations.RequireParameterBinding;
 import com.ibm.ioc.ObjectInitializationException;
 import com.ibm.ioc.TypeUtils;
+import com.ibm.ioc.parsers.PrimitiveArrayParser;
+import com.ibm.ioc.util.StartupProfiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -131,6 +133,7 @@ public class ReferenceEvaluator<T> implements Evaluatable {
       // Evaluate the parameter and set it on the referenced object
       Object paramEval = null;
 
+      final StartupProfiler.Frame resolve = StartupProfiler.enter(StartupProfiler.RESOLVE_PARAMETERS);
       try {
         paramEval = param.evaluate(overrides);
       } catch (final ObjectInitializationException e) {
@@ -138,10 +141,13 @@ public class ReferenceEvaluator<T> implements Evaluatable {
         logAndAct(param, "Exception evaluating parameter " + param.getName() + " for "
             + this.referenced.getClass().getName(), e, false);
         continue;
+      } finally {
+        StartupProfiler.exit(resolve);
       }
 
       final StringBuilder parameterDescription = new StringBuilder();
 
+      final StartupProfiler.Frame inject = StartupProfiler.enter(StartupProfiler.INJECT);
       try {
         try {
           tryCallMethod(param, paramEval, parameterDescription);
@@ -165,6 +171,8 @@ public class ReferenceEvaluator<T> implements Evaluatable {
         logAndAct(param, "Failed to set parameter " + param.getName() + " while configuring "
             + this.referenced.getClass().getName() + " Details: " + parameterDescription, ex,
             true);
+      } finally {
+        StartupProfiler.exit(inject);
       }
     }
   }
@@ -183,9 +191,13 @@ public class ReferenceEvaluator<T> implements Evaluatable {
         // Found a proper method with a single argument
         final Type type = method.getGenericParameterTypes()[0];
         final Type defaultType = getDefaultType();
-        final Modifiable<Object> mutableParam =
-            ModifiableUtils.createModifiable(defaultType == null ? type : defaultType,
-                paramEval);
+        final Modifiable<Object> mutableParam;
+        final StartupProfiler.Frame convert = StartupProfiler.enter(StartupProfiler.CONVERT);
+        try {
+          mutableParam = ModifiableUtils.createModifiable(defaultType == null ? type : defaultType, paramEval);
+        } finally {
+          StartupProfiler.exit(convert);
+        }
 
         this.uncalledRequiredSetterMethods.remove(method.getName());
 
@@ -347,8 +359,13 @@ public class ReferenceEvaluator<T> implements Evaluatable {
     }
 
     // method scalar and parameter scalar
-    final Object scalarValue =
-        convertToType(defaultType == null ? type : defaultType, paramEval);
+    final Object scalarValue;
+    final StartupProfiler.Frame convert = StartupProfiler.enter(StartupProfiler.CONVERT);
+    try {
+      scalarValue = convertToType(defaultType == null ? type : defaultType, paramEval);
+    } finally {
+      StartupProfiler.exit(convert);
+    }
     if (scalarValue != null) {
       describeScalarParameter(paramEval.toString(), parameterDescription, rawType);
       try {
@@ -379,7 +396,7 @@ public class ReferenceEvaluator<T> implements Evaluatable {
     parameterDescription.append(typeStr).append(":").append(scalarValueDescription);
   }
 
-  private Object checkAndCreateSupplierIfPossible(final Type type, final Class<?> rawType,
+  private static Object checkAndCreateSupplierIfPossible(final Type type, final Class<?> rawType,
       final Object originalValue) {
     // We create our own suppliers only for .prop, which are always Modifiable
     // .ref and .set will be evaluated on their own as direct matches
@@ -440,7 +457,7 @@ public class ReferenceEvaluator<T> implements Evaluatable {
   }
 
   @SuppressWarnings("unchecked")
-  private Object convertToType(final Type type, final Object originalValue) {
+  static Object convertToType(final Type type, final Object originalValue) {
     Object typedValue = null;
     if (originalValue == null) {
       return null;
@@ -485,13 +502,22 @@ public class ReferenceEvaluator<T> implements Evaluatable {
     return typedValue;
   }
 
-  private Object assignScalarOrArray(
+  private static Object assignScalarOrArray(
       final Class<?> rawType,
       final Object actualValue) {
     final Object typedValue;
     if (TypeUtils.isAssignableFrom(rawType, actualValue.getClass())) {
       typedValue = actualValue;
-    } else if (actualValue.getClass().isArray()) {
+    } else if (PrimitiveArrayParser.isSupported(rawType) && actualValue instanceof Object[]) {
+      // int[], long[], double[] and their immutable views are filled directly, without Array.set();
+      // elements it doesn't understand (e.g. hex strings) still go through the generic conversion
+      final Object primitiveArray = PrimitiveArrayParser.convert(rawType, (Object[]) actualValue);
+      if (primitiveArray == null && rawType.isArray()) {
+        typedValue = makeTypedArray((Object[]) actualValue, rawType.getComponentType());
+      } else {
+        typedValue = primitiveArray;
+      }
+    } else if (actualValue instanceof Object[] && rawType.isArray()) {
       typedValue = makeTypedArray((Object[]) actualValue, rawType.getComponentType());
     } else {
       typedValue = null;
@@ -499,7 +525,7 @@ public class ReferenceEvaluator<T> implements Evaluatable {
     return typedValue;
   }
 
-  private Object makeTypedArray(
+  private static Object makeTypedArray(
       final Object[] param,
       final Class<?> componentType) {
     final Object arrayType = Array.newInstance(componentType, param.length);
@@ -0,0 +1,120 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.ibm.ioc.Scope;
+
+/**
+ * Base of the binding scopes, handing out instances the wrapped factory creates with the overrides of the binding on
+ * top of those of the caller. Scopes other than singletons keep instances per combined override context rather than
+ * per required overrides, so an override an instance doesn't depend on still separates instances; it only costs an
+ * extra one.
+ */
+public abstract class ScopedImplementationFactory<T> implements ImplementationFactory<T> {
+  protected final ImplementationFactory<T> factory;
+  private final OverrideContext implOverrides;
+  // Key of the combined contexts, memoized on the contexts combined
+  private final Object combinedKey = new Object();
+
+  protected ScopedImplementationFactory(final ImplementationFactory<T> factory,
+      final Map<Class<?>, String> implOverrides) {
+    this.factory = factory;
+    this.implOverrides = OverrideContext.of(implOverrides);
+  }
+
+  /**
+   * @param scope of the binding
+   * @param factory creating new instances
+   * @param implOverrides overrides of the binding
+   * @param poolSize maximum instances of a {@link Scope#POOLED} binding
+   * @return factory handing out instances as the scope says
+   */
+  public static <T> ImplementationFactory<T> create(
+      final Scope scope,
+      final ImplementationFactory<T> factory,
+      final Map<Class<?>, String> implOverrides,
+      final int poolSize) {
+    switch (scope) {
+      case PROTOTYPE:
+        return new PrototypeImplementationFactory<>(factory, implOverrides);
+      case THREAD_LOCAL:
+        return new ThreadLocalImplementationFactory<>(factory, implOverrides);
+      case POOLED:
+        return new PooledImplementationFactory<>(factory, implOverrides, poolSize);
+      case SOFT:
+        return new SoftImplementationFactory<>(factory, implOverrides);
+      case SINGLETON:
+      default:
+        return new SingletonImplementationFactory<>(factory, implOverrides);
+    }
+  }
+
+  protected final OverrideContext combine(final Map<Class<?>, String> overrides) {
+    final OverrideContext context = OverrideContext.of(overrides);
+    if (this.implOverrides.isEmpty()) {
+      return context;
+    }
+    final OverrideContext cached = (OverrideContext) context.getMemo(this.combinedKey);
+    if (cached != null) {
+      return cached;
+    }
+    final OverrideContext combined = context.with(this.implOverrides);
+    context.putMemo(this.combinedKey, combined);
+    return combined;
+  }
+
+  @Override
+  public Class<T> getImplementationClass(final Map<Class<?>, String> overrides) {
+    return this.factory.getImplementationClass(combine(overrides));
+  }
+
+  @Override
+  public List<NamedEvaluator> getParameters(final Map<Class<?>, String> overrides) {
+    return this.factory.getParameters(combine(overrides));
+  }
+
+  @Override
+  public Set<Class<?>> getDefaultRefs(final Map<Class<?>, String> overrides) {
+    final Map<Class<?>, String> combinedOverrides = combine(overrides);
+
+    final Set<Class<?>> set = new HashSet<>(this.factory.getDefaultRefs(combinedOverrides));
+    final Iterator<Class<?>> it = set.iterator();
+    // remove from set of defaults to be replaced by higher layers if it's replaced at this layer
+    while (it.hasNext()) {
+      if (combinedOverrides.containsKey(it.next())) {
+        it.remove();
+      }
+    }
+    return set;
+  }
+
+  @Override
+  public Map<Class<?>, String> getCombinedOverrides(final Map<Class<?>, String> overrides) {
+    return combine(overrides);
+  }
+
+  @Override
+  public String toString() {
+    return this.factory.toString();
+  }
+
+  @Override
+  public Map<Class<?>, String> getImplementedInterfaces() {
+    return this.factory.getImplementedInterfaces();
+  }
+
+  @Override
+  public void setImplementedInterfaces(final Map<Class<?>, String> interfaceMap) {
+    this.factory.setImplementedInterfaces(interfaceMap);
+  }
+}
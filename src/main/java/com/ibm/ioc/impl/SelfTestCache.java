@@ -0,0 +1,183 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Outcome of the last successful self test, so that a boot with the same code and configuration can skip it. Keyed by
+ * a fingerprint of the java-ioc version, the bindings and implementation class files and the strictness, and valid as
+ * long as the properties read through the resolver during the self test and those resolved as modifiable values still
+ * have the same values. Only digests of the values are stored.
+ */
+final class SelfTestCache {
+  private static final Logger _logger = LoggerFactory.getLogger(SelfTestCache.class);
+
+  private static final int MAGIC = 0x10C5E1F7;
+  private static final int VERSION = 1;
+
+  private SelfTestCache() {}
+
+  /**
+   * @param bindingsFingerprint digest of the definitions, null if unknown
+   * @param implementationClasses classes the factories instantiate
+   * @param strict whether invalid property values fail the self test
+   * @return fingerprint of the code under test, null if it can't be told and results mustn't be cached
+   */
+  static String fingerprint(
+      final String bindingsFingerprint,
+      final Collection<Class<?>> implementationClasses,
+      final boolean strict) {
+    if (bindingsFingerprint == null) {
+      return null;
+    }
+    final MessageDigest digest = newDigest();
+    update(digest, Integer.toString(VERSION));
+    update(digest, libraryVersion());
+    update(digest, bindingsFingerprint);
+    update(digest, Boolean.toString(strict));
+    final Map<String, Class<?>> classes = new TreeMap<>();
+    for (final Class<?> implementationClass : implementationClasses) {
+      classes.put(implementationClass.getName(), implementationClass);
+    }
+    final byte[] buf = new byte[4096];
+    for (final Class<?> implementationClass : classes.values()) {
+      update(digest, implementationClass.getName());
+      final String name = implementationClass.getName();
+      final URL classFile = implementationClass.getResource(name.substring(name.lastIndexOf('.') + 1) + ".class");
+      if (classFile == null) {
+        // generated or JDK classes, their name has to do
+        continue;
+      }
+      try (InputStream input = classFile.openStream()) {
+        int len;
+        while ((len = input.read(buf)) > 0) {
+          digest.update(buf, 0, len);
+        }
+      } catch (final IOException e) {
+        _logger.info("Failed to read class file of {}, self test results not cached", name);
+        return null;
+      }
+    }
+    return hex(digest.digest());
+  }
+
+  private static String libraryVersion() {
+    final String version = SelfTestCache.class.getPackage().getImplementationVersion();
+    if (version != null && !version.endsWith("-SNAPSHOT")) {
+      return version;
+    }
+    // development builds keep their version, tell them apart by when they were built
+    final CodeSource codeSource = SelfTestCache.class.getProtectionDomain().getCodeSource();
+    if (codeSource == null || !"file".equals(codeSource.getLocation().getProtocol())) {
+      return String.valueOf(version);
+    }
+    final File location = new File(codeSource.getLocation().getPath());
+    return version + "@" + location.lastModified();
+  }
+
+  /**
+   * @param file written by {@link #write(Path, String, Collection)}
+   * @param fingerprint of the code about to be tested
+   * @return true if the self test passed with this fingerprint and the same property values
+   */
+  static boolean matches(final Path file, final String fingerprint) {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        _logger.info("Ignoring self test cache {} of another format", file);
+        return false;
+      }
+      if (!fingerprint.equals(in.readUTF())) {
+        _logger.info("Bindings changed since the self test cached in {}", file);
+        return false;
+      }
+      final String changedProperty = PropertyReads.findChanged(in);
+      if (changedProperty != null) {
+        _logger.info("Property {} changed since the self test cached in {}", changedProperty, file);
+        return false;
+      }
+      return true;
+    } catch (final NoSuchFileException e) {
+      return false;
+    } catch (final IOException | RuntimeException e) {
+      _logger.warn("Ignoring unreadable self test cache " + file, e);
+      return false;
+    }
+  }
+
+  /**
+   * Writes next to the file first and then moves it over, so that a concurrent boot never reads half of it
+   *
+   * @param file to write to
+   * @param fingerprint of the code tested
+   * @param propertyNames properties the outcome depends on, their current values are digested
+   */
+  static void write(final Path file, final String fingerprint, final Collection<String> propertyNames)
+      throws IOException {
+    final Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    final Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(fingerprint);
+        PropertyReads.write(out, propertyNames);
+      }
+      try {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException e) {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void update(final MessageDigest digest, final String value) {
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+
+  private static String hex(final byte[] bytes) {
+    final StringBuilder sb = new StringBuilder();
+    for (final byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+}
@@ -6,97 +6,206 @@
 
 package com.ibm.ioc.impl;
 
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
+import com.google.common.collect.MapMaker;
 import com.ibm.ioc.ObjectInitializationException;
 import com.ibm.ioc.ObjectInstantiationException;
-
-public class SingletonImplementationFactory<T> implements ImplementationFactory<T> {
-  private final Map<Map<Class<?>, String>, T> instanceMap = new HashMap<>();
-  private final ImplementationFactory<T> factory;
-  private final Map<Class<?>, String> implOverrides;
-
-  public SingletonImplementationFactory(final ImplementationFactory<T> factory,
-      final Map<Class<?>, String> implOverrides) {
-    this.factory = factory;
-    this.implOverrides = Collections.unmodifiableMap(implOverrides);
+import com.ibm.ioc.metrics.Metrics;
+import com.ibm.ioc.util.FlightRecorderEvents;
+
+public class SingletonImplementationFactory<T> extends ScopedImplementationFactory<T> {
+  // Creation a thread is blocked on, across all singleton factories, used to detect cycles
+  private static final ConcurrentMap<Thread, Creation<?>> waitingFor = new ConcurrentHashMap<>();
+
+  // Bumped whenever a property overriding a default implementation changes
+  private static volatile long defaultRefsGeneration;
+  // Generation in which the default implementation of an interface changed last
+  private static final ConcurrentMap<Class<?>, Long> defaultRefChanges = new MapMaker().weakKeys().makeMap();
+
+  private final ConcurrentMap<OverrideContext, Creation<T>> instanceMap = new ConcurrentHashMap<>();
+  // Key of the overrides this factory requires, memoized on the combined contexts
+  private final Object requiredKey = new Object();
+
+  /**
+   * Instance for one set of overrides, built once by the thread that registered it while other threads wait
+   */
+  private static final class Creation<T> {
+    final CompletableFuture<T> instance = new CompletableFuture<>();
+    final Thread owner = Thread.currentThread();
+    final String description;
+
+    Creation(final String description) {
+      this.description = description;
+    }
   }
 
-  @Override
-  public Class<T> getImplementationClass(final Map<Class<?>, String> overrides) {
-    return this.factory.getImplementationClass(getCombinedOverrides(overrides));
+  /**
+   * Overrides an instance depends on, out of a combined context, as of a default refs generation
+   */
+  private static final class RequiredOverrides {
+    volatile long generation;
+    // Interfaces resolved to their default implementation, only a change to one of them invalidates the overrides
+    final Set<Class<?>> defaultRefs;
+    final OverrideContext overrides;
+
+    RequiredOverrides(final long generation, final Set<Class<?>> defaultRefs, final OverrideContext overrides) {
+      this.generation = generation;
+      this.defaultRefs = defaultRefs;
+      this.overrides = overrides;
+    }
+
+    boolean isValid(final long currentGeneration) {
+      if (this.generation == currentGeneration) {
+        return true;
+      }
+      for (final Class<?> defaultRef : this.defaultRefs) {
+        final Long changed = defaultRefChanges.get(defaultRef);
+        if (changed != null && changed > this.generation) {
+          return false;
+        }
+      }
+      this.generation = currentGeneration;
+      return true;
+    }
   }
 
-  @Override
-  public List<NamedEvaluator> getParameters(final Map<Class<?>, String> overrides) {
-    return this.factory.getParameters(getCombinedOverrides(overrides));
+  public SingletonImplementationFactory(final ImplementationFactory<T> factory,
+      final Map<Class<?>, String> implOverrides) {
+    super(factory, implOverrides);
   }
 
   @Override
   public final T initialize(final Map<Class<?>, String> overrides)
       throws ObjectInstantiationException, ObjectInitializationException {
-    final Map<Class<?>, String> combinedOverrides = getCombinedOverrides(overrides);
+    final OverrideContext combinedOverrides = combine(overrides);
+    final OverrideContext requiredOverrides = getRequiredOverrides(combinedOverrides);
 
-    final Map<Class<?>, String> requiredOverrides = new HashMap<>();
-    if (!combinedOverrides.isEmpty()) { // bypass traversing entire tree for most cases
-      final Set<Class<?>> set = this.factory.getDefaultRefs(combinedOverrides);
-      set.forEach(cls -> {
-        if (combinedOverrides.containsKey(cls)) {
-          requiredOverrides.put(cls, combinedOverrides.get(cls));
-        }
-      });
-    }
-    if (!this.instanceMap.containsKey(requiredOverrides)) {
-      synchronized (this) {
-        if (!this.instanceMap.containsKey(requiredOverrides)) {
-          this.instanceMap.put(requiredOverrides, this.factory.initialize(combinedOverrides));
-        }
+    final Creation<T> existing = this.instanceMap.get(requiredOverrides);
+    if (existing != null) {
+      if (existing.instance.isDone() && !existing.instance.isCompletedExceptionally()) {
+        return existing.instance.join();
       }
+      return await(existing);
     }
-
-    return this.instanceMap.get(requiredOverrides);
+    final Creation<T> created = new Creation<>(this.factory + " with " + requiredOverrides);
+    final Creation<T> previous = this.instanceMap.putIfAbsent(requiredOverrides, created);
+    if (previous != null) {
+      return await(previous);
+    }
+    return create(created, requiredOverrides, combinedOverrides);
   }
 
-  @Override
-  public Set<Class<?>> getDefaultRefs(final Map<Class<?>, String> overrides) {
-    final Map<Class<?>, String> combinedOverrides = getCombinedOverrides(overrides);
-
-    final Set<Class<?>> set = new HashSet<>(this.factory.getDefaultRefs(combinedOverrides));
-    final Iterator<Class<?>> it = set.iterator();
-    // remove from set of defaults to be replaced by higher layers if it's replaced at this layer
-    while (it.hasNext()) {
-      if (combinedOverrides.containsKey(it.next())) {
-        it.remove();
-      }
+  private OverrideContext getRequiredOverrides(final OverrideContext combinedOverrides) {
+    if (combinedOverrides.isEmpty()) { // bypass traversing entire tree for most cases
+      return OverrideContext.EMPTY;
+    }
+    final long generation = defaultRefsGeneration;
+    final RequiredOverrides cached = (RequiredOverrides) combinedOverrides.getMemo(this.requiredKey);
+    if (cached != null && cached.isValid(generation)) {
+      return cached.overrides;
     }
-    return set;
+
+    final Map<Class<?>, String> requiredOverrides = new HashMap<>();
+    final Set<Class<?>> set = this.factory.getDefaultRefs(combinedOverrides);
+    set.forEach(cls -> {
+      if (combinedOverrides.containsKey(cls)) {
+        requiredOverrides.put(cls, combinedOverrides.get(cls));
+      }
+    });
+    final OverrideContext required = OverrideContext.of(requiredOverrides);
+    combinedOverrides.putMemo(this.requiredKey, new RequiredOverrides(generation, set, required));
+    return required;
   }
 
-  @Override
-  public Map<Class<?>, String> getCombinedOverrides(final Map<Class<?>, String> overrides) {
-    final Map<Class<?>, String> combinedOverrides = new HashMap<>(overrides);
-    combinedOverrides.putAll(this.implOverrides);
-    return combinedOverrides;
+  /**
+   * Forgets the default refs depending on the default implementation of an interface, for when it gets overridden
+   *
+   * @param interfaceClass interface whose default implementation changed
+   */
+  static synchronized void invalidateDefaultRefs(final Class<?> interfaceClass) {
+    // Recorded before the generation moves on, so that whoever sees the new generation sees the change as well
+    final long generation = defaultRefsGeneration + 1;
+    defaultRefChanges.put(interfaceClass, generation);
+    defaultRefsGeneration = generation;
   }
 
-  @Override
-  public String toString() {
-    return this.factory.toString();
+  /**
+   * @return number of times default refs were invalidated so far
+   */
+  static long getDefaultRefsGeneration() {
+    return defaultRefsGeneration;
   }
 
-  @Override
-  public Map<Class<?>, String> getImplementedInterfaces() {
-    return this.factory.getImplementedInterfaces();
+  private T create(
+      final Creation<T> created,
+      final OverrideContext requiredOverrides,
+      final OverrideContext combinedOverrides)
+      throws ObjectInstantiationException, ObjectInitializationException {
+    final T instance;
+    final Object event = FlightRecorderEvents.begin(FlightRecorderEvents.Kind.SINGLETON_CREATION);
+    final long start = Metrics.startTime();
+    try {
+      instance = this.factory.initialize(combinedOverrides);
+    } catch (ObjectInstantiationException | ObjectInitializationException | RuntimeException | Error e) {
+      // Let a later call try again, as if this one never happened
+      this.instanceMap.remove(requiredOverrides, created);
+      created.instance.completeExceptionally(e);
+      Metrics.increment(Metrics.SINGLETON_FAILURES);
+      throw e;
+    } finally {
+      FlightRecorderEvents.endSingletonCreation(event, this.factory, requiredOverrides);
+      Metrics.record(Metrics.SINGLETON_CREATION_TIME, start);
+    }
+    Metrics.increment(Metrics.SINGLETONS_CREATED);
+    created.instance.complete(instance);
+    return instance;
   }
 
-  @Override
-  public void setImplementedInterfaces(final Map<Class<?>, String> interfaceMap) {
-    this.factory.setImplementedInterfaces(interfaceMap);
+  private static <T> T await(final Creation<T> creation)
+      throws ObjectInstantiationException, ObjectInitializationException {
+    final Thread current = Thread.currentThread();
+    // Registered before looking for a cycle, so that of two threads closing one at least one sees it
+    waitingFor.put(current, creation);
+    try {
+      final StringBuilder path = new StringBuilder(creation.description);
+      Creation<?> next = creation;
+      for (int hops = 0; next != null && hops <= waitingFor.size(); hops++) {
+        if (next.owner == current) {
+          throw new ObjectInitializationException("Dependency cycle: " + path);
+        }
+        next = waitingFor.get(next.owner);
+        if (next != null) {
+          path.append(" -> ").append(next.description);
+        }
+      }
+
+      try {
+        return creation.instance.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ObjectInitializationException("Interrupted while waiting for " + creation.description, e);
+      } catch (final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof ObjectInstantiationException) {
+          throw (ObjectInstantiationException) cause;
+        } else if (cause instanceof ObjectInitializationException) {
+          throw (ObjectInitializationException) cause;
+        } else if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new ObjectInitializationException(cause);
+      }
+    } finally {
+      waitingFor.remove(current);
+    }
   }
 }
@@ -0,0 +1,63 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.ioc.ObjectInitializationException;
+import com.ibm.ioc.ObjectInstantiationException;
+
+/**
+ * Singleton held through a soft reference, so that a heavy object nobody currently uses can be reclaimed under memory
+ * pressure. It is created again on the next call.
+ */
+public class SoftImplementationFactory<T> extends ScopedImplementationFactory<T> {
+  private static final Logger _logger = LoggerFactory.getLogger(SoftImplementationFactory.class);
+
+  private final ConcurrentMap<OverrideContext, SoftInstance> instances = new ConcurrentHashMap<>();
+
+  private final class SoftInstance {
+    private volatile SoftReference<T> reference = new SoftReference<>(null);
+    private int created;
+
+    T get(final OverrideContext combinedOverrides)
+        throws ObjectInstantiationException, ObjectInitializationException {
+      T instance = this.reference.get();
+      if (instance == null) {
+        synchronized (this) {
+          instance = this.reference.get();
+          if (instance == null) {
+            instance = SoftImplementationFactory.this.factory.initialize(combinedOverrides);
+            this.reference = new SoftReference<>(instance);
+            if (this.created++ > 0) {
+              _logger.debug("Recreated {} after it was reclaimed", SoftImplementationFactory.this);
+            }
+          }
+        }
+      }
+      return instance;
+    }
+  }
+
+  public SoftImplementationFactory(final ImplementationFactory<T> factory,
+      final Map<Class<?>, String> implOverrides) {
+    super(factory, implOverrides);
+  }
+
+  @Override
+  public T initialize(final Map<Class<?>, String> overrides)
+      throws ObjectInstantiationException, ObjectInitializationException {
+    final OverrideContext combinedOverrides = combine(overrides);
+    return this.instances.computeIfAbsent(combinedOverrides, context -> new SoftInstance()).get(combinedOverrides);
+  }
+}
@@ -0,0 +1,40 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ibm.ioc.ObjectInitializationException;
+import com.ibm.ioc.ObjectInstantiationException;
+
+/**
+ * One instance per thread, created on the thread's first call
+ */
+public class ThreadLocalImplementationFactory<T> extends ScopedImplementationFactory<T> {
+  private final ConcurrentMap<OverrideContext, ThreadLocal<T>> instances = new ConcurrentHashMap<>();
+
+  public ThreadLocalImplementationFactory(final ImplementationFactory<T> factory,
+      final Map<Class<?>, String> implOverrides) {
+    super(factory, implOverrides);
+  }
+
+  @Override
+  public T initialize(final Map<Class<?>, String> overrides)
+      throws ObjectInstantiationException, ObjectInitializationException {
+    final OverrideContext combinedOverrides = combine(overrides);
+    final ThreadLocal<T> threadInstance =
+        this.instances.computeIfAbsent(combinedOverrides, context -> new ThreadLocal<>());
+    T instance = threadInstance.get();
+    if (instance == null) {
+      instance = this.factory.initialize(combinedOverrides);
+      threadInstance.set(instance);
+    }
+    return instance;
+  }
+}
@@ -0,0 +1,18 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.metrics;
+
+/**
+ * Monotonic count of events
+ */
+public interface Counter {
+  void add(long delta);
+
+  default void increment() {
+    add(1);
+  }
+}
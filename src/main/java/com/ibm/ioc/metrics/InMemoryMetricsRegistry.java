@@ -0,0 +1,92 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps all metrics in memory for {@link #snapshot()}, for tests and for applications without a metrics library
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+  private static final Logger _logger = LoggerFactory.getLogger(InMemoryMetricsRegistry.class);
+
+  private final ConcurrentMap<String, InMemoryCounter> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, InMemoryTimer> timers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+  private static final class InMemoryCounter implements Counter {
+    private final LongAdder count = new LongAdder();
+
+    @Override
+    public void add(final long delta) {
+      this.count.add(delta);
+    }
+  }
+
+  private static final class InMemoryTimer implements Timer {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void record(final long nanos) {
+      this.count.increment();
+      this.totalNanos.add(nanos);
+      this.maxNanos.accumulate(nanos);
+    }
+  }
+
+  @Override
+  public Counter counter(final String name) {
+    return this.counters.computeIfAbsent(name, key -> new InMemoryCounter());
+  }
+
+  @Override
+  public Timer timer(final String name) {
+    return this.timers.computeIfAbsent(name, key -> new InMemoryTimer());
+  }
+
+  @Override
+  public void gauge(final String name, final LongSupplier value) {
+    this.gauges.put(name, value);
+  }
+
+  @Override
+  public MetricsSnapshot snapshot() {
+    final Map<String, Long> counterValues = new HashMap<>();
+    this.counters.forEach((name, counter) -> counterValues.put(name, counter.count.sum()));
+    final Map<String, MetricsSnapshot.TimerValue> timerValues = new HashMap<>();
+    this.timers.forEach((name, timer) -> timerValues.put(name, new MetricsSnapshot.TimerValue(
+        timer.count.sum(), timer.totalNanos.sum(), timer.maxNanos.get())));
+    final Map<String, Long> gaugeValues = new HashMap<>();
+    this.gauges.forEach((name, gauge) -> {
+      try {
+        gaugeValues.put(name, gauge.getAsLong());
+      } catch (final RuntimeException e) {
+        _logger.debug("Skipping gauge " + name, e);
+      }
+    });
+    return new MetricsSnapshot(counterValues, timerValues, gaugeValues);
+  }
+
+  /**
+   * Forgets all counts and durations, gauges stay
+   */
+  public void reset() {
+    this.counters.clear();
+    this.timers.clear();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.metrics;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry the configuration subsystem reports to, the first {@link MetricsRegistry} service found or else
+ * {@link NoopMetricsRegistry}. While the no-op registry is in use every method here is a single volatile read.
+ *
+ * <pre>
+ * final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+ * Metrics.setRegistry(registry);
+ * ...
+ * registry.snapshot().getCounter(Metrics.SINGLETONS_CREATED);
+ * </pre>
+ */
+public final class Metrics {
+  private static final Logger _logger = LoggerFactory.getLogger(Metrics.class);
+
+  /** Property lookups found, followed by the announced type of the provider they were found in */
+  public static final String LOOKUP_HITS = "ioc.properties.lookup.hits";
+  public static final String LOOKUP_MISSES = "ioc.properties.lookup.misses";
+  public static final String LOOKUP_TIME = "ioc.properties.lookup.time";
+  /** Properties with a cached modifiable value */
+  public static final String RESOLVED_PROPERTIES = "ioc.properties.resolved";
+  public static final String CONVERSIONS = "ioc.conversions";
+  public static final String CONVERSION_FAILURES = "ioc.conversions.failures";
+  public static final String CONVERSION_TIME = "ioc.conversions.time";
+  public static final String RELOADS = "ioc.reloader.reloads";
+  public static final String RELOAD_CYCLE_TIME = "ioc.reloader.cycle.time";
+  public static final String WATCHED_FILES = "ioc.reloader.watched";
+  public static final String NOTIFICATIONS = "ioc.listeners.notifications";
+  /** Listeners notified over all notifications, the mean fan-out together with {@link #NOTIFICATIONS} */
+  public static final String LISTENERS_NOTIFIED = "ioc.listeners.notified";
+  public static final String NOTIFICATION_TIME = "ioc.listeners.notification.time";
+  public static final String SINGLETONS_CREATED = "ioc.singletons.created";
+  public static final String SINGLETON_FAILURES = "ioc.singletons.failures";
+  public static final String SINGLETON_CREATION_TIME = "ioc.singletons.creation.time";
+  public static final String BINDINGS_MAP_LOOKUPS = "ioc.bindings-map.lookups";
+  public static final String BINDINGS_MAP_MISSES = "ioc.bindings-map.misses";
+
+  private static volatile MetricsRegistry registry = loadRegistry();
+
+  // kept to hand over to the next registry set
+  private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+  private Metrics() {}
+
+  private static MetricsRegistry loadRegistry() {
+    try {
+      final Iterator<MetricsRegistry> it = ServiceLoader.load(MetricsRegistry.class).iterator();
+      if (it.hasNext()) {
+        final MetricsRegistry found = it.next();
+        _logger.info("Reporting configuration metrics to {}", found.getClass().getName());
+        return found;
+      }
+    } catch (final ServiceConfigurationError e) {
+      _logger.warn("Can't load metrics registry, metrics are not reported", e);
+    }
+    return NoopMetricsRegistry.INSTANCE;
+  }
+
+  public static MetricsRegistry getRegistry() {
+    return registry;
+  }
+
+  /**
+   * @param newRegistry to report to from now on, null for none; gauges registered so far are registered with it
+   */
+  public static synchronized void setRegistry(final MetricsRegistry newRegistry) {
+    final MetricsRegistry next = newRegistry != null ? newRegistry : NoopMetricsRegistry.INSTANCE;
+    gauges.forEach(next::gauge);
+    registry = next;
+  }
+
+  public static boolean isEnabled() {
+    return registry != NoopMetricsRegistry.INSTANCE;
+  }
+
+  public static void increment(final String name) {
+    final MetricsRegistry current = registry;
+    if (current != NoopMetricsRegistry.INSTANCE) {
+      current.counter(name).increment();
+    }
+  }
+
+  public static void increment(final String name, final String qualifier) {
+    final MetricsRegistry current = registry;
+    if (current != NoopMetricsRegistry.INSTANCE) {
+      current.counter(name + "." + qualifier).increment();
+    }
+  }
+
+  public static void add(final String name, final long delta) {
+    final MetricsRegistry current = registry;
+    if (current != NoopMetricsRegistry.INSTANCE) {
+      current.counter(name).add(delta);
+    }
+  }
+
+  /**
+   * @return start time to pass to {@link #record(String, long)}, 0 if nothing is timed
+   */
+  public static long startTime() {
+    return registry != NoopMetricsRegistry.INSTANCE ? System.nanoTime() : 0;
+  }
+
+  /**
+   * @param name of the timer
+   * @param startTime returned by {@link #startTime()}
+   */
+  public static void record(final String name, final long startTime) {
+    final MetricsRegistry current = registry;
+    if (startTime != 0 && current != NoopMetricsRegistry.INSTANCE) {
+      current.timer(name).record(System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * @param name of the gauge
+   * @param value read whenever the gauge is reported, by this registry and by any registry set later
+   */
+  public static synchronized void gauge(final String name, final LongSupplier value) {
+    gauges.put(name, value);
+    registry.gauge(name, value);
+  }
+
+  /**
+   * @return current value of every metric of the registry in use
+   */
+  public static MetricsSnapshot snapshot() {
+    return registry.snapshot();
+  }
+}
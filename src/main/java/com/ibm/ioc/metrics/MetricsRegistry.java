@@ -0,0 +1,39 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Where the configuration subsystem reports its metrics. Implementations are found through
+ * {@link java.util.ServiceLoader} or set with {@link Metrics#setRegistry(MetricsRegistry)}, and adapt to whatever
+ * metrics library the application uses. Metric names are dotted, starting with <code>ioc.</code>.
+ */
+public interface MetricsRegistry {
+  /**
+   * @param name of the counter
+   * @return the counter of that name, created on first use
+   */
+  Counter counter(String name);
+
+  /**
+   * @param name of the timer
+   * @return the timer of that name, created on first use
+   */
+  Timer timer(String name);
+
+  /**
+   * @param name of the gauge
+   * @param value read whenever the gauge is reported, replacing the gauge of that name if any
+   */
+  void gauge(String name, LongSupplier value);
+
+  /**
+   * @return current value of every metric, empty if the registry does not keep them
+   */
+  MetricsSnapshot snapshot();
+}
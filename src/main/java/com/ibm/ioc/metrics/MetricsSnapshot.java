@@ -0,0 +1,115 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.metrics;
+
+import java.util.Map;
+
+import com.google.common.collect.ImmutableSortedMap;
+
+/**
+ * Values of all metrics of a registry at one point in time, sorted by name
+ */
+public final class MetricsSnapshot {
+  public static final MetricsSnapshot EMPTY =
+      new MetricsSnapshot(ImmutableSortedMap.of(), ImmutableSortedMap.of(), ImmutableSortedMap.of());
+
+  /**
+   * Recorded durations of one timer
+   */
+  public static final class TimerValue {
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    public TimerValue(final long count, final long totalNanos, final long maxNanos) {
+      this.count = count;
+      this.totalNanos = totalNanos;
+      this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+      return this.count;
+    }
+
+    public long getTotalNanos() {
+      return this.totalNanos;
+    }
+
+    public long getMaxNanos() {
+      return this.maxNanos;
+    }
+
+    public double getMeanNanos() {
+      return this.count == 0 ? 0 : (double) this.totalNanos / this.count;
+    }
+
+    @Override
+    public String toString() {
+      return "count=" + this.count + " total=" + this.totalNanos + "ns max=" + this.maxNanos + "ns";
+    }
+  }
+
+  private final ImmutableSortedMap<String, Long> counters;
+  private final ImmutableSortedMap<String, TimerValue> timers;
+  private final ImmutableSortedMap<String, Long> gauges;
+
+  public MetricsSnapshot(final Map<String, Long> counters, final Map<String, TimerValue> timers,
+      final Map<String, Long> gauges) {
+    this.counters = ImmutableSortedMap.copyOf(counters);
+    this.timers = ImmutableSortedMap.copyOf(timers);
+    this.gauges = ImmutableSortedMap.copyOf(gauges);
+  }
+
+  public Map<String, Long> getCounters() {
+    return this.counters;
+  }
+
+  public Map<String, TimerValue> getTimers() {
+    return this.timers;
+  }
+
+  public Map<String, Long> getGauges() {
+    return this.gauges;
+  }
+
+  /**
+   * @param name of a counter
+   * @return its count, 0 if it was never incremented
+   */
+  public long getCounter(final String name) {
+    final Long count = this.counters.get(name);
+    return count != null ? count : 0;
+  }
+
+  /**
+   * @param name of a timer
+   * @return its durations, null if nothing was timed
+   */
+  public TimerValue getTimer(final String name) {
+    return this.timers.get(name);
+  }
+
+  /**
+   * @param name of a gauge
+   * @return its value, null if there is no such gauge
+   */
+  public Long getGauge(final String name) {
+    return this.gauges.get(name);
+  }
+
+  /**
+   * @return one line per metric, e.g. for a health endpoint
+   */
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    this.counters.forEach((name, value) -> sb.append("counter ").append(name).append(' ').append(value).append('\n'));
+    this.timers.forEach((name, value) -> sb.append("timer ").append(name).append(' ').append(value).append('\n'));
+    this.gauges.forEach((name, value) -> sb.append("gauge ").append(name).append(' ').append(value).append('\n'));
+    return sb.toString();
+  }
+}
@@ -0,0 +1,39 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Drops everything, the registry in use unless another one is configured
+ */
+public final class NoopMetricsRegistry implements MetricsRegistry {
+  public static final NoopMetricsRegistry INSTANCE = new NoopMetricsRegistry();
+
+  private static final Counter COUNTER = delta -> {};
+  private static final Timer TIMER = nanos -> {};
+
+  private NoopMetricsRegistry() {}
+
+  @Override
+  public Counter counter(final String name) {
+    return COUNTER;
+  }
+
+  @Override
+  public Timer timer(final String name) {
+    return TIMER;
+  }
+
+  @Override
+  public void gauge(final String name, final LongSupplier value) {}
+
+  @Override
+  public MetricsSnapshot snapshot() {
+    return MetricsSnapshot.EMPTY;
+  }
+}
@@ -0,0 +1,17 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.metrics;
+
+/**
+ * Count, total and maximum of durations
+ */
+public interface Timer {
+  /**
+   * @param nanos duration of one timed operation
+   */
+  void record(long nanos);
+}
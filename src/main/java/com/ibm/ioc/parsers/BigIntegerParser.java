@@ -20,8 +20,8 @@ public class BigIntegerParser {
     if (stringValue == null) {
       return null;
     }
-    final Long parsedLong = LongParser.parse(stringValue);
-    if (parsedLong != null) {
+    final long parsedLong = NumberParser.parseLong(stringValue, 0, stringValue.length());
+    if (parsedLong != NumberParser.NOT_A_NUMBER) {
       return BigInteger.valueOf(parsedLong);
     } else {
       try {
@@ -0,0 +1,161 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.parsers;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.ioc.impl.NamingHelper;
+
+/*
+ * Converts strings to enum constants. A value is matched as is, upper cased, lower cased and converted from a
+ * hyphenated name (some-mode -> SomeMode), in that order, first against the constant names and then against the
+ * enum's own static fromString(String) or decode(String) if it has them.
+ *
+ * Each enum class gets a lookup table built once, mapping the spellings of every constant to the constant. Other
+ * spellings that resolve are remembered too, so converting a value that was seen before is a single hash lookup.
+ */
+public final class EnumParser {
+  // Spellings that aren't derived from a constant name are remembered up to this many per constant
+  private static final int LEARNED_SPELLINGS_PER_CONSTANT = 4;
+
+  private static final ClassValue<Lookup> lookups = new ClassValue<Lookup>() {
+    @Override
+    protected Lookup computeValue(final Class<?> type) {
+      return new Lookup(type);
+    }
+  };
+
+  private EnumParser() {
+    // This is a utility class, and therefore should have no public constructor
+  }
+
+  /**
+   * @param enumType enum class
+   * @param value string to convert
+   * @return matching constant, null if there is none
+   */
+  public static <E extends Enum<E>> E parse(final Class<E> enumType, final String value) {
+    return enumType.cast(parseConstant(enumType, value));
+  }
+
+  /**
+   * Same as {@link #parse(Class, String)} for an enum class only known at runtime
+   *
+   * @param enumType enum class
+   * @param value string to convert
+   * @return matching constant, null if there is none
+   * @throws IllegalArgumentException if enumType is not an enum
+   */
+  public static Object parseConstant(final Class<?> enumType, final String value) {
+    if (!enumType.isEnum()) {
+      throw new IllegalArgumentException(enumType + " is not an enum");
+    }
+    if (value == null || value.isEmpty()) {
+      return null;
+    }
+    return lookups.get(enumType).find(value);
+  }
+
+  private static final class Lookup {
+    private final Map<String, Object> spellings = new ConcurrentHashMap<>();
+    private final Map<String, Object> names;
+    private final List<Method> factories = new ArrayList<>(2);
+    private final int maxSpellings;
+
+    Lookup(final Class<?> enumType) {
+      final Object[] constants = enumType.getEnumConstants();
+      final Map<String, Object> byName = new HashMap<>(constants.length * 2);
+      for (final Object constant : constants) {
+        byName.put(((Enum<?>) constant).name(), constant);
+      }
+      this.names = byName;
+
+      for (final String methodName : new String[] {"fromString", "decode"}) {
+        try {
+          final Method method = enumType.getMethod(methodName, String.class);
+          if (Modifier.isStatic(method.getModifiers()) && enumType.isAssignableFrom(method.getReturnType())) {
+            this.factories.add(method);
+          }
+        } catch (final NoSuchMethodException ignore) {
+          // Ignore
+        }
+      }
+
+      for (final Object constant : constants) {
+        final String name = ((Enum<?>) constant).name();
+        for (final String spelling : new String[] {name, name.toUpperCase(), name.toLowerCase()}) {
+          final Object resolved = resolveName(spelling);
+          if (resolved != null) {
+            this.spellings.putIfAbsent(spelling, resolved);
+          }
+        }
+      }
+      this.maxSpellings = this.spellings.size() + constants.length * LEARNED_SPELLINGS_PER_CONSTANT;
+    }
+
+    Object find(final String value) {
+      final Object known = this.spellings.get(value);
+      if (known != null) {
+        return known;
+      }
+      final Object resolved = resolveName(value);
+      if (resolved != null) {
+        if (this.spellings.size() < this.maxSpellings) {
+          this.spellings.put(value, resolved);
+        }
+        return resolved;
+      }
+      return resolveFactories(value);
+    }
+
+    private List<String> caseCandidates(final String value) {
+      final List<String> candidates = new ArrayList<>(4);
+      candidates.add(value);
+      candidates.add(value.toUpperCase());
+      candidates.add(value.toLowerCase());
+      candidates.add(NamingHelper.convertNameIntoJava(value, null, null, true));
+      return candidates;
+    }
+
+    private Object resolveName(final String value) {
+      for (final String candidate : caseCandidates(value)) {
+        final Object constant = this.names.get(candidate);
+        if (constant != null) {
+          return constant;
+        }
+      }
+      return null;
+    }
+
+    // User supplied conversions aren't remembered, they may depend on more than the spelling
+    private Object resolveFactories(final String value) {
+      if (this.factories.isEmpty()) {
+        return null;
+      }
+      final List<String> candidates = caseCandidates(value);
+      for (final Method factory : this.factories) {
+        for (final String candidate : candidates) {
+          try {
+            final Object constant = factory.invoke(null, candidate);
+            if (constant != null) {
+              return constant;
+            }
+          } catch (final Exception ignore) {
+            // Ignore
+          }
+        }
+      }
+      return null;
+    }
+  }
+}
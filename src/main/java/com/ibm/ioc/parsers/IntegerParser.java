@@ -7,8 +7,6 @@
 package com.ibm.ioc.parsers;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
@@ -22,66 +20,31 @@ import com.google.gson.stream.JsonWriter;
  */
 @SuppressWarnings("squid:S109")
 public final class IntegerParser {
-  private static final Map<String, Integer> units = new HashMap<>();
-
   private IntegerParser() {
     // This is a utility class, and therefore should have no public constructor
   }
 
-
-  static {
-    units.put("K", 1000);
-    units.put("M", 1000 * 1000);
-    units.put("KB", 1024);
-    units.put("MB", 1024 * 1024);
-    units.put("KIB", 1024);
-    units.put("MIB", 1024 * 1024);
-
-    units.put("MS", 1);
-    units.put("MSEC", 1);
-    units.put("MSECS", 1);
-    units.put("MILLI", 1);
-    units.put("MILLIS", 1);
-    units.put("S", 1000);
-    units.put("SEC", 1000);
-    units.put("SECS", 1000);
-    units.put("SECOND", 1000);
-    units.put("SECONDS", 1000);
-    units.put("MIN", 60 * 1000);
-    units.put("MINS", 60 * 1000);
-    units.put("MINUTE", 60 * 1000);
-    units.put("MINUTES", 60 * 1000);
-    units.put("HR", 60 * 60 * 1000);
-    units.put("HRS", 60 * 60 * 1000);
-    units.put("HOUR", 60 * 60 * 1000);
-    units.put("HOURS", 60 * 60 * 1000);
-    units.put("DAY", 24 * 60 * 60 * 1000);
-    units.put("DAYS", 24 * 60 * 60 * 1000);
-  }
-
   public static Integer parse(final String string) {
-    final NumberParser parse = NumberParser.parse(string);
-
-    if (parse.getNumber() == null || parse.getUnits() == null) {
-      // Number failed to parse, return null
+    if (string == null) {
       return null;
     }
+    final long value = NumberParser.parseInt(string, 0, string.length());
+    return value == NumberParser.NOT_A_NUMBER ? null : Integer.valueOf((int) value);
+  }
 
-    final Integer multiplier;
-    if (parse.getUnits().isEmpty()) {
-      multiplier = 1;
-    } else {
-      multiplier = units.get(parse.getUnits());
-      if (multiplier == null) {
-        return null;
-      }
-    }
-
-    if (parse.isDecimal()) {
-      return (int) (Double.valueOf(parse.getNumber()) * multiplier);
-    } else {
-      return Integer.valueOf(parse.getNumber()) * multiplier;
+  /**
+   * Same as {@link #parse(String)} without boxing the result
+   *
+   * @param string value with an optional unit
+   * @param defaultValue returned if string is null or not a number with a known unit
+   * @return parsed value
+   */
+  public static int parseInt(final String string, final int defaultValue) {
+    if (string == null) {
+      return defaultValue;
     }
+    final long value = NumberParser.parseInt(string, 0, string.length());
+    return value == NumberParser.NOT_A_NUMBER ? defaultValue : (int) value;
   }
 
   public static TypeAdapter<Integer> getGsonTypeAdapter() {
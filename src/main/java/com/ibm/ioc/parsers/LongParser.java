@@ -7,8 +7,6 @@
 package com.ibm.ioc.parsers;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
@@ -22,77 +20,31 @@ import com.google.gson.stream.JsonWriter;
  */
 @SuppressWarnings("squid:S109")
 public final class LongParser {
-  private static final Map<String, Long> units = new HashMap<>();
-
   private LongParser() {
     // This is a utility class, and therefore should have no public constructor
   }
 
-  static {
-    units.put("K", 1000L);
-    units.put("M", 1000L * 1000L);
-    units.put("G", 1000L * 1000L * 1000L);
-    units.put("T", 1000L * 1000L * 1000L * 1000L);
-    units.put("P", 1000L * 1000L * 1000L * 1000L * 1000L);
-    units.put("KB", 1024L);
-    units.put("MB", 1024L * 1024L);
-    units.put("GB", 1024L * 1024L * 1024L);
-    units.put("TB", 1024L * 1024L * 1024L * 1024L);
-    units.put("PB", 1024L * 1024L * 1024L * 1024L * 1024L);
-    units.put("KIB", 1024L);
-    units.put("MIB", 1024L * 1024L);
-    units.put("GIB", 1024L * 1024L * 1024L);
-    units.put("TIB", 1024L * 1024L * 1024L * 1024L);
-    units.put("PIB", 1024L * 1024L * 1024L * 1024L * 1024L);
-
-    units.put("MS", 1L);
-    units.put("MSEC", 1L);
-    units.put("MILLI", 1L);
-    units.put("MILLIS", 1L);
-    units.put("S", 1000L);
-    units.put("SEC", 1000L);
-    units.put("SECS", 1000L);
-    units.put("SECOND", 1000L);
-    units.put("SECONDS", 1000L);
-    units.put("MIN", 60L * 1000L);
-    units.put("MINS", 60L * 1000L);
-    units.put("MINUTE", 60L * 1000L);
-    units.put("MINUTES", 60L * 1000L);
-    units.put("HR", 60L * 60L * 1000L);
-    units.put("HRS", 60L * 60L * 1000L);
-    units.put("HOUR", 60L * 60L * 1000L);
-    units.put("HOURS", 60L * 60L * 1000L);
-    units.put("DAY", 24L * 60L * 60L * 1000L);
-    units.put("DAYS", 24L * 60L * 60L * 1000L);
-    units.put("WEEK", 7L * 24L * 60L * 60L * 1000L);
-    units.put("WEEKS", 7L * 24L * 60L * 60 * 1000L);
-    units.put("YEAR", 365L * 24 * 60L * 60L * 1000L);
-    units.put("YEARS", 365L * 24L * 60L * 60L * 1000L);
-  }
-
   public static Long parse(final String string) {
-    final NumberParser parse = NumberParser.parse(string);
-
-    if (parse.getNumber() == null || parse.getUnits() == null) {
-      // Number failed to parse, return null
+    if (string == null) {
       return null;
     }
+    final long value = NumberParser.parseLong(string, 0, string.length());
+    return value == NumberParser.NOT_A_NUMBER ? null : Long.valueOf(value);
+  }
 
-    final Long multiplier;
-    if (parse.getUnits().isEmpty()) {
-      multiplier = 1L;
-    } else {
-      multiplier = units.get(parse.getUnits());
-      if (multiplier == null) {
-        return null;
-      }
-    }
-
-    if (parse.isDecimal()) {
-      return (long) (Double.valueOf(parse.getNumber()) * multiplier);
-    } else {
-      return Long.valueOf(parse.getNumber()) * multiplier;
+  /**
+   * Same as {@link #parse(String)} without boxing the result
+   *
+   * @param string value with an optional unit
+   * @param defaultValue returned if string is null or not a number with a known unit
+   * @return parsed value
+   */
+  public static long parseLong(final String string, final long defaultValue) {
+    if (string == null) {
+      return defaultValue;
     }
+    final long value = NumberParser.parseLong(string, 0, string.length());
+    return value == NumberParser.NOT_A_NUMBER ? defaultValue : value;
   }
 
   public static TypeAdapter<Long> getGsonTypeAdapter() {
@@ -9,59 +9,286 @@ package com.ibm.ioc.parsers;
 /*
  * Allows to specify integer with known units of time or size Time units are always converted to milliseconds. <li> The
  * format should be look <number>unit, spaces are allowed
+ *
+ * Single pass scanner shared by IntegerParser, LongParser, BigIntegerParser and Size. Works on a region of the input,
+ * returns primitives and doesn't allocate on the success path. Units are looked up in a precomputed table keyed by the
+ * upper-cased unit name packed into a long.
  */
+@SuppressWarnings("squid:S109")
+public final class NumberParser {
+  /**
+   * Returned when the input is not a number with a known unit. Integer results never collide with it; a long result
+   * only does if the multiplication overflowed.
+   */
+  public static final long NOT_A_NUMBER = Long.MIN_VALUE;
 
+  private static final int INT_UNITS = 0;
+  private static final int LONG_UNITS = 1;
+  private static final int SIZE_UNITS = 2;
 
-public final class NumberParser {
+  private static final int MAX_UNIT_LENGTH = 7; // 8 bits per character in a long key
+  private static final int TABLE_SIZE = 256; // power of two, well above the number of units
+  private static final long[] unitKeys = new long[TABLE_SIZE];
+  private static final long[][] unitMultipliers = new long[TABLE_SIZE][];
+
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+      1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  static {
+    final long k = 1000L;
+    final long kib = 1024L;
+    final long sec = 1000L;
+    final long min = 60L * sec;
+    final long hour = 60L * min;
+    final long day = 24L * hour;
+
+    // name, int multiplier, long multiplier, size multiplier; 0 means the unit is not accepted there
+    unit("K", k, k, kib);
+    unit("M", k * k, k * k, kib * kib);
+    unit("G", 0, k * k * k, kib * kib * kib);
+    unit("T", 0, k * k * k * k, kib * kib * kib * kib);
+    unit("P", 0, k * k * k * k * k, kib * kib * kib * kib * kib);
+    for (final String suffix : new String[] {"B", "IB"}) {
+      unit("K" + suffix, kib, kib, kib);
+      unit("M" + suffix, kib * kib, kib * kib, kib * kib);
+      unit("G" + suffix, 0, kib * kib * kib, kib * kib * kib);
+      unit("T" + suffix, 0, kib * kib * kib * kib, kib * kib * kib * kib);
+      unit("P" + suffix, 0, kib * kib * kib * kib * kib, kib * kib * kib * kib * kib);
+    }
+
+    unit("MS", 1, 1, 0);
+    unit("MSEC", 1, 1, 0);
+    unit("MSECS", 1, 0, 0);
+    unit("MILLI", 1, 1, 0);
+    unit("MILLIS", 1, 1, 0);
+    for (final String name : new String[] {"S", "SEC", "SECS", "SECOND", "SECONDS"}) {
+      unit(name, sec, sec, 0);
+    }
+    for (final String name : new String[] {"MIN", "MINS", "MINUTE", "MINUTES"}) {
+      unit(name, min, min, 0);
+    }
+    for (final String name : new String[] {"HR", "HRS", "HOUR", "HOURS"}) {
+      unit(name, hour, hour, 0);
+    }
+    unit("DAY", day, day, 0);
+    unit("DAYS", day, day, 0);
+    unit("WEEK", 0, 7L * day, 0);
+    unit("WEEKS", 0, 7L * day, 0);
+    unit("YEAR", 0, 365L * day, 0);
+    unit("YEARS", 0, 365L * day, 0);
+  }
+
+  private NumberParser() {
+    // This is a utility class, and therefore should have no public constructor
+  }
+
+  private static void unit(final String name, final long intMultiplier, final long longMultiplier,
+      final long sizeMultiplier) {
+    final long key = unitKey(name, 0, name.length());
+    int slot = slot(key);
+    while (unitKeys[slot] != 0) {
+      slot = (slot + 1) & (TABLE_SIZE - 1);
+    }
+    unitKeys[slot] = key;
+    unitMultipliers[slot] = new long[] {intMultiplier, longMultiplier, sizeMultiplier};
+  }
+
+  private static int slot(final long key) {
+    final long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h >>> 56) & (TABLE_SIZE - 1);
+  }
+
+  // Upper-cased unit name packed into a long, 0 if it can't be a unit (too long or not a latin letter)
+  private static long unitKey(final CharSequence s, final int from, final int to) {
+    if (to - from > MAX_UNIT_LENGTH) {
+      return 0;
+    }
+    long key = 0;
+    for (int i = from; i < to; i++) {
+      final char c = Character.toUpperCase(s.charAt(i));
+      if (c < 'A' || c > 'Z') {
+        return 0;
+      }
+      key = (key << 8) | c;
+    }
+    return key;
+  }
+
+  // Multiplier for the unit in [from, to), 1 for no unit, 0 for an unknown unit
+  private static long multiplier(final CharSequence s, final int from, final int to, final int table) {
+    if (from == to) {
+      return 1;
+    }
+    final long key = unitKey(s, from, to);
+    if (key == 0) {
+      return 0;
+    }
+    int slot = slot(key);
+    while (unitKeys[slot] != 0) {
+      if (unitKeys[slot] == key) {
+        return unitMultipliers[slot][table];
+      }
+      slot = (slot + 1) & (TABLE_SIZE - 1);
+    }
+    return 0;
+  }
 
-  private static final NumberParser NO_NUMBER = new NumberParser(null, null, false);
-  private final String number;
-  private final String units;
-  private final boolean isDecimal;
+  /**
+   * Parses &lt;number&gt;[unit] as an int; decimals are truncated after applying the unit
+   *
+   * @param s input
+   * @param from start of the region, inclusive
+   * @param to end of the region, exclusive
+   * @return parsed value or {@link #NOT_A_NUMBER}
+   * @throws NumberFormatException if the number itself overflows or is a malformed decimal
+   */
+  public static long parseInt(final CharSequence s, final int from, final int to) {
+    return parse(s, from, to, INT_UNITS);
+  }
 
-  private NumberParser(final String number, final String units, final boolean isDecimal) {
-    this.number = number;
-    this.units = units;
-    this.isDecimal = isDecimal;
+  /**
+   * Parses &lt;number&gt;[unit] as a long; decimals are truncated after applying the unit
+   *
+   * @param s input
+   * @param from start of the region, inclusive
+   * @param to end of the region, exclusive
+   * @return parsed value or {@link #NOT_A_NUMBER}
+   * @throws NumberFormatException if the number itself overflows or is a malformed decimal
+   */
+  public static long parseLong(final CharSequence s, final int from, final int to) {
+    return parse(s, from, to, LONG_UNITS);
   }
 
-  static NumberParser parse(final String stringValue) {
-    if (stringValue == null) {
-      return NO_NUMBER;
+  private static long parse(final CharSequence s, final int from, final int to, final int table) {
+    int start = from;
+    int end = to;
+    // same as String.trim()
+    while (start < end && s.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && s.charAt(end - 1) <= ' ') {
+      end--;
     }
 
-    final String stringToParse = stringValue.toUpperCase().trim();
-    // Find the last digit
-    int index = 0;
+    int index = start;
     boolean decimal = false;
-    while (index < stringToParse.length()) {
-      if (stringToParse.charAt(index) == '.') {
+    while (index < end) {
+      final char c = s.charAt(index);
+      if (c == '.') {
         decimal = true;
-      } else if (!Character.isDigit(stringToParse.charAt(index))) {
+      } else if (!Character.isDigit(c)) {
         break;
       }
       index++;
     }
-    if (index == 0) {
+    if (index == start) {
       // No number
-      return NO_NUMBER;
+      return NOT_A_NUMBER;
+    }
+    final int numberEnd = index;
+    while (index < end && s.charAt(index) <= ' ') {
+      index++;
     }
 
-    final String multiplier = stringToParse.substring(index).trim();
-    return new NumberParser(stringToParse.substring(0, index), multiplier, decimal);
+    final long multiplier = multiplier(s, index, end, table);
+    if (multiplier == 0) {
+      return NOT_A_NUMBER;
+    }
+
+    if (decimal) {
+      final double value = parseDouble(s, start, numberEnd);
+      return table == INT_UNITS ? (int) (value * (int) multiplier) : (long) (value * multiplier);
+    } else if (table == INT_UNITS) {
+      // int arithmetic on purpose, overflowing units wrap exactly like Integer.valueOf(number) * multiplier did
+      return (int) parseDigits(s, start, numberEnd, Integer.MAX_VALUE) * (int) multiplier;
+    } else {
+      return parseDigits(s, start, numberEnd, Long.MAX_VALUE) * multiplier;
+    }
   }
 
-  public boolean isDecimal() {
-    return this.isDecimal;
+  /**
+   * Parses &lt;number&gt;[size unit] the way {@link com.ibm.ioc.Size} always has: units are binary, case insensitive
+   * and may only be separated from the number by spaces
+   *
+   * @param s input
+   * @param from start of the region, inclusive
+   * @param to end of the region, exclusive
+   * @return size in bytes
+   * @throws IllegalArgumentException if there is no number or the unit is unknown
+   */
+  public static long parseSize(final CharSequence s, final int from, final int to) {
+    int start = from;
+    int end = to;
+    while (start < end && s.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && s.charAt(end - 1) <= ' ') {
+      end--;
+    }
+
+    int index = start;
+    // while the character is a numerical value (0-9) or is a decimal point (.)
+    while (index != end
+        && ((s.charAt(index) >= '0' && s.charAt(index) <= '9') || s.charAt(index) == '.')) {
+      index++;
+    }
+    if (index == start) {
+      throw new IllegalArgumentException("Can't parse " + s.subSequence(start, end));
+    }
+    final double baseValue = parseDouble(s, start, index);
+    while (index != end && s.charAt(index) == ' ') {
+      index++;
+    }
+    final long multiplier = multiplier(s, index, end, SIZE_UNITS);
+    if (multiplier == 0) {
+      throw new IllegalArgumentException("Bad multiplier " + s.subSequence(index, end));
+    }
+    return (long) (multiplier * baseValue);
   }
 
-  public String getUnits() {
-    return this.units;
+  // Digits only, as Integer.valueOf()/Long.valueOf() would see them
+  private static long parseDigits(final CharSequence s, final int from, final int to, final long max) {
+    long result = 0;
+    for (int i = from; i < to; i++) {
+      final int digit = Character.digit(s.charAt(i), 10);
+      if (result > (max - digit) / 10) {
+        throw new NumberFormatException("For input string: \"" + s.subSequence(from, to) + "\"");
+      }
+      result = result * 10 + digit;
+    }
+    return result;
   }
 
-  public String getNumber() {
-    return this.number;
+  // Digits and dots. Short ascii decimals are exact as mantissa / 10^scale, anything else goes to the JDK
+  private static double parseDouble(final CharSequence s, final int from, final int to) {
+    long mantissa = 0;
+    int scale = -1;
+    int digits = 0;
+    for (int i = from; i < to; i++) {
+      final char c = s.charAt(i);
+      if (c == '.') {
+        if (scale >= 0) {
+          return Double.parseDouble(s.subSequence(from, to).toString());
+        }
+        scale = 0;
+      } else if (c >= '0' && c <= '9') {
+        mantissa = mantissa * 10 + (c - '0');
+        digits++;
+        if (scale >= 0) {
+          scale++;
+        }
+        if (mantissa >= MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+          return Double.parseDouble(s.subSequence(from, to).toString());
+        }
+      } else {
+        return Double.parseDouble(s.subSequence(from, to).toString());
+      }
+    }
+    if (digits == 0) {
+      return Double.parseDouble(s.subSequence(from, to).toString());
+    }
+    return scale <= 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
   }
 }
-
-
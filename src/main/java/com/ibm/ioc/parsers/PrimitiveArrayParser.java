@@ -0,0 +1,491 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.parsers;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.google.common.primitives.ImmutableDoubleArray;
+import com.google.common.primitives.ImmutableIntArray;
+import com.google.common.primitives.ImmutableLongArray;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/*
+ * Parses json-like lists of numbers, e.g. "[1, 2, 3KB]", straight into int[], long[] and double[] and their read-only
+ * ImmutableIntArray, ImmutableLongArray and ImmutableDoubleArray views, without boxing every element. Elements may be
+ * quoted and may carry the same units as IntegerParser and LongParser. Anything that is not recognized returns null so
+ * that callers can fall back to the generic conversion path.
+ */
+@SuppressWarnings("squid:S109")
+public final class PrimitiveArrayParser {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private PrimitiveArrayParser() {
+    // This is a utility class, and therefore should have no public constructor
+  }
+
+  /**
+   * Checks whether type has a dedicated primitive array conversion
+   *
+   * @param type target type
+   * @return true for int[], long[], double[] and their immutable counterparts
+   */
+  public static boolean isSupported(final Class<?> type) {
+    return type == int[].class || type == long[].class || type == double[].class
+        || type == ImmutableIntArray.class || type == ImmutableLongArray.class
+        || type == ImmutableDoubleArray.class;
+  }
+
+  /**
+   * Parses a string into the given primitive array type
+   *
+   * @param type one of the supported types
+   * @param stringValue string to parse
+   * @return parsed array or null if type is not supported or the string can't be parsed
+   */
+  public static Object parse(final Class<?> type, final String stringValue) {
+    if (stringValue == null) {
+      return null;
+    }
+    if (type == int[].class) {
+      return parseIntArray(stringValue);
+    } else if (type == long[].class) {
+      return parseLongArray(stringValue);
+    } else if (type == double[].class) {
+      return parseDoubleArray(stringValue);
+    } else if (type == ImmutableIntArray.class) {
+      final int[] array = parseIntArray(stringValue);
+      return array == null ? null : ImmutableIntArray.copyOf(array);
+    } else if (type == ImmutableLongArray.class) {
+      final long[] array = parseLongArray(stringValue);
+      return array == null ? null : ImmutableLongArray.copyOf(array);
+    } else if (type == ImmutableDoubleArray.class) {
+      final double[] array = parseDoubleArray(stringValue);
+      return array == null ? null : ImmutableDoubleArray.copyOf(array);
+    }
+    return null;
+  }
+
+  /**
+   * Converts already materialized values (e.g. from .set()) into the given primitive array type
+   *
+   * @param type one of the supported types
+   * @param values elements, either numbers or strings
+   * @return converted array or null if any element can't be converted without loss
+   */
+  public static Object convert(final Class<?> type, final Object[] values) {
+    if (type == int[].class || type == ImmutableIntArray.class) {
+      final int[] array = new int[values.length];
+      for (int i = 0; i < values.length; i++) {
+        final Object value = values[i];
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+          array[i] = ((Number) value).intValue();
+        } else if (value instanceof Character) {
+          array[i] = (Character) value;
+        } else if (value instanceof String) {
+          final String element = (String) value;
+          if (!parseInts(element, 0, element.length(), array, i)) {
+            return null;
+          }
+        } else {
+          return null;
+        }
+      }
+      return type == int[].class ? array : ImmutableIntArray.copyOf(array);
+    } else if (type == long[].class || type == ImmutableLongArray.class) {
+      final long[] array = new long[values.length];
+      for (int i = 0; i < values.length; i++) {
+        final Object value = values[i];
+        if (value instanceof Long || value instanceof Integer || value instanceof Short
+            || value instanceof Byte) {
+          array[i] = ((Number) value).longValue();
+        } else if (value instanceof Character) {
+          array[i] = (Character) value;
+        } else if (value instanceof String) {
+          final String element = (String) value;
+          if (!parseLongs(element, 0, element.length(), array, i)) {
+            return null;
+          }
+        } else {
+          return null;
+        }
+      }
+      return type == long[].class ? array : ImmutableLongArray.copyOf(array);
+    } else if (type == double[].class || type == ImmutableDoubleArray.class) {
+      final double[] array = new double[values.length];
+      for (int i = 0; i < values.length; i++) {
+        final Object value = values[i];
+        if (value instanceof Double || value instanceof Float || value instanceof Long
+            || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+          array[i] = ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+          final String element = (String) value;
+          if (!parseDoubles(element, 0, element.length(), array, i)) {
+            return null;
+          }
+        } else {
+          return null;
+        }
+      }
+      return type == double[].class ? array : ImmutableDoubleArray.copyOf(array);
+    }
+    return null;
+  }
+
+  public static int[] parseIntArray(final String stringValue) {
+    final int count = countElements(stringValue);
+    if (count < 0) {
+      return null;
+    }
+    final int[] array = new int[count];
+    int index = 0;
+    int start = skipWhitespace(stringValue, 0) + 1;
+    final int end = lastNonWhitespace(stringValue);
+    while (index < count) {
+      final int comma = nextComma(stringValue, start, end);
+      if (!parseInts(stringValue, start, comma, array, index)) {
+        return null;
+      }
+      index++;
+      start = comma + 1;
+    }
+    return array;
+  }
+
+  public static long[] parseLongArray(final String stringValue) {
+    final int count = countElements(stringValue);
+    if (count < 0) {
+      return null;
+    }
+    final long[] array = new long[count];
+    int index = 0;
+    int start = skipWhitespace(stringValue, 0) + 1;
+    final int end = lastNonWhitespace(stringValue);
+    while (index < count) {
+      final int comma = nextComma(stringValue, start, end);
+      if (!parseLongs(stringValue, start, comma, array, index)) {
+        return null;
+      }
+      index++;
+      start = comma + 1;
+    }
+    return array;
+  }
+
+  public static double[] parseDoubleArray(final String stringValue) {
+    final int count = countElements(stringValue);
+    if (count < 0) {
+      return null;
+    }
+    final double[] array = new double[count];
+    int index = 0;
+    int start = skipWhitespace(stringValue, 0) + 1;
+    final int end = lastNonWhitespace(stringValue);
+    while (index < count) {
+      final int comma = nextComma(stringValue, start, end);
+      if (!parseDoubles(stringValue, start, comma, array, index)) {
+        return null;
+      }
+      index++;
+      start = comma + 1;
+    }
+    return array;
+  }
+
+  // Returns number of elements between '[' and ']', or -1 if the string is not a flat list
+  private static int countElements(final String s) {
+    final int first = skipWhitespace(s, 0);
+    final int last = lastNonWhitespace(s);
+    if (first >= last || s.charAt(first) != '[' || s.charAt(last) != ']') {
+      return -1;
+    }
+    if (skipWhitespace(s, first + 1) == last) {
+      return 0;
+    }
+    int count = 1;
+    for (int i = first + 1; i < last; i++) {
+      final char c = s.charAt(i);
+      if (c == ',') {
+        count++;
+      } else if (c == '[' || c == ']' || c == '{' || c == '}') {
+        return -1;
+      }
+    }
+    return count;
+  }
+
+  private static int nextComma(final String s, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      if (s.charAt(i) == ',') {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private static int skipWhitespace(final String s, final int from) {
+    int i = from;
+    while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int lastNonWhitespace(final String s) {
+    int i = s.length() - 1;
+    while (i >= 0 && Character.isWhitespace(s.charAt(i))) {
+      i--;
+    }
+    return i;
+  }
+
+  // Narrows [start, end) to the element without surrounding whitespace and quotes; packed as start << 32 | end
+  private static long trimElement(final String s, final int start, final int end) {
+    int from = start;
+    int to = end;
+    while (from < to && Character.isWhitespace(s.charAt(from))) {
+      from++;
+    }
+    while (to > from && Character.isWhitespace(s.charAt(to - 1))) {
+      to--;
+    }
+    if (to - from >= 2) {
+      final char quote = s.charAt(from);
+      if ((quote == '"' || quote == '\'') && s.charAt(to - 1) == quote) {
+        from++;
+        to--;
+      }
+    }
+    return ((long) from << 32) | to;
+  }
+
+  private static boolean parseInts(final String s, final int start, final int end, final int[] array,
+      final int index) {
+    final long range = trimElement(s, start, end);
+    final int from = (int) (range >>> 32);
+    final int to = (int) range;
+    final long value = parsePlainLong(s, from, to);
+    if (value != Long.MIN_VALUE && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+      array[index] = (int) value;
+      return true;
+    }
+    // Units or decimals, rare in large tables
+    final long parsed;
+    try {
+      parsed = NumberParser.parseInt(s, from, to);
+    } catch (final NumberFormatException e) {
+      return false;
+    }
+    if (parsed == NumberParser.NOT_A_NUMBER) {
+      return false;
+    }
+    array[index] = (int) parsed;
+    return true;
+  }
+
+  private static boolean parseLongs(final String s, final int start, final int end, final long[] array,
+      final int index) {
+    final long range = trimElement(s, start, end);
+    final int from = (int) (range >>> 32);
+    final int to = (int) range;
+    final long value = parsePlainLong(s, from, to);
+    if (value != Long.MIN_VALUE) {
+      array[index] = value;
+      return true;
+    }
+    // Units or decimals, rare in large tables
+    final long parsed;
+    try {
+      parsed = NumberParser.parseLong(s, from, to);
+    } catch (final NumberFormatException e) {
+      return false;
+    }
+    if (parsed == NumberParser.NOT_A_NUMBER) {
+      return false;
+    }
+    array[index] = parsed;
+    return true;
+  }
+
+  private static boolean parseDoubles(final String s, final int start, final int end,
+      final double[] array, final int index) {
+    final long range = trimElement(s, start, end);
+    final int from = (int) (range >>> 32);
+    final int to = (int) range;
+    final long value = parsePlainLong(s, from, to);
+    if (value != Long.MIN_VALUE) {
+      array[index] = value;
+      return true;
+    }
+    if (from == to) {
+      return false;
+    }
+    try {
+      array[index] = Double.parseDouble(s.substring(from, to));
+      return true;
+    } catch (final NumberFormatException e) {
+      return false;
+    }
+  }
+
+  // Parses an optionally signed decimal integer; Long.MIN_VALUE signals "not a plain integer"
+  private static long parsePlainLong(final String s, final int from, final int to) {
+    if (from >= to || to - from > 18) {
+      return Long.MIN_VALUE;
+    }
+    int i = from;
+    boolean negative = false;
+    if (s.charAt(i) == '-') {
+      negative = true;
+      i++;
+      if (i == to) {
+        return Long.MIN_VALUE;
+      }
+    }
+    long result = 0;
+    for (; i < to; i++) {
+      final char c = s.charAt(i);
+      if (c < '0' || c > '9') {
+        return Long.MIN_VALUE;
+      }
+      result = result * 10 + (c - '0');
+    }
+    return negative ? -result : result;
+  }
+
+  public static TypeAdapter<int[]> getIntArrayGsonTypeAdapter() {
+    return new TypeAdapter<int[]>() {
+      @Override
+      public int[] read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+          in.nextNull();
+          return null;
+        }
+        int[] array = new int[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+          if (size == array.length) {
+            array = Arrays.copyOf(array, size * 2);
+          }
+          try {
+            array[size] = in.nextInt();
+          } catch (final NumberFormatException e) {
+            final String strVal = in.nextString();
+            final Integer val = IntegerParser.parse(strVal);
+            if (val == null) { // cannot parse
+              throw new JsonSyntaxException(e);
+            }
+            array[size] = val;
+          }
+          size++;
+        }
+        in.endArray();
+        return Arrays.copyOf(array, size);
+      }
+
+      @Override
+      public void write(final JsonWriter out, final int[] value) throws IOException {
+        if (value == null) {
+          out.nullValue();
+          return;
+        }
+        out.beginArray();
+        for (final int element : value) {
+          out.value(element);
+        }
+        out.endArray();
+      }
+    };
+  }
+
+  public static TypeAdapter<long[]> getLongArrayGsonTypeAdapter() {
+    return new TypeAdapter<long[]>() {
+      @Override
+      public long[] read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+          in.nextNull();
+          return null;
+        }
+        long[] array = new long[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+          if (size == array.length) {
+            array = Arrays.copyOf(array, size * 2);
+          }
+          try {
+            array[size] = in.nextLong();
+          } catch (final NumberFormatException e) {
+            final String strVal = in.nextString();
+            final Long val = LongParser.parse(strVal);
+            if (val == null) { // cannot parse
+              throw new JsonSyntaxException(e);
+            }
+            array[size] = val;
+          }
+          size++;
+        }
+        in.endArray();
+        return Arrays.copyOf(array, size);
+      }
+
+      @Override
+      public void write(final JsonWriter out, final long[] value) throws IOException {
+        if (value == null) {
+          out.nullValue();
+          return;
+        }
+        out.beginArray();
+        for (final long element : value) {
+          out.value(element);
+        }
+        out.endArray();
+      }
+    };
+  }
+
+  public static TypeAdapter<double[]> getDoubleArrayGsonTypeAdapter() {
+    return new TypeAdapter<double[]>() {
+      @Override
+      public double[] read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+          in.nextNull();
+          return null;
+        }
+        double[] array = new double[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+          if (size == array.length) {
+            array = Arrays.copyOf(array, size * 2);
+          }
+          array[size++] = in.nextDouble();
+        }
+        in.endArray();
+        return Arrays.copyOf(array, size);
+      }
+
+      @Override
+      public void write(final JsonWriter out, final double[] value) throws IOException {
+        if (value == null) {
+          out.nullValue();
+          return;
+        }
+        out.beginArray();
+        for (final double element : value) {
+          out.value(element);
+        }
+        out.endArray();
+      }
+    };
+  }
+}
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -115,8 +116,37 @@ public class BindingsDependencyUtil {
   }
 
 
+  /**
+   * Parameters whose dependencies are being collected, to tell a dependency cycle from a deep graph
+   */
+  private static final class Path {
+    private final Map<NamedEvaluator, Integer> params = new IdentityHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    Path(final String rootName) {
+      this.names.add(rootName);
+    }
+
+    void enter(final NamedEvaluator param, final String name) throws ObjectInitializationException {
+      final Integer index = this.params.get(param);
+      if (index != null) {
+        final List<String> cycle = new ArrayList<>(this.names.subList(index, this.names.size()));
+        cycle.add(name);
+        throw new ObjectInitializationException("Dependency cycle: " + String.join(" -> ", cycle));
+      }
+      this.params.put(param, this.names.size());
+      this.names.add(name);
+    }
+
+    void exit(final NamedEvaluator param) {
+      this.params.remove(param);
+      this.names.remove(this.names.size() - 1);
+    }
+  }
+
   private static List<ObjectNode> getDependenciesForParams(final BindingsProvider bindingsProvider,
-      final List<NamedEvaluator> params, final Map<Class<?>, String> overrides) {
+      final List<NamedEvaluator> params, final Map<Class<?>, String> overrides, final Path path)
+      throws ObjectInitializationException {
     final List<ObjectNode> dependencies = new ArrayList<>();
     if (params != null) {
       for (final NamedEvaluator param : params) {
@@ -136,25 +166,34 @@ public class BindingsDependencyUtil {
             final List<ObjectNode> subDependencies = new ArrayList<>();
             final BindingsProvider allRefsBindingsProvider = allRefsMap.getBindingsProvider();
 
+            path.enter(param, "allRefs " + interfaceClass.getName());
             try {
               for (final Entry<String, ? extends ImplementationFactory<?>> entry : allRefsBindingsProvider
                   .getImplementations(interfaceClass).entrySet()) {
                 final ObjectNode objectNode =
                     getObjectNode(allRefsBindingsProvider,
-                        entry.getKey(), entry.getValue(), overrides);
+                        entry.getKey(), entry.getValue(), overrides, path);
                 subDependencies.add(objectNode);
               }
             } catch (final ConfigurationItemNotDefinedException ignore) {
               // If there are no references, there are no dependencies.
+            } finally {
+              path.exit(param);
             }
             cacheObjectNodes(allRefsBindingsProvider, param,
                 subDependencies);
             dependencies.addAll(subDependencies);
           } else if (eval instanceof DelayedEvaluator) {
             final DelayedEvaluator evaluator = (DelayedEvaluator) eval;
-            final List<ObjectNode> dependencyObjects =
-                getDependenciesForParams(bindingsProvider,
-                    evaluator.getParameters(overrides), evaluator.getCombinedOverrides(overrides));
+            final Class<?> implementationClass = evaluator.getImplementationClass(overrides);
+            path.enter(param, implementationClass.getName());
+            final List<ObjectNode> dependencyObjects;
+            try {
+              dependencyObjects = getDependenciesForParams(bindingsProvider,
+                  evaluator.getParameters(overrides), evaluator.getCombinedOverrides(overrides), path);
+            } finally {
+              path.exit(param);
+            }
 
             final Supplier<Object> objSupplier = new LazySupplier<>(() -> {
               try {
@@ -165,14 +204,14 @@ public class BindingsDependencyUtil {
             });
 
             final ObjectNode objectNode =
-                new ObjectNode(evaluator.getImplementationClass(overrides), objSupplier,
+                new ObjectNode(implementationClass, objSupplier,
                     evaluator.getImplementedInterfaces(overrides), dependencyObjects);
             cacheObjectNodes(bindingsProvider, param,
                 Collections.singletonList(objectNode));
             dependencies.add(objectNode);
           }
-        } catch (ConfigurationItemNotDefinedException | ObjectInitializationException e) {
-          throw new RuntimeException("Could not evaluate dependencies for: " + eval, e);
+        } catch (final ConfigurationItemNotDefinedException e) {
+          throw new ObjectInitializationException("Could not evaluate dependencies for: " + eval, e);
         }
       }
     }
@@ -184,6 +223,20 @@ public class BindingsDependencyUtil {
       final String rootName,
       final ImplementationFactory<?> impl,
       final Map<Class<?>, String> overrides) {
+    try {
+      return getObjectNode(bindingsProvider, rootName, impl, overrides,
+          new Path(impl.getImplementationClass().getName()));
+    } catch (final ObjectInitializationException e) {
+      throw new RuntimeException("Could not evaluate dependencies for: " + impl.getImplementationClass(), e);
+    }
+  }
+
+  private static ObjectNode getObjectNode(
+      final BindingsProvider bindingsProvider,
+      final String rootName,
+      final ImplementationFactory<?> impl,
+      final Map<Class<?>, String> overrides,
+      final Path path) throws ObjectInitializationException {
     final ObjectNode cachedObjectNode =
         getCachedObjectNode(bindingsProvider, impl, rootName);
     if (cachedObjectNode != null) {
@@ -193,7 +246,7 @@ public class BindingsDependencyUtil {
     final List<ObjectNode> dependencies =
         getDependenciesForParams(bindingsProvider,
             impl.getParameters(overrides),
-            impl.getCombinedOverrides(overrides));
+            impl.getCombinedOverrides(overrides), path);
 
     final Supplier<Object> objSupplier = new LazySupplier<>(() -> {
       try {
@@ -230,4 +283,40 @@ public class BindingsDependencyUtil {
 
     return dependencies;
   }
+
+  /**
+   * Same as {@link #getObjectNodes(BindingsProvider, Class)}, but with the default implementation as well
+   *
+   * @param bindingsProvider bindings to resolve the implementations from
+   * @param interfaceClass interface whose default implementation and referrals to take
+   * @return nodes of the default implementation and of each referral, each implementation once
+   * @throws ObjectInitializationException if the dependencies form a cycle or can't be resolved
+   */
+  static List<ObjectNode> getAllObjectNodes(
+      final BindingsProvider bindingsProvider,
+      final Class<?> interfaceClass) throws ObjectInitializationException {
+    final Map<ImplementationFactory<?>, String> implementations = new LinkedHashMap<>();
+    try {
+      final ImplementationFactory<?> defaultImplementation = bindingsProvider.getDefaultImplementation(interfaceClass);
+      if (defaultImplementation != null) {
+        implementations.put(defaultImplementation, null);
+      }
+    } catch (final ConfigurationItemNotDefinedException ignore) {
+      // only referrals, if any
+    }
+    try {
+      bindingsProvider.getImplementations(interfaceClass)
+          .forEach((referral, impl) -> implementations.putIfAbsent(impl, referral));
+    } catch (final ConfigurationItemNotDefinedException ignore) {
+      // only the default implementation, if any
+    }
+
+    final List<ObjectNode> nodes = new ArrayList<>();
+    for (final Map.Entry<ImplementationFactory<?>, String> implEntry : implementations.entrySet()) {
+      final ImplementationFactory<?> impl = implEntry.getKey();
+      nodes.add(getObjectNode(bindingsProvider, implEntry.getValue(), impl, Collections.emptyMap(),
+          new Path(impl.getImplementationClass().getName())));
+    }
+    return nodes;
+  }
 }
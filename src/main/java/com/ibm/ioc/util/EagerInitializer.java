@@ -0,0 +1,193 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.ioc.BindingsProvider;
+import com.ibm.ioc.ObjectInitializationException;
+
+/**
+ * Instantiates the objects of an {@link ObjectNode} graph ahead of their first use. A node is built once all of its
+ * dependencies are, and independent subtrees are built concurrently on the given executor, so objects doing expensive
+ * work while being built (opening connections, warming caches) don't add up at startup.
+ */
+public final class EagerInitializer {
+  private static final Logger _logger = LoggerFactory.getLogger(EagerInitializer.class);
+
+  /**
+   * Outcome of an eager initialization
+   */
+  public static final class Result {
+    private final Map<ObjectNode, Duration> constructionTimes;
+    private final Duration elapsed;
+
+    Result(final Map<ObjectNode, Duration> constructionTimes, final Duration elapsed) {
+      this.constructionTimes = Collections.unmodifiableMap(constructionTimes);
+      this.elapsed = elapsed;
+    }
+
+    /**
+     * @return time spent building each node, not counting its dependencies, in dependency order
+     */
+    public Map<ObjectNode, Duration> getConstructionTimes() {
+      return this.constructionTimes;
+    }
+
+    /**
+     * @return wall clock time of the whole initialization
+     */
+    public Duration getElapsed() {
+      return this.elapsed;
+    }
+
+    @Override
+    public String toString() {
+      return this.constructionTimes.entrySet().stream()
+          .map(e -> e.getKey() + ": " + e.getValue().toMillis() + "ms")
+          .collect(Collectors.joining("\n", "Initialized " + this.constructionTimes.size() + " objects in "
+              + this.elapsed.toMillis() + "ms\n", ""));
+    }
+  }
+
+  private EagerInitializer() {
+    // This is a utility class, and therefore should have no public constructor
+  }
+
+  /**
+   * Initializes the default implementation and all referrals of the given interfaces and their dependencies on the
+   * common fork join pool
+   *
+   * @see #initialize(BindingsProvider, Executor, Class...)
+   */
+  public static Result initialize(final BindingsProvider bindingsProvider, final Class<?>... interfaceClasses)
+      throws ObjectInitializationException {
+    return initialize(bindingsProvider, ForkJoinPool.commonPool(), interfaceClasses);
+  }
+
+  /**
+   * Initializes the default implementation and all referrals of the given interfaces and their dependencies
+   *
+   * @param bindingsProvider bindings to resolve the implementations from
+   * @param executor runs the construction of independent objects
+   * @param interfaceClasses interfaces to initialize the implementations of
+   * @return construction times
+   * @throws ObjectInitializationException if the dependencies form a cycle or an object fails to initialize
+   */
+  public static Result initialize(
+      final BindingsProvider bindingsProvider,
+      final Executor executor,
+      final Class<?>... interfaceClasses) throws ObjectInitializationException {
+    final List<ObjectNode> roots = new ArrayList<>();
+    for (final Class<?> interfaceClass : interfaceClasses) {
+      roots.addAll(BindingsDependencyUtil.getAllObjectNodes(bindingsProvider, interfaceClass));
+    }
+    return initialize(roots, executor);
+  }
+
+  /**
+   * Initializes the given nodes and their dependencies, each node after its dependencies
+   *
+   * @param roots nodes to initialize
+   * @param executor runs the construction of independent nodes
+   * @return construction times
+   * @throws ObjectInitializationException if the dependencies form a cycle or a node fails to initialize
+   */
+  public static Result initialize(final Collection<ObjectNode> roots, final Executor executor)
+      throws ObjectInitializationException {
+    final long start = System.nanoTime();
+
+    final List<ObjectNode> order = new ArrayList<>();
+    final Map<ObjectNode, Boolean> visited = new IdentityHashMap<>();
+    for (final ObjectNode root : roots) {
+      sort(root, visited, new ArrayList<>(), order);
+    }
+
+    final Map<ObjectNode, Duration> constructionTimes = Collections.synchronizedMap(new IdentityHashMap<>());
+    final Map<ObjectNode, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+    for (final ObjectNode node : order) {
+      final CompletableFuture<?>[] dependencies = node.getDependencies().stream()
+          .map(futures::get)
+          .toArray(CompletableFuture<?>[]::new);
+      futures.put(node, CompletableFuture.allOf(dependencies)
+          .thenRunAsync(() -> construct(node, constructionTimes), executor));
+    }
+
+    try {
+      CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof ObjectInitializationException) {
+        throw (ObjectInitializationException) e.getCause();
+      }
+      throw new ObjectInitializationException("Eager initialization failed", e.getCause());
+    }
+
+    final Map<ObjectNode, Duration> ordered = new LinkedHashMap<>();
+    for (final ObjectNode node : order) {
+      ordered.put(node, constructionTimes.get(node));
+    }
+    final Result result = new Result(ordered, Duration.ofNanos(System.nanoTime() - start));
+    if (_logger.isDebugEnabled()) {
+      _logger.debug(result.toString());
+    }
+    return result;
+  }
+
+  // Depth first post order, so that every node comes after its dependencies
+  private static void sort(
+      final ObjectNode node,
+      final Map<ObjectNode, Boolean> visited,
+      final List<ObjectNode> path,
+      final List<ObjectNode> order) throws ObjectInitializationException {
+    final Boolean done = visited.get(node);
+    if (Boolean.TRUE.equals(done)) {
+      return;
+    }
+    path.add(node);
+    if (done != null) {
+      final List<ObjectNode> cycle = path.subList(path.indexOf(node), path.size());
+      throw new ObjectInitializationException("Dependency cycle: "
+          + cycle.stream().map(ObjectNode::toString).collect(Collectors.joining(" -> ")));
+    }
+    visited.put(node, Boolean.FALSE);
+    for (final ObjectNode dependency : node.getDependencies()) {
+      sort(dependency, visited, path, order);
+    }
+    visited.put(node, Boolean.TRUE);
+    path.remove(path.size() - 1);
+    order.add(node);
+  }
+
+  private static void construct(final ObjectNode node, final Map<ObjectNode, Duration> constructionTimes) {
+    final long start = System.nanoTime();
+    try {
+      node.getObjectSupplier().get();
+    } catch (final RuntimeException e) {
+      throw new CompletionException(new ObjectInitializationException("Failed to initialize " + node, e));
+    }
+    final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+    constructionTimes.put(node, elapsed);
+    if (_logger.isTraceEnabled()) {
+      _logger.trace("Initialized " + node + " in " + elapsed.toMillis() + "ms");
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.util;
+
+import java.lang.reflect.Type;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Java Flight Recorder events of property lookups, conversions, singleton creation, reload cycles and listener
+ * notification. The events are named <code>com.ibm.ioc.*</code> and are only committed above their threshold, which a
+ * recording may change like for any other event. On a JVM without Flight Recorder nothing is recorded and
+ * {@link #begin(Kind)} returns null, as it does whenever no recording has the event enabled.
+ *
+ * <pre>
+ * final Object event = FlightRecorderEvents.begin(FlightRecorderEvents.Kind.CONVERSION);
+ * final Object converted = convert(type, value);
+ * FlightRecorderEvents.endConversion(event, type, converted != null);
+ * </pre>
+ */
+public final class FlightRecorderEvents {
+  private static final Logger _logger = LoggerFactory.getLogger(FlightRecorderEvents.class);
+
+  /**
+   * Timed operations, one event type each
+   */
+  public enum Kind {
+    PROPERTY_LOOKUP, CONVERSION, SINGLETON_CREATION, RELOAD_CYCLE, LISTENER_NOTIFICATION
+  }
+
+  /**
+   * Implemented by the one class using <code>jdk.jfr</code>, reflectively so that the library still compiles for Java 8
+   */
+  interface Sink {
+    Object begin(Kind kind);
+
+    void endLookup(Object event, String name, String provider, int variants);
+
+    void endConversion(Object event, String type, boolean converted);
+
+    void endSingletonCreation(Object event, String implementation, String overrides);
+
+    void endReloadCycle(Object event, int files, int modified);
+
+    void endListenerNotification(Object event, String value, int listeners);
+  }
+
+  private static final Sink sink = loadSink();
+
+  private FlightRecorderEvents() {}
+
+  private static Sink loadSink() {
+    try {
+      Class.forName("jdk.jfr.EventFactory", false, FlightRecorderEvents.class.getClassLoader());
+      return (Sink) Class.forName(FlightRecorderEvents.class.getPackage().getName() + ".JfrEventSink")
+          .getDeclaredConstructor().newInstance();
+    } catch (final ReflectiveOperationException | LinkageError | RuntimeException e) {
+      _logger.debug("Flight Recorder is not available, no events are recorded", e);
+      return null;
+    }
+  }
+
+  public static boolean isAvailable() {
+    return sink != null;
+  }
+
+  /**
+   * @param kind of the operation about to start
+   * @return the started event to pass to the matching <code>end</code> method, null if it is not recorded
+   */
+  public static Object begin(final Kind kind) {
+    return sink != null ? sink.begin(kind) : null;
+  }
+
+  /**
+   * @param event returned by {@link #begin(Kind)} for {@link Kind#PROPERTY_LOOKUP}, may be null
+   * @param name property looked up
+   * @param provider announced type of the provider it was found in, null if not found
+   * @param variants names tried, over case combinations, default prefixes and providers
+   */
+  public static void endLookup(final Object event, final String name, final String provider, final int variants) {
+    if (event != null) {
+      sink.endLookup(event, name, provider, variants);
+    }
+  }
+
+  /**
+   * @param event returned by {@link #begin(Kind)} for {@link Kind#CONVERSION}, may be null
+   * @param type converted to; the value itself is not recorded, it may be a secret
+   * @param converted false if the value could not be converted
+   */
+  public static void endConversion(final Object event, final Type type, final boolean converted) {
+    if (event != null) {
+      sink.endConversion(event, type.getTypeName(), converted);
+    }
+  }
+
+  /**
+   * @param event returned by {@link #begin(Kind)} for {@link Kind#SINGLETON_CREATION}, may be null
+   * @param implementation created
+   * @param overrides it was created with
+   */
+  public static void endSingletonCreation(final Object event, final Object implementation, final Object overrides) {
+    if (event != null) {
+      sink.endSingletonCreation(event, String.valueOf(implementation), String.valueOf(overrides));
+    }
+  }
+
+  /**
+   * @param event returned by {@link #begin(Kind)} for {@link Kind#RELOAD_CYCLE}, may be null
+   * @param files checked for modifications
+   * @param modified files found modified and signalled
+   */
+  public static void endReloadCycle(final Object event, final int files, final int modified) {
+    if (event != null) {
+      sink.endReloadCycle(event, files, modified);
+    }
+  }
+
+  /**
+   * @param event returned by {@link #begin(Kind)} for {@link Kind#LISTENER_NOTIFICATION}, may be null
+   * @param value listeners were notified of; only its type is recorded
+   * @param listeners notified
+   */
+  public static void endListenerNotification(final Object event, final Object value, final int listeners) {
+    if (event != null) {
+      sink.endListenerNotification(event, value != null ? value.getClass().getName() : null, listeners);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.util;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ibm.ioc.util.FlightRecorderEvents.Kind;
+
+/**
+ * Event types behind {@link FlightRecorderEvents}, only loaded once <code>jdk.jfr</code> is known to be there. The
+ * library targets Java 8, so the types are declared through <code>jdk.jfr.EventFactory</code> and every call into
+ * <code>jdk.jfr</code> goes through reflection.
+ */
+final class JfrEventSink implements FlightRecorderEvents.Sink {
+  private static final String JFR = "jdk.jfr.";
+  private static final String CATEGORY = "java-ioc";
+
+  private final Constructor<?> annotationElement;
+  private final Constructor<?> valueDescriptor;
+  private final Method create;
+  private final Method newEvent;
+  private final Method getEventType;
+  private final Method isEnabled;
+  private final Method begin;
+  private final Method end;
+  private final Method shouldCommit;
+  private final Method commit;
+  private final Method set;
+
+  // indexed by Kind ordinal, the factories must stay reachable for their event types to stay registered
+  private final Object[] factories;
+  private final Object[] types;
+
+  JfrEventSink() throws ReflectiveOperationException {
+    final Class<?> annotationElementClass = jfrClass("AnnotationElement");
+    final Class<?> eventFactoryClass = jfrClass("EventFactory");
+    final Class<?> eventTypeClass = jfrClass("EventType");
+    final Class<?> eventClass = jfrClass("Event");
+    this.annotationElement = annotationElementClass.getConstructor(Class.class, Object.class);
+    this.valueDescriptor = jfrClass("ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+    this.create = eventFactoryClass.getMethod("create", List.class, List.class);
+    this.newEvent = eventFactoryClass.getMethod("newEvent");
+    this.getEventType = eventFactoryClass.getMethod("getEventType");
+    this.isEnabled = eventTypeClass.getMethod("isEnabled");
+    this.begin = eventClass.getMethod("begin");
+    this.end = eventClass.getMethod("end");
+    this.shouldCommit = eventClass.getMethod("shouldCommit");
+    this.commit = eventClass.getMethod("commit");
+    this.set = eventClass.getMethod("set", int.class, Object.class);
+
+    this.factories = new Object[] {
+        factory("com.ibm.ioc.PropertyLookup", "Property Lookup",
+            "Property resolved through the ordered properties providers", "1 ms", false,
+            field(String.class, "name", "Name", null),
+            field(String.class, "provider", "Provider",
+                "Announced type of the provider the property was found in, none if it was not found"),
+            field(int.class, "variants", "Variants Tried", null)),
+        factory("com.ibm.ioc.Conversion", "Conversion", "String value converted to the type of a parameter", "1 ms",
+            false,
+            field(String.class, "type", "Type", null),
+            field(boolean.class, "converted", "Converted", null)),
+        factory("com.ibm.ioc.SingletonCreation", "Singleton Creation",
+            "Singleton created, including the objects it depends on", "10 ms", true,
+            field(String.class, "implementation", "Implementation", null),
+            field(String.class, "overrides", "Overrides", null)),
+        factory("com.ibm.ioc.ReloadCycle", "Reload Cycle",
+            "Watched configuration files checked for modifications and reloaded", "10 ms", false,
+            field(int.class, "files", "Files", null),
+            field(int.class, "modified", "Modified", null)),
+        factory("com.ibm.ioc.ListenerNotification", "Listener Notification",
+            "Listeners of a modifiable value notified of a new value", "1 ms", true,
+            field(String.class, "valueType", "Value Type", null),
+            field(int.class, "listeners", "Listeners", null))
+    };
+    this.types = new Object[this.factories.length];
+    for (int i = 0; i < this.factories.length; i++) {
+      this.types[i] = this.getEventType.invoke(this.factories[i]);
+    }
+  }
+
+  private static Class<?> jfrClass(final String name) throws ClassNotFoundException {
+    return Class.forName(JFR + name, true, JfrEventSink.class.getClassLoader());
+  }
+
+  private Object annotation(final String type, final Object value) throws ReflectiveOperationException {
+    return this.annotationElement.newInstance(jfrClass(type).asSubclass(Annotation.class), value);
+  }
+
+  private Object field(final Class<?> type, final String name, final String label, final String description)
+      throws ReflectiveOperationException {
+    final List<Object> annotations = new ArrayList<>();
+    annotations.add(annotation("Label", label));
+    if (description != null) {
+      annotations.add(annotation("Description", description));
+    }
+    return this.valueDescriptor.newInstance(type, name, annotations);
+  }
+
+  private Object factory(final String name, final String label, final String description, final String threshold,
+      final boolean stackTrace, final Object... fields) throws ReflectiveOperationException {
+    final List<Object> annotations = new ArrayList<>();
+    annotations.add(annotation("Name", name));
+    annotations.add(annotation("Label", label));
+    annotations.add(annotation("Description", description));
+    annotations.add(annotation("Category", new String[] {CATEGORY}));
+    annotations.add(annotation("Threshold", threshold));
+    annotations.add(annotation("StackTrace", stackTrace));
+    return this.create.invoke(null, annotations, Arrays.asList(fields));
+  }
+
+  private Object invoke(final Method method, final Object target, final Object... arguments) {
+    try {
+      return method.invoke(target, arguments);
+    } catch (final InvocationTargetException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    } catch (final IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public Object begin(final Kind kind) {
+    // enabled only while a recording is running with it enabled, nothing gets allocated otherwise
+    if (!(Boolean) invoke(this.isEnabled, this.types[kind.ordinal()])) {
+      return null;
+    }
+    final Object event = invoke(this.newEvent, this.factories[kind.ordinal()]);
+    invoke(this.begin, event);
+    return event;
+  }
+
+  private void end(final Object event, final Object... values) {
+    invoke(this.end, event);
+    if ((Boolean) invoke(this.shouldCommit, event)) {
+      for (int i = 0; i < values.length; i++) {
+        invoke(this.set, event, i, values[i]);
+      }
+      invoke(this.commit, event);
+    }
+  }
+
+  @Override
+  public void endLookup(final Object event, final String name, final String provider, final int variants) {
+    end(event, name, provider, variants);
+  }
+
+  @Override
+  public void endConversion(final Object event, final String type, final boolean converted) {
+    end(event, type, converted);
+  }
+
+  @Override
+  public void endSingletonCreation(final Object event, final String implementation, final String overrides) {
+    end(event, implementation, overrides);
+  }
+
+  @Override
+  public void endReloadCycle(final Object event, final int files, final int modified) {
+    end(event, files, modified);
+  }
+
+  @Override
+  public void endListenerNotification(final Object event, final String valueType, final int listeners) {
+    end(event, valueType, listeners);
+  }
+}
@@ -0,0 +1,246 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records wall time and allocated bytes of object creation per binding and per phase, nested along the dependency
+ * tree. Only one profiler records at a time; while none does, {@link #enter(String)} is a single volatile read.
+ *
+ * <pre>
+ * final StartupProfiler profiler = StartupProfiler.start();
+ * final JavaBindingsProvider provider = new JavaBindingsProvider();
+ * provider.getDefaultImplementation(Server.class).initialize();
+ * profiler.stop();
+ * profiler.writeCollapsedStacks(writer, false);
+ * </pre>
+ */
+public final class StartupProfiler {
+  public static final String LOAD_BINDINGS = "load bindings";
+  public static final String REGISTER = "register";
+  public static final String INSTANTIATE = "instantiate";
+  public static final String RESOLVE_PARAMETERS = "resolve parameters";
+  public static final String CONVERT = "convert";
+  public static final String INJECT = "inject";
+  public static final String BUILD = "build";
+  public static final String POST_BUILD_SETTERS = "post-build setters";
+
+  private static volatile StartupProfiler active;
+
+  private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  private final ThreadLocal<Deque<Frame>> stacks = ThreadLocal.withInitial(ArrayDeque::new);
+  // self time and allocation per collapsed stack
+  private final ConcurrentMap<String, Totals> stackTotals = new ConcurrentHashMap<>();
+  // time and allocation per frame name, not counting recursive frames twice
+  private final ConcurrentMap<String, Totals> frameTotals = new ConcurrentHashMap<>();
+  private volatile boolean stopped;
+
+  private static final class Totals {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder selfNanos = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder selfBytes = new LongAdder();
+  }
+
+  /**
+   * Open profiling frame, see {@link #enter(String)}
+   */
+  public static final class Frame {
+    private final StartupProfiler profiler;
+    private final String name;
+    private final long start;
+    private final long startBytes;
+    private long childNanos;
+    private long childBytes;
+
+    private Frame(final StartupProfiler profiler, final String name) {
+      this.profiler = profiler;
+      this.name = name;
+      this.startBytes = allocatedBytes();
+      this.start = System.nanoTime();
+    }
+  }
+
+  private StartupProfiler() {}
+
+  /**
+   * @return new profiler recording from now on, replacing the one recording so far
+   */
+  public static StartupProfiler start() {
+    final StartupProfiler profiler = new StartupProfiler();
+    active = profiler;
+    return profiler;
+  }
+
+  /**
+   * Stops recording, frames still open are dropped
+   */
+  public void stop() {
+    this.stopped = true;
+    if (active == this) {
+      active = null;
+    }
+  }
+
+  public static boolean isActive() {
+    return active != null;
+  }
+
+  /**
+   * Opens a frame on the current thread's stack, to be closed by {@link #exit(Frame)} in a finally block
+   *
+   * @param name binding or phase
+   * @return the frame, null if nothing is recorded
+   */
+  public static Frame enter(final String name) {
+    final StartupProfiler profiler = active;
+    if (profiler == null) {
+      return null;
+    }
+    final Frame frame = new Frame(profiler, name);
+    profiler.stacks.get().push(frame);
+    return frame;
+  }
+
+  /**
+   * @param frame returned by {@link #enter(String)}, may be null
+   */
+  public static void exit(final Frame frame) {
+    if (frame != null) {
+      frame.profiler.close(frame);
+    }
+  }
+
+  private static long allocatedBytes() {
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+  private void close(final Frame frame) {
+    final long nanos = System.nanoTime() - frame.start;
+    final long bytes = Math.max(0, allocatedBytes() - frame.startBytes);
+    final Deque<Frame> stack = this.stacks.get();
+    if (stack.peek() != frame) {
+      // unbalanced, e.g. the profiler was restarted in between
+      stack.remove(frame);
+      return;
+    }
+    stack.pop();
+    if (this.stopped) {
+      return;
+    }
+
+    final StringBuilder path = new StringBuilder();
+    boolean recursive = false;
+    final Frame parent = stack.peek();
+    for (final Iterator<Frame> it = stack.descendingIterator(); it.hasNext();) {
+      final Frame ancestor = it.next();
+      recursive |= ancestor.name.equals(frame.name);
+      path.append(ancestor.name).append(';');
+    }
+    path.append(frame.name);
+
+    final long selfNanos = nanos - frame.childNanos;
+    final long selfBytes = bytes - frame.childBytes;
+    final Totals stackTotal = this.stackTotals.computeIfAbsent(path.toString(), key -> new Totals());
+    stackTotal.count.increment();
+    stackTotal.selfNanos.add(selfNanos);
+    stackTotal.selfBytes.add(selfBytes);
+
+    final Totals frameTotal = this.frameTotals.computeIfAbsent(frame.name, key -> new Totals());
+    frameTotal.count.increment();
+    frameTotal.selfNanos.add(selfNanos);
+    frameTotal.selfBytes.add(selfBytes);
+    if (!recursive) {
+      frameTotal.nanos.add(nanos);
+      frameTotal.bytes.add(bytes);
+    }
+
+    if (parent != null) {
+      parent.childNanos += nanos;
+      parent.childBytes += bytes;
+    }
+  }
+
+  /**
+   * @param name binding or phase
+   * @return time spent in frames of that name, including nested frames but counting recursive frames once
+   */
+  public long getTotalNanos(final String name) {
+    final Totals totals = this.frameTotals.get(name);
+    return totals != null ? totals.nanos.sum() : 0;
+  }
+
+  /**
+   * @param name binding or phase
+   * @return time spent in frames of that name, excluding nested frames
+   */
+  public long getSelfNanos(final String name) {
+    final Totals totals = this.frameTotals.get(name);
+    return totals != null ? totals.selfNanos.sum() : 0;
+  }
+
+  /**
+   * Writes one line per stack with its self time in microseconds or its self allocation in bytes, the format
+   * flamegraph.pl and most flame graph viewers read
+   *
+   * @param writer to write to
+   * @param allocation true to weigh stacks by allocated bytes rather than by time
+   */
+  public void writeCollapsedStacks(final Writer writer, final boolean allocation) throws IOException {
+    for (final Map.Entry<String, Totals> entry : new HashMap<>(this.stackTotals).entrySet()) {
+      final long value = allocation
+          ? entry.getValue().selfBytes.sum()
+          : entry.getValue().selfNanos.sum() / 1000;
+      if (value > 0) {
+        writer.write(entry.getKey());
+        writer.write(' ');
+        writer.write(Long.toString(value));
+        writer.write('\n');
+      }
+    }
+    writer.flush();
+  }
+
+  /**
+   * Writes one line per binding or phase, slowest first, with its count, total and self time and allocation
+   *
+   * @param writer to write to
+   */
+  public void writeReport(final Writer writer) throws IOException {
+    final List<Map.Entry<String, Totals>> entries = new ArrayList<>(this.frameTotals.entrySet());
+    entries.sort((a, b) -> Long.compare(b.getValue().nanos.sum(), a.getValue().nanos.sum()));
+
+    writer.write(String.format("%12s %12s %14s %14s %8s  %s%n",
+        "total ms", "self ms", "total bytes", "self bytes", "count", "binding or phase"));
+    for (final Map.Entry<String, Totals> entry : entries) {
+      final Totals totals = entry.getValue();
+      writer.write(String.format("%12.3f %12.3f %14d %14d %8d  %s%n",
+          totals.nanos.sum() / 1e6, totals.selfNanos.sum() / 1e6,
+          totals.bytes.sum(), totals.selfBytes.sum(), totals.count.sum(), entry.getKey()));
+    }
+    writer.flush();
+  }
+}
@@ -0,0 +1,75 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures heap bytes allocated per operation by the current thread, for tests asserting allocation budgets. Operations
+ * are warmed up first so that the JIT compiler had its chance to remove allocations, as it would in production.
+ */
+public final class AllocationMeter {
+  private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  // Results of all measured operations are folded into this, so that they can't be optimized away
+  private static volatile int sink;
+
+  public static final int WARMUP = 20_000;
+  public static final int ITERATIONS = 10_000;
+
+  /**
+   * Operation to measure
+   */
+  public interface Operation {
+    Object run() throws Exception;
+  }
+
+  private AllocationMeter() {}
+
+  /**
+   * @return false on JVMs that can't tell allocated bytes per thread, tests should be skipped then
+   */
+  public static boolean isSupported() {
+    return threads instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled();
+  }
+
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * @param operation to measure, its result is kept alive so that it can't be optimized away
+   * @return bytes allocated per run of the operation, after {@link #WARMUP} runs and averaged over
+   *         {@link #ITERATIONS}
+   */
+  public static double bytesPerOperation(final Operation operation) throws Exception {
+    return bytesPerOperation(operation, WARMUP, ITERATIONS);
+  }
+
+  public static double bytesPerOperation(final Operation operation, final int warmup, final int iterations)
+      throws Exception {
+    if (!isSupported()) {
+      throw new IllegalStateException("Allocated bytes per thread are not available on this JVM");
+    }
+    int results = 0;
+    for (int i = 0; i < warmup; i++) {
+      results += System.identityHashCode(operation.run());
+    }
+    // what reading the counter costs, taken off the result
+    final long overhead = -allocatedBytes() + allocatedBytes();
+    final long before = allocatedBytes();
+    for (int i = 0; i < iterations; i++) {
+      results += System.identityHashCode(operation.run());
+    }
+    final long allocated = allocatedBytes() - before - overhead;
+    sink += results;
+    return Math.max(0, allocated) / (double) iterations;
+  }
+}
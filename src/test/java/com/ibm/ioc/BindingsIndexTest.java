@@ -0,0 +1,160 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+public class BindingsIndexTest {
+  private Path directory;
+
+  @Before
+  public void setUp() throws Exception {
+    this.directory = Files.createTempDirectory("bindings-index");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    MoreFiles.deleteRecursively(this.directory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Test
+  public void testProcessorWritesIndex() throws Exception {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    Assume.assumeNotNull(compiler);
+
+    final Path sources = Files.createDirectories(this.directory.resolve("src/indexed"));
+    Files.write(sources.resolve("IndexedBindings.java"), Arrays.asList(
+        "package indexed;",
+        "public class IndexedBindings implements com.ibm.ioc.JavaBindings {",
+        "  public void register(com.ibm.ioc.JavaBindingsProvider.BindingsFactory def) {}",
+        "  public static class NestedBindings extends IndexedBindings {}",
+        "}"), StandardCharsets.UTF_8);
+    Files.write(sources.resolve("AbstractBindings.java"), Arrays.asList(
+        "package indexed;",
+        "public abstract class AbstractBindings implements com.ibm.ioc.JavaBindings {}"), StandardCharsets.UTF_8);
+    Files.write(sources.resolve("NotBindings.java"), Arrays.asList(
+        "package indexed;",
+        "public class NotBindings {}"), StandardCharsets.UTF_8);
+
+    final Path classes = Files.createDirectories(this.directory.resolve("classes"));
+    final int status = compiler.run(null, null, null,
+        "-processor", BindingsIndexProcessor.class.getName(),
+        "-classpath", System.getProperty("java.class.path"),
+        "-d", classes.toString(),
+        sources.resolve("IndexedBindings.java").toString(),
+        sources.resolve("AbstractBindings.java").toString(),
+        sources.resolve("NotBindings.java").toString());
+    Assert.assertEquals(0, status);
+
+    final URL index = classes.resolve(BindingsIndex.RESOURCE).toUri().toURL();
+    Assert.assertEquals(Collections.singletonList("indexed.IndexedBindings"), BindingsIndex.read(index));
+
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()},
+        BindingsIndexTest.class.getClassLoader())) {
+      final List<Class<?>> loaded = BindingsIndex.load(loader);
+      final Class<?> indexed = loaded.stream()
+          .filter(c -> c.getName().equals("indexed.IndexedBindings"))
+          .findFirst()
+          .get();
+      // through the class loader, not defined from the class file
+      Assert.assertSame(loader.loadClass("indexed.IndexedBindings"), indexed);
+    }
+  }
+
+  @Test
+  public void testProcessorMergesIncrementalBuilds() throws Exception {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    Assume.assumeNotNull(compiler);
+
+    final Path sources = Files.createDirectories(this.directory.resolve("src/indexed"));
+    final Path classes = Files.createDirectories(this.directory.resolve("classes"));
+    final String classPath = System.getProperty("java.class.path") + File.pathSeparator + classes;
+    Files.write(sources.resolve("FirstBindings.java"), Arrays.asList(
+        "package indexed;",
+        "public class FirstBindings implements com.ibm.ioc.JavaBindings {",
+        "  public void register(com.ibm.ioc.JavaBindingsProvider.BindingsFactory def) {}",
+        "}"), StandardCharsets.UTF_8);
+    Files.write(sources.resolve("SecondBindings.java"), Arrays.asList(
+        "package indexed;",
+        "public class SecondBindings extends FirstBindings {}"), StandardCharsets.UTF_8);
+    Assert.assertEquals(0, compiler.run(null, null, null,
+        "-processor", BindingsIndexProcessor.class.getName(), "-classpath", classPath, "-d", classes.toString(),
+        sources.resolve("FirstBindings.java").toString()));
+
+    // only the new class compiled, the index keeps the other one
+    Assert.assertEquals(0, compiler.run(null, null, null,
+        "-processor", BindingsIndexProcessor.class.getName(), "-classpath", classPath, "-d", classes.toString(),
+        sources.resolve("SecondBindings.java").toString()));
+    final URL index = classes.resolve(BindingsIndex.RESOURCE).toUri().toURL();
+    Assert.assertEquals(Arrays.asList("indexed.FirstBindings", "indexed.SecondBindings"), BindingsIndex.read(index));
+
+    // compiled again, but no bindings any more
+    Files.write(sources.resolve("SecondBindings.java"), Arrays.asList(
+        "package indexed;",
+        "public class SecondBindings {}"), StandardCharsets.UTF_8);
+    Assert.assertEquals(0, compiler.run(null, null, null,
+        "-processor", BindingsIndexProcessor.class.getName(), "-classpath", classPath, "-d", classes.toString(),
+        sources.resolve("SecondBindings.java").toString()));
+    Assert.assertEquals(Collections.singletonList("indexed.FirstBindings"), BindingsIndex.read(index));
+  }
+
+  @Test
+  public void testSameNameInSeveralIndexes() throws Exception {
+    final URL[] roots = new URL[2];
+    for (int i = 0; i < roots.length; i++) {
+      final Path root = Files.createDirectories(this.directory.resolve("root" + i));
+      try (InputStream input = BindingsIndexTest.class.getClassLoader().getResourceAsStream("Bindings.class")) {
+        Files.copy(input, root.resolve("Bindings.class"));
+      }
+      Files.createDirectories(root.resolve(BindingsIndex.RESOURCE).getParent());
+      Files.write(root.resolve(BindingsIndex.RESOURCE), Arrays.asList("# test", "Bindings"), StandardCharsets.UTF_8);
+      roots[i] = root.toUri().toURL();
+    }
+
+    try (URLClassLoader loader = new URLClassLoader(roots, BindingsIndexTest.class.getClassLoader())) {
+      // java-ioc's own index lists Bindings as well
+      final List<Class<?>> loaded = BindingsIndex.load(loader);
+      Assert.assertEquals(3, loaded.size());
+      Assert.assertEquals(Collections.nCopies(3, "Bindings"),
+          loaded.stream().map(Class::getName).collect(Collectors.toList()));
+      Assert.assertEquals(3, loaded.stream().distinct().count());
+    }
+  }
+
+  @Test
+  public void testFromIndex() throws Exception {
+    System.setProperty(RemotePropertiesLookup.class.getName(), "null");
+    try {
+      final JavaBindingsProvider provider = JavaBindingsProvider.fromIndex();
+      Assert.assertNotNull(provider.getImplementation(RemotePropertiesLookup.class, "null"));
+    } finally {
+      System.getProperties().remove(RemotePropertiesLookup.class.getName());
+    }
+  }
+}
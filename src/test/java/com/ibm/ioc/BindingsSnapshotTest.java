@@ -0,0 +1,277 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.ByteStreams;
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+import com.ibm.ioc.impl.PropertyReads;
+
+public class BindingsSnapshotTest {
+  private static final AtomicInteger registered = new AtomicInteger();
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testReplay() throws Exception {
+    final Path file = this.folder.getRoot().toPath().resolve("bindings.snapshot");
+    registered.set(0);
+
+    final JavaBindingsProvider discovered =
+        JavaBindingsProvider.fromSnapshot(file, Arrays.asList(SnapshotBindings.class));
+    Assert.assertEquals(1, registered.get());
+    Assert.assertTrue(Files.exists(file));
+    final Client expected = discovered.getDefaultImplementation(Client.class).initialize();
+
+    final JavaBindingsProvider replayed =
+        JavaBindingsProvider.fromSnapshot(file, Arrays.asList(SnapshotBindings.class));
+    Assert.assertEquals(1, registered.get());
+    final Client client = replayed.getDefaultImplementation(Client.class).initialize();
+    Assert.assertEquals(expected.name, client.name);
+    Assert.assertEquals(expected.retries, client.retries);
+    Assert.assertEquals(expected.ratio, client.ratio, 0);
+    Assert.assertNull(client.missing);
+    Assert.assertTrue(client.transport instanceof Tcp);
+    Assert.assertTrue(client.fallback instanceof Udp);
+    Assert.assertEquals(expected.transports.keySet(), client.transports.keySet());
+    Assert.assertNotSame(replayed.getImplementation(Transport.class, "udp").initialize(),
+        replayed.getImplementation(Transport.class, "udp").initialize());
+  }
+
+  @Test
+  public void testChangedBindingsAreDiscovered() throws Exception {
+    final Path file = this.folder.getRoot().toPath().resolve("bindings.snapshot");
+    JavaBindingsProvider.fromSnapshot(file, Arrays.asList(SnapshotBindings.class));
+    registered.set(0);
+
+    final JavaBindingsProvider provider =
+        JavaBindingsProvider.fromSnapshot(file, Arrays.asList(SnapshotBindings.class, MoreBindings.class));
+    Assert.assertEquals(2, registered.get());
+    Assert.assertEquals("more", provider.getImplementation(Transport.class, "more").initialize().toString());
+
+    // the snapshot was rewritten for the new bindings
+    JavaBindingsProvider.fromSnapshot(file, Arrays.asList(SnapshotBindings.class, MoreBindings.class));
+    Assert.assertEquals(2, registered.get());
+  }
+
+  @Test
+  public void testObjectConstantsAreNotRecorded() throws Exception {
+    final Path file = this.folder.getRoot().toPath().resolve("bindings.snapshot");
+    final JavaBindingsProvider provider =
+        JavaBindingsProvider.fromSnapshot(file, Collections.singletonList(ObjectBindings.class));
+    Assert.assertFalse(Files.exists(file));
+    Assert.assertEquals("constant", provider.getImplementation(Transport.class, "object").initialize().toString());
+  }
+
+  @Test
+  public void testChangedPropertiesAreRediscovered() throws Exception {
+    final Path file = this.folder.getRoot().toPath().resolve("bindings.snapshot");
+    System.setProperty("snapshot.test.transport", "tcp");
+    try {
+      registered.set(0);
+      JavaBindingsProvider.fromSnapshot(file, Collections.singletonList(PropertyBindings.class));
+      JavaBindingsProvider.fromSnapshot(file, Collections.singletonList(PropertyBindings.class));
+      Assert.assertEquals(1, registered.get());
+
+      System.setProperty("snapshot.test.transport", "udp");
+      final JavaBindingsProvider provider =
+          JavaBindingsProvider.fromSnapshot(file, Collections.singletonList(PropertyBindings.class));
+      Assert.assertEquals(2, registered.get());
+      Assert.assertTrue(provider.getImplementation(Transport.class, "property").initialize() instanceof Udp);
+    } finally {
+      System.clearProperty("snapshot.test.transport");
+    }
+  }
+
+  @Test
+  public void testEnvironmentReadsAreNotSnapshotted() throws Exception {
+    final Path file = this.folder.getRoot().toPath().resolve("bindings.snapshot");
+    final JavaBindingsProvider provider =
+        JavaBindingsProvider.fromSnapshot(file, Collections.singletonList(SystemPropertyBindings.class));
+    Assert.assertFalse(Files.exists(file));
+    Assert.assertTrue(provider.getImplementation(Transport.class, "system").initialize() instanceof Tcp);
+
+    Assert.assertEquals("java/lang/System.getProperty",
+        BindingsSnapshot.findEnvironmentRead(classFile(SystemPropertyBindings.class)));
+    Assert.assertNull(BindingsSnapshot.findEnvironmentRead(classFile(PropertyBindings.class)));
+  }
+
+  @Test
+  public void testBuilderRegistrationIsReplayed() throws Exception {
+    final Path file = this.folder.getRoot().toPath().resolve("bindings.snapshot");
+    registered.set(0);
+    JavaBindingsProvider.fromSnapshot(file, Collections.singletonList(BuilderBindings.class));
+
+    final JavaBindingsProvider replayed =
+        JavaBindingsProvider.fromSnapshot(file, Collections.singletonList(BuilderBindings.class));
+    Assert.assertEquals(1, registered.get());
+    final Built built = replayed.getDefaultImplementation(Built.class).initialize();
+    Assert.assertEquals("built", built.name);
+    Assert.assertEquals(2, built.retries);
+  }
+
+  @Test
+  public void testPropertiesAreOnlyRecordedWhileRecording() throws Exception {
+    PropertiesResolverFactory.getInstance().isSet("snapshot.test.unrecorded");
+    Assert.assertFalse(PropertyReads.getNames().contains("snapshot.test.unrecorded"));
+
+    PropertyReads.start();
+    try {
+      PropertiesResolverFactory.getInstance().isSet("snapshot.test.recorded");
+      Assert.assertTrue(PropertyReads.getNames().contains("snapshot.test.recorded"));
+    } finally {
+      PropertyReads.stop();
+    }
+    Assert.assertFalse(PropertyReads.getNames().contains("snapshot.test.recorded"));
+  }
+
+  private static byte[] classFile(final Class<?> clazz) throws IOException {
+    final String name = clazz.getName();
+    try (InputStream input = clazz.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+      return ByteStreams.toByteArray(input);
+    }
+  }
+
+  public static class SnapshotBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      registered.incrementAndGet();
+      def.def(Tcp.class, Transport.class);
+      def.def(Udp.class)
+          .iface(Transport.class, "udp")
+          .scope(Scope.PROTOTYPE);
+      def.def(Client.class, Client.class)
+          .set("name", "client")
+          .set("retries", 3)
+          .set("ratio", 0.5)
+          .prop("missing", "snapshot.test.missing")
+          .ref("transport", Transport.class)
+          .ref("fallback", Transport.class, "udp")
+          .allRefs("transports", Transport.class);
+    }
+  }
+
+  public static class MoreBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      registered.incrementAndGet();
+      def.def(More.class)
+          .iface(Transport.class, "more");
+    }
+  }
+
+  public static class PropertyBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      registered.incrementAndGet();
+      Object transport;
+      try {
+        transport = PropertiesResolverFactory.getInstance().getProperty("snapshot.test.transport");
+      } catch (final ConfigurationItemNotDefinedException e) {
+        transport = null;
+      }
+      if ("udp".equals(transport)) {
+        def.def(Udp.class).iface(Transport.class, "property");
+      } else {
+        def.def(Tcp.class).iface(Transport.class, "property");
+      }
+    }
+  }
+
+  public static class SystemPropertyBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      if ("udp".equals(System.getProperty("snapshot.test.transport"))) {
+        def.def(Udp.class).iface(Transport.class, "system");
+      } else {
+        def.def(Tcp.class).iface(Transport.class, "system");
+      }
+    }
+  }
+
+  public static class BuilderBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      registered.incrementAndGet();
+      def.builder(Built.Builder.class)
+          .set("name", "built")
+          .set("retries", 2);
+    }
+  }
+
+  public static class ObjectBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(More.class)
+          .iface(Transport.class, "object")
+          .set("name", (Object) "constant");
+    }
+  }
+
+  public interface Transport {
+  }
+
+  public static class Tcp implements Transport {
+  }
+
+  public static class Udp implements Transport {
+  }
+
+  public static class More implements Transport {
+    public String name = "more";
+
+    @Override
+    public String toString() {
+      return this.name;
+    }
+  }
+
+  public static class Built {
+    public final String name;
+    public int retries;
+
+    Built(final String name) {
+      this.name = name;
+    }
+
+    public void setRetries(final int retries) {
+      this.retries = retries;
+    }
+
+    public static class Builder {
+      public String name;
+
+      public Built build() {
+        return new Built(this.name);
+      }
+    }
+  }
+
+  public static class Client {
+    public String name;
+    public int retries;
+    public double ratio;
+    public String missing;
+    public Transport transport;
+    public Transport fallback;
+    public Map<String, Transport> transports;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+
+public class ConstructorInjectionTest {
+  private final JavaBindingsProvider provider =
+      new JavaBindingsProvider(Arrays.asList(ConstructorBindings.class));
+
+  @Test
+  public void testByName() throws Exception {
+    final Client client = this.provider.getImplementation(Client.class, "named").initialize();
+    Assert.assertEquals("client", client.name);
+    Assert.assertEquals(3, client.retries);
+    Assert.assertEquals(0, client.timeout);
+    Assert.assertSame(this.provider.getDefaultImplementation(Transport.class).initialize(), client.transport);
+  }
+
+  @Test
+  public void testByOrder() throws Exception {
+    final Client client = this.provider.getImplementation(Client.class, "ordered").initialize();
+    Assert.assertEquals("ordered", client.name);
+    Assert.assertEquals(5, client.retries);
+    Assert.assertNotNull(client.transport);
+    // not a constructor parameter, so it is set afterwards
+    Assert.assertEquals(100, client.timeout);
+  }
+
+  @Test
+  public void testNoMatchingConstructor() throws Exception {
+    try {
+      this.provider.getImplementation(Client.class, "mismatch").initialize();
+      Assert.fail("Constructor matched parameters it doesn't take");
+    } catch (final ObjectInstantiationException expected) {
+      Assert.assertTrue(expected.getMessage(), expected.getMessage().startsWith("No constructor"));
+    }
+  }
+
+  public static class ConstructorBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(Tcp.class, Transport.class);
+
+      def.def(Client.class)
+          .iface(Client.class, "named")
+          .set("name", "client")
+          .set("retries", 3)
+          .ref("transport", Transport.class)
+          .constructor();
+      def.def(Client.class)
+          .iface(Client.class, "ordered")
+          .ref("transport", Transport.class)
+          .set("retries", "5")
+          .set("name", "ordered")
+          .set("timeout", 100)
+          .constructor("name", "retries", "transport");
+      def.def(Client.class)
+          .iface(Client.class, "mismatch")
+          .set("name", "client")
+          .constructor();
+    }
+  }
+
+  public interface Transport {
+  }
+
+  public static class Tcp implements Transport {
+  }
+
+  public static class Client {
+    public final String name;
+    public final int retries;
+    public final Transport transport;
+    public int timeout;
+
+    public Client(final String name, final int retries, final Transport transport) {
+      this.name = name;
+      this.retries = retries;
+      this.transport = transport;
+    }
+  }
+}
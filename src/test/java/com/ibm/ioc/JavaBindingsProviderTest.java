@@ -6,7 +6,12 @@
 
 package com.ibm.ioc;
 
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Assert;
@@ -14,9 +19,62 @@ import org.junit.Test;
 
 import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
 import com.ibm.ioc.impl.ImplementationFactory;
+import com.ibm.ioc.impl.MemoryPropertiesProvider;
 
 public class JavaBindingsProviderTest {
 
+  @Test
+  public void testLoadBindingsClassesOfSameName() throws Exception {
+    final Path first = Files.createTempDirectory("bindings");
+    final Path second = Files.createTempDirectory("bindings");
+    try (InputStream input = JavaBindingsProvider.class.getClassLoader().getResourceAsStream("Bindings.class")) {
+      Files.copy(input, first.resolve("Bindings.class"));
+    }
+    Files.copy(first.resolve("Bindings.class"), second.resolve("Bindings.class"));
+    try {
+      final List<URL> classFiles = Arrays.asList(
+          first.resolve("Bindings.class").toUri().toURL(),
+          second.resolve("Bindings.class").toUri().toURL());
+      final List<Class<?>> classes = JavaBindingsProvider.loadBindingsClasses(classFiles);
+      Assert.assertEquals(2, classes.size());
+      Assert.assertEquals("Bindings", classes.get(0).getName());
+      Assert.assertEquals("Bindings", classes.get(1).getName());
+      Assert.assertNotSame(classes.get(0), classes.get(1));
+      Assert.assertNotSame(classes.get(0).getClassLoader(), classes.get(1).getClassLoader());
+      Assert.assertNotNull(new JavaBindingsProvider(classes.subList(1, 2)).getImplementation(RemotePropertiesLookup.class, "null"));
+
+      Files.write(second.resolve("Bindings.class"), new byte[] {1, 2, 3});
+      try {
+        JavaBindingsProvider.loadBindingsClasses(classFiles);
+        Assert.fail("Class file without magic number should not load");
+      } catch (final IllegalStateException expected) {
+        Assert.assertTrue(expected.getCause() instanceof ClassNotFoundException);
+      }
+    } finally {
+      Files.delete(first.resolve("Bindings.class"));
+      Files.delete(second.resolve("Bindings.class"));
+      Files.delete(first);
+      Files.delete(second);
+    }
+  }
+
+  @Test
+  public void testLoadBindingsClassesOfSameCodeSource() throws Exception {
+    final List<String> classNames = Arrays.asList(
+        BindingsSnapshotTest.SnapshotBindings.class.getName(),
+        BindingsSnapshotTest.MoreBindings.class.getName(),
+        "Bindings");
+    final List<URL> classFiles = Arrays.asList(
+        BindingsSnapshotTest.SnapshotBindings.class.getResource("BindingsSnapshotTest$SnapshotBindings.class"),
+        BindingsSnapshotTest.MoreBindings.class.getResource("BindingsSnapshotTest$MoreBindings.class"),
+        JavaBindingsProvider.class.getClassLoader().getResource("Bindings.class"));
+    final List<Class<?>> classes = JavaBindingsProvider.loadBindingsClasses(classFiles, classNames);
+    // test classes link to each other, main classes are somewhere else
+    Assert.assertSame(classes.get(0).getClassLoader(), classes.get(1).getClassLoader());
+    Assert.assertNotSame(classes.get(0).getClassLoader(), classes.get(2).getClassLoader());
+    Assert.assertNotSame(BindingsSnapshotTest.SnapshotBindings.class, classes.get(0));
+  }
+
   @Test
   public void testDefaultInterface() throws Exception {
     final JavaBindingsProvider provider =
@@ -57,6 +115,52 @@ public class JavaBindingsProviderTest {
     } catch (final ObjectInitializationException e) {}
   }
 
+  @Test
+  public void testDefaultOverrideChanges() throws Exception {
+    final JavaBindingsProvider provider =
+        new JavaBindingsProvider(
+            Arrays.asList(InterfaceBinding.class));
+    final MemoryPropertiesProvider properties = new MemoryPropertiesProvider();
+    PropertiesResolverFactory.getInstance().announcePropertiesProvider("override-test", 6);
+    PropertiesResolverFactory.getInstance().registerPropertiesProvider("override-test", properties);
+    try {
+      final ImplementationFactory<?> defaultImplementation =
+          provider.getDefaultImplementation(MyInterface.class);
+      Assert.assertSame(defaultImplementation, provider.getDefaultImplementation(MyInterface.class));
+
+      properties.addProperty(MyInterface.class.getName().replace('$', '.'), "another");
+      Assert.assertSame(provider.getImplementation(MyInterface.class, "another"),
+          provider.getDefaultImplementation(MyInterface.class));
+
+      properties.clear();
+      Assert.assertSame(defaultImplementation, provider.getDefaultImplementation(MyInterface.class));
+    } finally {
+      PropertiesResolverFactory.getInstance().registerPropertiesProvider("override-test", null);
+    }
+  }
+
+  @Test
+  public void testFrozen() throws Exception {
+    final JavaBindingsProvider provider =
+        new JavaBindingsProvider(
+            Arrays.asList(InterfaceBinding.class));
+    Assert.assertTrue(provider.isFrozen());
+
+    final Map<String, ImplementationFactory<? extends Policy>> policies = provider.getImplementations(Policy.class);
+    Assert.assertSame(policies, provider.getImplementations(Policy.class));
+    Assert.assertSame(provider.getInterfaceBindingsMap(), provider.getInterfaceBindingsMap());
+    try {
+      policies.remove("p1");
+      Assert.fail("Frozen bindings changed");
+    } catch (final UnsupportedOperationException expected) {}
+
+    try {
+      provider.getInterfaceBindingsMap().get(Policy.class)
+          .addImplementationFactory("p3", provider.getImplementation(Policy.class, "p1"));
+      Assert.fail("Frozen binding changed");
+    } catch (final IllegalStateException expected) {}
+  }
+
   public static class InterfaceBinding implements JavaBindings {
     @Override
     public void register(final BindingsFactory def) {
@@ -0,0 +1,135 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+
+public class LazyRefTest {
+  private static final AtomicInteger created = new AtomicInteger();
+
+  @Test
+  public void testLazyRef() throws Exception {
+    final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(LazyBindings.class));
+
+    final Service service = provider.getDefaultImplementation(Service.class).initialize();
+    Assert.assertEquals(0, created.get());
+    Assert.assertTrue(service.store.toString().contains("not initialized"));
+
+    Assert.assertEquals("remote", service.store.name());
+    Assert.assertEquals("remote", service.store.name());
+    Assert.assertEquals(1, created.get());
+    Assert.assertEquals("remote", service.store.toString());
+
+    // the real object is the singleton everyone else gets
+    provider.getImplementation(Store.class, "remote").initialize();
+    Assert.assertEquals(1, created.get());
+    Assert.assertEquals("local", service.local.name());
+  }
+
+  @Test
+  public void testLazyRefToPackagePrivateInterface() throws Exception {
+    final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(HiddenBindings.class));
+
+    final Client client = provider.getDefaultImplementation(Client.class).initialize();
+    Assert.assertEquals(1, client.counter.next());
+    Assert.assertEquals(2, client.counter.next());
+    try {
+      client.counter.fail();
+      Assert.fail();
+    } catch (final IllegalArgumentException expected) {
+      // the target's own exception, not a wrapper
+      Assert.assertEquals("failed", expected.getMessage());
+    }
+  }
+
+  public static class HiddenBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(SimpleCounter.class)
+          .iface(Counter.class);
+      def.def(Client.class)
+          .lazyRef("counter", Counter.class);
+    }
+  }
+
+  interface Counter {
+    int next();
+
+    void fail();
+  }
+
+  public static class SimpleCounter implements Counter {
+    private int count;
+
+    @Override
+    public int next() {
+      return ++this.count;
+    }
+
+    @Override
+    public void fail() {
+      throw new IllegalArgumentException("failed");
+    }
+  }
+
+  public static class Client {
+    public Counter counter;
+  }
+
+  public static class LazyBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(RemoteStore.class)
+          .iface(Store.class, "remote");
+      def.def(LocalStore.class)
+          .iface(Store.class, "local");
+
+      def.def(Service.class)
+          .lazyRef("store", Store.class)
+          .lazyRef("local", Store.class, "local")
+          .withRef(Store.class, "remote");
+    }
+  }
+
+  public interface Store {
+    String name();
+  }
+
+  public static class RemoteStore implements Store {
+    public RemoteStore() {
+      created.incrementAndGet();
+    }
+
+    @Override
+    public String name() {
+      return "remote";
+    }
+
+    @Override
+    public String toString() {
+      return name();
+    }
+  }
+
+  public static class LocalStore implements Store {
+    @Override
+    public String name() {
+      return "local";
+    }
+  }
+
+  public static class Service {
+    public Store store;
+    public Store local;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+
+public class LazyRegistrationTest {
+
+  @Test
+  public void testSharedDefinition() throws Exception {
+    final JavaBindingsProvider provider = JavaBindingsProvider.lazy(Arrays.asList(SharedBindings.class));
+    Assert.assertTrue(provider.isFrozen());
+
+    final Reader reader = provider.getDefaultImplementation(Reader.class).initialize();
+    Assert.assertTrue(reader instanceof FileStore);
+    // registered for Reader already, the same singleton
+    Assert.assertSame(reader, provider.getImplementation(Writer.class, "file").initialize());
+    Assert.assertTrue(provider.getDefaultImplementation(Writer.class).initialize() instanceof NullWriter);
+    Assert.assertEquals(1, provider.getImplementations(Writer.class).size());
+
+    final Client client = provider.getDefaultImplementation(Client.class).initialize();
+    Assert.assertSame(reader, client.reader);
+
+    try {
+      provider.getDefaultImplementation(Runnable.class);
+      Assert.fail("Nothing binds Runnable");
+    } catch (final ConfigurationItemNotDefinedException expected) {}
+
+    Assert.assertEquals(provider.getInterfaceBindingsMap().keySet(),
+        new JavaBindingsProvider(Arrays.asList(SharedBindings.class)).getInterfaceBindingsMap().keySet());
+  }
+
+  @Test
+  public void testIllegalDefinitionFailsOnLookup() throws Exception {
+    try {
+      new JavaBindingsProvider(Arrays.asList(IllegalBindings.class));
+      Assert.fail("FileStore doesn't implement Runnable");
+    } catch (final IllegalStateException expected) {}
+
+    final JavaBindingsProvider provider = JavaBindingsProvider.lazy(Arrays.asList(IllegalBindings.class));
+    Assert.assertTrue(provider.getDefaultImplementation(Writer.class).initialize() instanceof NullWriter);
+    try {
+      provider.getDefaultImplementation(Runnable.class);
+      Assert.fail("FileStore doesn't implement Runnable");
+    } catch (final IllegalStateException expected) {}
+  }
+
+  @Test
+  public void testSelfTestRegistersEverything() {
+    final JavaBindingsProvider provider = JavaBindingsProvider.lazy(Arrays.asList(SharedBindings.class));
+    Assert.assertTrue(provider.selfTest().isEmpty());
+    Assert.assertTrue(provider.getInterfaceBindingsMap().containsKey(Writer.class));
+    Assert.assertTrue(provider.getInterfaceBindingsMap().containsKey(Client.class));
+  }
+
+  public static class SharedBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(FileStore.class)
+          .iface(Reader.class)
+          .iface(Writer.class, "file");
+      def.def(NullWriter.class, Writer.class);
+      def.builder(Client.Builder.class)
+          .ref("reader", Reader.class);
+    }
+  }
+
+  public static class IllegalBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(FileStore.class, Runnable.class);
+      def.def(NullWriter.class, Writer.class);
+    }
+  }
+
+  public interface Reader {
+  }
+
+  public interface Writer {
+  }
+
+  public static class FileStore implements Reader, Writer {
+  }
+
+  public static class NullWriter implements Writer {
+  }
+
+  public static class Client {
+    private final Reader reader;
+
+    private Client(final Reader reader) {
+      this.reader = reader;
+    }
+
+    public static class Builder {
+      public Reader reader;
+
+      public Client build() {
+        return new Client(this.reader);
+      }
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+
+public class ScopeTest {
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(ScopeBindings.class));
+
+  @After
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  private Object get(final String name) throws Exception {
+    return this.provider.getImplementation(Resource.class, name).initialize();
+  }
+
+  @Test
+  public void testPrototype() throws Exception {
+    Assert.assertNotSame(get("prototype"), get("prototype"));
+    Assert.assertSame(get("singleton"), get("singleton"));
+  }
+
+  @Test
+  public void testThreadLocal() throws Exception {
+    final Object mine = get("thread");
+    Assert.assertSame(mine, get("thread"));
+    final Object other = this.executor.submit(() -> get("thread")).get(10, TimeUnit.SECONDS);
+    Assert.assertNotSame(mine, other);
+    Assert.assertSame(other, this.executor.submit(() -> get("thread")).get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testSoft() throws Exception {
+    Assert.assertSame(get("soft"), get("soft"));
+  }
+
+  @Test
+  public void testPooled() throws Exception {
+    final Worker worker = this.provider.getDefaultImplementation(Worker.class).initialize();
+    final Pool<Resource> pool = worker.resources;
+    Assert.assertEquals(2, pool.getMaxSize());
+
+    final Resource first = pool.borrow();
+    final Resource second = pool.borrow();
+    Assert.assertNotSame(first, second);
+    Assert.assertEquals(2, pool.getActiveCount());
+    Assert.assertNull(pool.borrow(10, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(1, pool.getWaitCount());
+
+    pool.release(second);
+    Assert.assertEquals(1, pool.getIdleCount());
+    Assert.assertSame(second, pool.borrow());
+    pool.release(first);
+    pool.release(second);
+
+    Assert.assertEquals(2, pool.getCreatedCount());
+    Assert.assertEquals(3, pool.getBorrowCount());
+    Assert.assertEquals(0, pool.getActiveCount());
+
+    // a second release or a foreign instance doesn't grow the pool
+    try {
+      pool.release(first);
+      Assert.fail();
+    } catch (final IllegalArgumentException expected) {}
+    try {
+      pool.release(new Resource());
+      Assert.fail();
+    } catch (final IllegalArgumentException expected) {}
+    Assert.assertEquals(0, pool.getActiveCount());
+    Assert.assertEquals(2, pool.getIdleCount());
+    // everyone referencing the binding shares the pool
+    Assert.assertSame(pool, this.provider.getImplementation(Worker.class, "other").initialize().resources);
+  }
+
+  @Test
+  public void testPoolWaitsForRelease() throws Exception {
+    final Pool<Resource> pool = this.provider.getDefaultImplementation(Worker.class).initialize().resources;
+    final Resource first = pool.borrow();
+    final Resource second = pool.borrow();
+    this.executor.submit(() -> {
+      Thread.sleep(50);
+      pool.release(first);
+      return null;
+    });
+    Assert.assertSame(first, pool.borrow(10, TimeUnit.SECONDS));
+    pool.release(first);
+    pool.release(second);
+  }
+
+  public static class ScopeBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(Resource.class)
+          .iface(Resource.class, "singleton");
+      def.def(Resource.class)
+          .iface(Resource.class, "prototype")
+          .scope(Scope.PROTOTYPE);
+      def.def(Resource.class)
+          .iface(Resource.class, "thread")
+          .scope(Scope.THREAD_LOCAL);
+      def.def(Resource.class)
+          .iface(Resource.class, "soft")
+          .scope(Scope.SOFT);
+      def.def(Resource.class)
+          .iface(Resource.class, "pooled")
+          .pooled(2);
+
+      def.def(Worker.class)
+          .iface(Worker.class)
+          .ref("resources", Resource.class, "pooled");
+      def.def(Worker.class)
+          .iface(Worker.class, "other")
+          .ref("resources", Resource.class, "pooled");
+    }
+  }
+
+  public static class Resource {
+  }
+
+  public static class Worker {
+    public Pool<Resource> resources;
+  }
+}
@@ -0,0 +1,361 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+import com.ibm.ioc.impl.BindingsProviderBase;
+import com.ibm.ioc.impl.ImplementationFactory;
+import com.ibm.ioc.impl.InterfaceBinding;
+import com.ibm.ioc.impl.NamedEvaluator;
+
+public class SelfTestTest {
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testStrictness() {
+    System.setProperty("selftest.port", "not a number");
+    try {
+      final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(InvalidValueBindings.class));
+
+      final SelfTestReport strict = provider.selfTest(SelfTestOptions.defaults());
+      Assert.assertFalse(strict.isSuccessful());
+      Assert.assertEquals(1, strict.getFailures().size());
+      final SelfTestReport.Result failure = strict.getFailures().get(0);
+      Assert.assertEquals(Server.class, failure.getInterfaceClass());
+      Assert.assertNull(failure.getReferral());
+      Assert.assertEquals(SelfTestReport.Status.FAILED, failure.getStatus());
+      Assert.assertEquals(1, provider.selfTest().size());
+      // strictness is not leaked to the JVM or the calling thread
+      Assert.assertNull(System.getProperty(TypeUtils.DISALLOW_INVALID_VALUES_TEST_PROPERTY));
+      Assert.assertFalse(TypeUtils.isStrict());
+
+      final SelfTestOptions.Builder lenient = new SelfTestOptions.Builder();
+      lenient.strict = false;
+      Assert.assertTrue(new JavaBindingsProvider(Arrays.asList(InvalidValueBindings.class))
+          .selfTest(lenient.build()).isSuccessful());
+    } finally {
+      System.clearProperty("selftest.port");
+    }
+  }
+
+  @Test
+  public void testErrorsFailWithTheirCause() throws Exception {
+    final BindingsProviderBase provider = new BindingsProviderBase() {
+      {
+        getOrCreateInterfaceBinding(Failing.class).setDefaultImplementationFactory(new FailingFactory());
+      }
+    };
+    final SelfTestOptions.Builder options = new SelfTestOptions.Builder();
+    options.timeout = Duration.ofSeconds(30);
+    final long start = System.nanoTime();
+    final SelfTestReport report = provider.selfTest(options.build());
+    Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(options.timeout) < 0);
+    final SelfTestReport.Result failure = report.getFailures().get(0);
+    Assert.assertEquals(SelfTestReport.Status.FAILED, failure.getStatus());
+    Assert.assertTrue(String.valueOf(failure.getFailure()), failure.getFailure() instanceof AssertionError);
+  }
+
+  @Test
+  public void testDefaultSelfTest() {
+    System.setProperty("selftest.port", "not a number");
+    try {
+      final BindingsProvider provider = delegate(new JavaBindingsProvider(Arrays.asList(InvalidValueBindings.class)));
+      final SelfTestReport strict = provider.selfTest(SelfTestOptions.defaults());
+      Assert.assertEquals(1, strict.getResults().size());
+      Assert.assertEquals(SelfTestReport.Status.FAILED, strict.getFailures().get(0).getStatus());
+      Assert.assertFalse(TypeUtils.isStrict());
+
+      final SelfTestOptions.Builder lenient = new SelfTestOptions.Builder();
+      lenient.strict = false;
+      Assert.assertTrue(delegate(new JavaBindingsProvider(Arrays.asList(InvalidValueBindings.class)))
+          .selfTest(lenient.build()).isSuccessful());
+    } finally {
+      System.clearProperty("selftest.port");
+    }
+  }
+
+  // Implements only what BindingsProvider requires, for its default methods
+  private static BindingsProvider delegate(final BindingsProvider provider) {
+    return new BindingsProvider() {
+      @Override
+      public <T> ImplementationFactory<T> getDefaultImplementation(final Class<T> interfaceClass)
+          throws ConfigurationItemNotDefinedException {
+        return provider.getDefaultImplementation(interfaceClass);
+      }
+
+      @Override
+      public <T> ImplementationFactory<T> getImplementation(final Class<T> interfaceClass, final String referral)
+          throws ConfigurationItemNotDefinedException {
+        return provider.getImplementation(interfaceClass, referral);
+      }
+
+      @Override
+      public <T> Map<String, ImplementationFactory<? extends T>> getImplementations(final Class<T> interfaceClass)
+          throws ConfigurationItemNotDefinedException {
+        return provider.getImplementations(interfaceClass);
+      }
+
+      @Override
+      public Map<Class<?>, List<String>> selfTest() {
+        return provider.selfTest();
+      }
+
+      @Override
+      public Map<Class<?>, InterfaceBinding> getInterfaceBindingsMap() {
+        return provider.getInterfaceBindingsMap();
+      }
+    };
+  }
+
+  @Test
+  public void testParallelWithTimeout() {
+    final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(SlowBindings.class));
+    final SelfTestOptions.Builder options = new SelfTestOptions.Builder();
+    options.parallelism = 3;
+    options.timeout = Duration.ofSeconds(2);
+
+    final SelfTestReport report = provider.selfTest(options.build());
+    Assert.assertTrue(report.getElapsed().toMillis() < 10_000);
+    Assert.assertEquals(report.toString(), 3, report.getResults().size());
+    for (final SelfTestReport.Result result : report.getResults()) {
+      if (result.getInterfaceClass() == Hanging.class) {
+        Assert.assertEquals(SelfTestReport.Status.TIMED_OUT, result.getStatus());
+        Assert.assertEquals(Duration.ofSeconds(2), result.getDuration());
+      } else {
+        // each one waits for the other, they only pass if they run at the same time
+        Assert.assertEquals(result.toString(), SelfTestReport.Status.PASSED, result.getStatus());
+      }
+    }
+    Assert.assertTrue(report.toString(), report.toString().contains("TIMED_OUT"));
+  }
+
+  @Test
+  public void testTimedOutCheckFreesItsThread() {
+    final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(HangingBindings.class));
+    final SelfTestOptions.Builder options = new SelfTestOptions.Builder();
+    options.parallelism = 1;
+    options.timeout = Duration.ofMillis(200);
+
+    final SelfTestReport report = provider.selfTest(options.build());
+    Assert.assertEquals(1, report.getFailures().size());
+    Assert.assertEquals(Hanging.class, report.getFailures().get(0).getInterfaceClass());
+    Assert.assertEquals(report.toString(), 2, report.getResults().size());
+  }
+
+  @Test
+  public void testCachedResults() throws Exception {
+    final Path cache = this.folder.getRoot().toPath().resolve("selftest.cache");
+    final SelfTestOptions.Builder options = new SelfTestOptions.Builder();
+    options.cache = cache;
+    System.setProperty("selftest.cached.port", "8080");
+    try {
+      Counted.instances.set(0);
+      final SelfTestReport first = new JavaBindingsProvider(Arrays.asList(CountedBindings.class))
+          .selfTest(options.build());
+      Assert.assertTrue(first.isSuccessful());
+      Assert.assertFalse(first.isCached());
+      Assert.assertEquals(1, Counted.instances.get());
+      Assert.assertTrue(Files.exists(cache));
+      // values are only kept as digests
+      Assert.assertFalse(new String(Files.readAllBytes(cache), "UTF-8").contains("8080"));
+
+      final SelfTestReport second = new JavaBindingsProvider(Arrays.asList(CountedBindings.class))
+          .selfTest(options.build());
+      Assert.assertTrue(second.isSuccessful());
+      Assert.assertTrue(second.isCached());
+      Assert.assertEquals(SelfTestReport.Status.CACHED, second.getResults().get(0).getStatus());
+      Assert.assertEquals(1, Counted.instances.get());
+
+      // a property the factory read changed
+      System.setProperty("selftest.cached.port", "8081");
+      final SelfTestReport changed = new JavaBindingsProvider(Arrays.asList(CountedBindings.class))
+          .selfTest(options.build());
+      Assert.assertFalse(changed.isCached());
+      Assert.assertEquals(2, Counted.instances.get());
+
+      // other bindings
+      final SelfTestReport other = new JavaBindingsProvider(
+          Arrays.asList(CountedBindings.class, InvalidValueBindings.class)).selfTest(options.build());
+      Assert.assertFalse(other.isCached());
+      Assert.assertEquals(3, Counted.instances.get());
+
+      // without a cache the self test always runs
+      Assert.assertTrue(new JavaBindingsProvider(Arrays.asList(CountedBindings.class)).selfTest().isEmpty());
+      Assert.assertEquals(4, Counted.instances.get());
+    } finally {
+      System.clearProperty("selftest.cached.port");
+    }
+  }
+
+  @Test
+  public void testSingletonsCreatedBeforeKeyCachedResults() throws Exception {
+    final Path cache = this.folder.getRoot().toPath().resolve("selftest.cache");
+    final SelfTestOptions.Builder options = new SelfTestOptions.Builder();
+    options.cache = cache;
+    System.setProperty("selftest.cached.port", "8080");
+    try {
+      // the singleton reads its property on another thread before the self test
+      final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(CountedBindings.class));
+      final Thread thread = new Thread(() -> {
+        try {
+          provider.getDefaultImplementation(Counted.class).initialize();
+        } catch (final Exception e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      thread.start();
+      thread.join();
+      Assert.assertFalse(provider.selfTest(options.build()).isCached());
+
+      System.setProperty("selftest.cached.port", "8081");
+      final SelfTestReport changed = new JavaBindingsProvider(Arrays.asList(CountedBindings.class))
+          .selfTest(options.build());
+      Assert.assertTrue(changed.isSuccessful());
+      Assert.assertFalse(changed.isCached());
+    } finally {
+      System.clearProperty("selftest.cached.port");
+    }
+  }
+
+  @Test
+  public void testFailuresNotCached() throws Exception {
+    final Path cache = this.folder.getRoot().toPath().resolve("selftest.cache");
+    final SelfTestOptions.Builder options = new SelfTestOptions.Builder();
+    options.cache = cache;
+    System.setProperty("selftest.port", "not a number");
+    try {
+      Assert.assertFalse(new JavaBindingsProvider(Arrays.asList(InvalidValueBindings.class))
+          .selfTest(options.build()).isSuccessful());
+      Assert.assertFalse(Files.exists(cache));
+    } finally {
+      System.clearProperty("selftest.port");
+    }
+  }
+
+  public static class CountedBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(Counted.class)
+          .prop("port", "selftest.cached.port");
+    }
+  }
+
+  public static class Counted {
+    static final AtomicInteger instances = new AtomicInteger();
+    public Integer port;
+
+    public Counted() {
+      instances.incrementAndGet();
+    }
+  }
+
+  public static class HangingBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(Hanging.class);
+      def.def(Server.class);
+    }
+  }
+
+  public static class InvalidValueBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(Server.class)
+          .prop("port", "selftest.port");
+    }
+  }
+
+  public static class SlowBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(Hanging.class);
+      def.def(Left.class);
+      def.def(Right.class);
+    }
+  }
+
+  public static class Failing {
+  }
+
+  // Lets an error through, as factories of other providers may
+  private static class FailingFactory implements ImplementationFactory<Failing> {
+    @Override
+    public Failing initialize(final Map<Class<?>, String> overrides) {
+      throw new AssertionError("broken");
+    }
+
+    @Override
+    public Class<Failing> getImplementationClass(final Map<Class<?>, String> overrides) {
+      return Failing.class;
+    }
+
+    @Override
+    public List<NamedEvaluator> getParameters(final Map<Class<?>, String> overrides) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Set<Class<?>> getDefaultRefs(final Map<Class<?>, String> overrides) {
+      return Collections.emptySet();
+    }
+
+    @Override
+    public Map<Class<?>, String> getCombinedOverrides(final Map<Class<?>, String> overrides) {
+      return overrides;
+    }
+
+    @Override
+    public Map<Class<?>, String> getImplementedInterfaces() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public void setImplementedInterfaces(final Map<Class<?>, String> interfaceMap) {}
+  }
+
+  public static class Server {
+    public Integer port;
+  }
+
+  private static final CyclicBarrier barrier = new CyclicBarrier(2);
+
+  public static class Left {
+    public Left() throws Exception {
+      barrier.await(5, TimeUnit.SECONDS);
+    }
+  }
+
+  public static class Right {
+    public Right() throws Exception {
+      barrier.await(5, TimeUnit.SECONDS);
+    }
+  }
+
+  public static class Hanging {
+    public Hanging() throws InterruptedException {
+      Thread.sleep(60_000);
+    }
+  }
+}
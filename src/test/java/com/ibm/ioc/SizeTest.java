@@ -0,0 +1,26 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SizeTest {
+
+  @Test
+  public void sizeTest() {
+    Assert.assertEquals(3L * Size.GiB / 2, Size.getSizeInBytes(" 1.5 gb"));
+    Assert.assertEquals(512, Size.getSizeInBytes("512"));
+    Assert.assertEquals("1.50 GiB", Size.getSizeInString(3L * Size.GiB / 2, 2));
+    Assert.assertEquals("1000   B", Size.getSizeInString(1000, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sizeBadMultiplierTest() {
+    Size.getSizeInBytes("1 sec");
+  }
+}
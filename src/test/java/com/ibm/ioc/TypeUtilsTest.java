@@ -13,9 +13,19 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.google.common.collect.Lists;
+import com.google.common.primitives.ImmutableIntArray;
+import com.google.common.primitives.ImmutableLongArray;
 
 // TODO: Describe class or interface
 public class TypeUtilsTest {
+  public enum Mode {
+    READ_ONLY, ReadWrite, lazy;
+
+    public static Mode fromString(final String value) {
+      return "rw".equals(value) ? ReadWrite : null;
+    }
+  }
+
   @Test
   public void test1() {
     Assert.assertEquals(TypeUtils.getNonPrimitiveFor(String.class), String.class);
@@ -93,6 +103,27 @@ public class TypeUtilsTest {
 
   }
 
+  @Test
+  public void conversionPrimitiveArrayTest() {
+    Assert.assertArrayEquals(new int[] {1, 2, 3},
+        (int[]) TypeUtils.createObjectFromString(int[].class, " [1, 2,3 ] "));
+    Assert.assertArrayEquals(new int[] {1024, 2 * 60 * 1000},
+        (int[]) TypeUtils.createObjectFromString(int[].class, "[\"1KB\", '2 min']"));
+    Assert.assertArrayEquals(new long[] {-5L, 3L * 1024 * 1024 * 1024 * 1024},
+        (long[]) TypeUtils.createObjectFromString(long[].class, "[-5, 3TiB]"));
+    Assert.assertArrayEquals(new double[] {1.5, -2, 0.001},
+        (double[]) TypeUtils.createObjectFromString(double[].class, "[1.5, -2, 1e-3]"), 0);
+    Assert.assertArrayEquals(new int[0], (int[]) TypeUtils.createObjectFromString(int[].class, "[]"));
+    Assert.assertEquals(ImmutableLongArray.of(7, 8),
+        TypeUtils.createObjectFromString(ImmutableLongArray.class, "[7, 8]"));
+    Assert.assertEquals(ImmutableIntArray.of(Integer.MAX_VALUE),
+        TypeUtils.createObjectFromString(ImmutableIntArray.class, "[2147483647]"));
+
+    Assert.assertNull(TypeUtils.createObjectFromString(int[].class, "[1, x]"));
+    Assert.assertNull(TypeUtils.createObjectFromString(int[].class, "[2147483648]"));
+    Assert.assertNull(TypeUtils.createObjectFromString(ImmutableIntArray.class, "[1, x]"));
+  }
+
   @Test
   public void conversionStringListTest() {
     final List<String> l = TypeUtils.createListOfType(String.class, Lists.newArrayList("a", "b"));
@@ -139,4 +170,16 @@ public class TypeUtilsTest {
     Assert.assertEquals(Lists.newArrayList(1L, 2L), l);
   }
 
+  @Test
+  public void conversionEnumTest() {
+    Assert.assertEquals(Mode.READ_ONLY, TypeUtils.createObjectFromString(Mode.class, "READ_ONLY"));
+    Assert.assertEquals(Mode.READ_ONLY, TypeUtils.createObjectFromString(Mode.class, "read_only"));
+    Assert.assertEquals(Mode.ReadWrite, TypeUtils.createObjectFromString(Mode.class, "read-write"));
+    Assert.assertEquals(Mode.lazy, TypeUtils.createObjectFromString(Mode.class, "LAZY"));
+    Assert.assertEquals(Mode.ReadWrite, TypeUtils.createObjectFromString(Mode.class, "rw"));
+    Assert.assertEquals(Mode.ReadWrite, TypeUtils.createObjectFromString(Mode.class, "RW"));
+    // seen spellings are served from the table
+    Assert.assertEquals(Mode.ReadWrite, TypeUtils.createObjectFromString(Mode.class, "read-write"));
+    Assert.assertNull(TypeUtils.createObjectFromString(Mode.class, "write"));
+  }
 }
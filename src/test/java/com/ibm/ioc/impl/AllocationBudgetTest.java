@@ -0,0 +1,103 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.ioc.AllocationMeter;
+import com.ibm.ioc.JavaBindings;
+import com.ibm.ioc.JavaBindingsProvider;
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+
+/**
+ * Budgets in bytes per operation for warmed-up hot paths. Budgets leave room for JIT variance, when one fails look for
+ * new garbage on that path before raising it.
+ */
+public class AllocationBudgetTest {
+  private static final long PROPERTY_READ_BUDGET = 512;
+  private static final long PROPERTY_VARIANT_READ_BUDGET = 2048;
+  // resolve() evaluates a setter reflectively, 5504 bytes when last measured
+  private static final long TYPED_RESOLVE_BUDGET = 6144;
+  private static final long MODIFIABLE_READ_BUDGET = 64;
+  private static final long SINGLETON_LOOKUP_BUDGET = 64;
+
+  private OrderedPropertiesResolver resolver;
+
+  @Before
+  public void setUp() {
+    Assume.assumeTrue(AllocationMeter.isSupported());
+    final MemoryPropertiesProvider properties = new MemoryPropertiesProvider();
+    properties.addProperty("budget.port", "8080");
+    properties.addProperty("budget.block-size", "4096");
+    this.resolver = new OrderedPropertiesResolver();
+    this.resolver.announcePropertiesProvider("memory", 1);
+    this.resolver.registerPropertiesProvider("memory", properties);
+  }
+
+  private static void assertBudget(final String operation, final long budget, final AllocationMeter.Operation run)
+      throws Exception {
+    final double bytes = AllocationMeter.bytesPerOperation(run);
+    Assert.assertTrue(operation + " allocates " + bytes + " bytes, budget is " + budget, bytes <= budget);
+  }
+
+  @Test
+  public void testPropertyRead() throws Exception {
+    assertBudget("getProperty", PROPERTY_READ_BUDGET, () -> this.resolver.getProperty("budget.port"));
+  }
+
+  @Test
+  public void testPropertyVariantRead() throws Exception {
+    // found under its dashed variant only
+    assertBudget("getProperty of a variant", PROPERTY_VARIANT_READ_BUDGET,
+        () -> this.resolver.getProperty("budget.blockSize"));
+  }
+
+  @Test
+  public void testTypedResolve() throws Exception {
+    assertBudget("resolveInt", TYPED_RESOLVE_BUDGET, () -> this.resolver.resolveInt("budget.port"));
+  }
+
+  @Test
+  public void testModifiableRead() throws Exception {
+    final Modifiable<?> modifiable = this.resolver.resolveModifiable("budget.port");
+    assertBudget("Modifiable.get", MODIFIABLE_READ_BUDGET, modifiable::get);
+    assertBudget("resolveModifiable and get", MODIFIABLE_READ_BUDGET,
+        () -> this.resolver.resolveModifiable("budget.port").get());
+  }
+
+  @Test
+  public void testSingletonLookup() throws Exception {
+    final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(BudgetBindings.class));
+    final ImplementationFactory<Service> factory = provider.getDefaultImplementation(Service.class);
+    final Service service = factory.initialize();
+    Assert.assertSame(service, factory.initialize());
+    assertBudget("initialize of a created singleton", SINGLETON_LOOKUP_BUDGET, factory::initialize);
+    assertBudget("getDefaultImplementation and initialize", SINGLETON_LOOKUP_BUDGET,
+        () -> provider.getDefaultImplementation(Service.class).initialize());
+  }
+
+  public static class BudgetBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(Store.class);
+      def.def(Service.class)
+          .ref("store", Store.class);
+    }
+  }
+
+  public static class Store {
+  }
+
+  public static class Service {
+    public Store store;
+  }
+}
@@ -0,0 +1,31 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.ibm.ioc.ObjectInstantiationException;
+
+public class ConstructorImplementationFactoryTest {
+  @Test
+  public void testInaccessibleConstructor() throws Exception {
+    // java.util is only closed to reflection from Java 9 on
+    Assume.assumeFalse(System.getProperty("java.version").startsWith("1."));
+    final ConstructorImplementationFactory<Collections> factory =
+        new ConstructorImplementationFactory<>(Collections.class, Collections.emptyList(), null);
+    try {
+      factory.initialize(Collections.emptyMap());
+      Assert.fail();
+    } catch (final ObjectInstantiationException expected) {
+      Assert.assertTrue(expected.getMessage(), expected.getMessage().contains("is not accessible"));
+    }
+  }
+}
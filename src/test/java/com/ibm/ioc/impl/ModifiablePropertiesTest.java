@@ -6,6 +6,7 @@
 
 package com.ibm.ioc.impl;
 
+import java.lang.ref.WeakReference;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
@@ -24,12 +25,14 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.primitives.ImmutableDoubleArray;
 import com.ibm.ioc.BindingsProvider;
 import com.ibm.ioc.JavaBindings;
 import com.ibm.ioc.JavaBindingsProvider;
 import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
 import com.ibm.ioc.PropertiesResolverFactory;
 import com.ibm.ioc.Size;
+import com.ibm.ioc.TypeUtils;
 import com.ibm.ioc.parsers.LongParser;
 
 public class ModifiablePropertiesTest {
@@ -71,6 +74,10 @@ public class ModifiablePropertiesTest {
 
     public Map<String, LocalDateTime> testLocalDateTimeMap;
     public Modifiable<Map<String, LocalDateTime>> testModifiableLocalDateTimeMap;
+
+    public int[] testIntArray;
+    public Modifiable<long[]> testModifiableLongArray;
+    public ImmutableDoubleArray testDoubleArray;
   }
 
   public static class Bindings implements JavaBindings {
@@ -106,7 +113,10 @@ public class ModifiablePropertiesTest {
           .prop("test-local-time-map", "test-local-time-map")
           .prop("test-modifiable-local-time-map", "test_modifiable_local_time_map")
           .prop("test-local-date-time-map", "test-local-date-time-map")
-          .prop("test-modifiable-local-date-time-map", "test-modifiable-local-date-time-map");
+          .prop("test-modifiable-local-date-time-map", "test-modifiable-local-date-time-map")
+          .prop("test-int-array", "test-int-array")
+          .prop("test-modifiable-long-array", "test-modifiable-long-array")
+          .prop("test-double-array", "test-double-array");
 
       def.builder(BuiltTestImplBuilder.class)
           .prop("test-string-1", "test-string-1")
@@ -956,6 +966,29 @@ public class ModifiablePropertiesTest {
 
   }
 
+  @Test
+  public void testPrimitiveArrays() throws Exception {
+    this.propertiesProvider.addProperty("test-int-array", "[1, -2, \"3KB\", 4.5]");
+    this.propertiesProvider.addProperty("test-modifiable-long-array", "[10, 20GiB]");
+    this.propertiesProvider.addProperty("test-double-array", "[0.5, 1, 2e3]");
+
+    final TestImpl testObj =
+        this.bindingsProvider.getDefaultImplementation(TestImpl.class)
+            .initialize();
+
+    Assert.assertArrayEquals(new int[] {1, -2, 3 * 1024, 4}, testObj.testIntArray);
+    Assert.assertArrayEquals(new long[] {10L, 20L * 1024 * 1024 * 1024},
+        testObj.testModifiableLongArray.get());
+    Assert.assertEquals(ImmutableDoubleArray.of(0.5, 1, 2000), testObj.testDoubleArray);
+    Assert.assertEquals(Arrays.asList(0.5, 1.0, 2000.0), testObj.testDoubleArray.asList());
+
+    this.propertiesProvider.addProperty("test-modifiable-long-array", "[]");
+    Assert.assertEquals(0, testObj.testModifiableLongArray.get().length);
+
+    this.propertiesProvider.clear();
+    Assert.assertNull(testObj.testModifiableLongArray.get());
+  }
+
   @Test
   public void testModifiableMap() throws Exception {
     this.propertiesProvider.addProperty("test-map",
@@ -1760,4 +1793,71 @@ public class ModifiablePropertiesTest {
     Assert.assertEquals("01:02:03.654", testObj.getTestLocalTime1().toString()); // doesn't update, no setter
     Assert.assertNull(testObj.getTestLocalDateTime1());
   }
+
+  @Test
+  public void testSharedTypedViews() throws Exception {
+    final ModifiableImpl<Object> original = new ModifiableImpl<>("5");
+    final Modifiable<Object> first = ModifiableUtils.createModifiable(Integer.class, original);
+    final Modifiable<Object> second = ModifiableUtils.createModifiable(Integer.class, original);
+    final Modifiable<Object> asLong = ModifiableUtils.createModifiable(Long.class, original);
+    Assert.assertSame(first, second);
+    Assert.assertNotSame(first, asLong);
+
+    final List<Object> seen = new ArrayList<>();
+    first.addModificationListener(seen::add);
+    second.addModificationListener(seen::add);
+    original.set("7");
+    Assert.assertEquals(7, first.get());
+    Assert.assertEquals(7L, asLong.get());
+    Assert.assertEquals(Arrays.asList(5, 5, 7, 7), seen);
+
+    // A view nobody holds is released, also once its last listener is gone
+    final WeakReference<Modifiable<Object>> released = listenOnce(original);
+    for (int i = 0; i < 50 && released.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    Assert.assertNull(released.get());
+    original.set("9");
+    Assert.assertEquals(9, seen.get(seen.size() - 1));
+  }
+
+  @Test
+  public void testSharedTypedViewsConvertStrictly() throws Exception {
+    final ModifiableImpl<Object> original = new ModifiableImpl<>("not a number");
+    final Modifiable<Object> lenient = ModifiableUtils.createModifiable(Integer.class, original);
+    Assert.assertNull(lenient.get());
+    try {
+      TypeUtils.callStrictly(() -> ModifiableUtils.createModifiable(Integer.class, original));
+      Assert.fail("Invalid value accepted by a strict consumer");
+    } catch (final IllegalArgumentException expected) {
+    }
+    Assert.assertSame(lenient, ModifiableUtils.createModifiable(Integer.class, original));
+  }
+
+  private static WeakReference<Modifiable<Object>> listenOnce(final Modifiable<Object> original) {
+    final Modifiable<Object> view = ModifiableUtils.createModifiable(Double.class, original);
+    final ModificationListener<Object> listener = value -> {};
+    view.addModificationListener(listener);
+    view.removeModificationListener(listener);
+    return new WeakReference<>(view);
+  }
+
+  @Test
+  public void testMutableTypedViewsNotShared() {
+    final ModifiableImpl<Object> original = new ModifiableImpl<>("[1, 2]");
+    final Modifiable<Object> first = ModifiableUtils.createModifiable(int[].class, original);
+    final Modifiable<Object> second = ModifiableUtils.createModifiable(int[].class, original);
+    Assert.assertNotSame(first, second);
+    Assert.assertNotSame(first.get(), second.get());
+
+    // Changing one consumer's array in place leaves the others alone
+    ((int[]) first.get())[0] = 5;
+    Assert.assertArrayEquals(new int[] {1, 2}, (int[]) second.get());
+
+    // Views without listeners convert on read
+    original.set("[3]");
+    Assert.assertArrayEquals(new int[] {3}, (int[]) first.get());
+    Assert.assertSame(first.get(), first.get());
+  }
 }
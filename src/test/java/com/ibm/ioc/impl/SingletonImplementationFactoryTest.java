@@ -0,0 +1,280 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.ioc.JavaBindings;
+import com.ibm.ioc.JavaBindingsProvider;
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+import com.ibm.ioc.ObjectInitializationException;
+import com.ibm.ioc.ObjectInstantiationException;
+import com.ibm.ioc.PropertiesResolverFactory;
+
+public class SingletonImplementationFactoryTest {
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  private interface Body {
+    Object create() throws Exception;
+  }
+
+  private static class TestFactory implements ImplementationFactory<Object> {
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger defaultRefsTraversals = new AtomicInteger();
+    private volatile Body body;
+
+    @Override
+    public Object initialize(final Map<Class<?>, String> overrides)
+        throws ObjectInstantiationException, ObjectInitializationException {
+      this.created.incrementAndGet();
+      try {
+        return this.body.create();
+      } catch (ObjectInstantiationException | ObjectInitializationException e) {
+        throw e;
+      } catch (final Exception e) {
+        throw new ObjectInitializationException(e);
+      }
+    }
+
+    @Override
+    public Class<Object> getImplementationClass(final Map<Class<?>, String> overrides) {
+      return Object.class;
+    }
+
+    @Override
+    public List<NamedEvaluator> getParameters(final Map<Class<?>, String> overrides) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Set<Class<?>> getDefaultRefs(final Map<Class<?>, String> overrides) {
+      this.defaultRefsTraversals.incrementAndGet();
+      return new HashSet<>(Collections.singleton(Runnable.class));
+    }
+
+    @Override
+    public Map<Class<?>, String> getCombinedOverrides(final Map<Class<?>, String> overrides) {
+      return overrides;
+    }
+
+    @Override
+    public Map<Class<?>, String> getImplementedInterfaces() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public void setImplementedInterfaces(final Map<Class<?>, String> interfaceMap) {}
+  }
+
+  @After
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testCreatedOnce() throws Exception {
+    final TestFactory factory = new TestFactory();
+    factory.body = () -> {
+      Thread.sleep(50);
+      return new Object();
+    };
+    final SingletonImplementationFactory<Object> singleton =
+        new SingletonImplementationFactory<>(factory, Collections.emptyMap());
+
+    final List<Future<Object>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(this.executor.submit(() -> singleton.initialize()));
+    }
+    final Object first = results.get(0).get(10, TimeUnit.SECONDS);
+    for (final Future<Object> result : results) {
+      Assert.assertSame(first, result.get(10, TimeUnit.SECONDS));
+    }
+    Assert.assertEquals(1, factory.created.get());
+  }
+
+  @Test
+  public void testFailureIsRetried() throws Exception {
+    final TestFactory factory = new TestFactory();
+    factory.body = () -> {
+      throw new ObjectInitializationException("not yet");
+    };
+    final SingletonImplementationFactory<Object> singleton =
+        new SingletonImplementationFactory<>(factory, Collections.emptyMap());
+    try {
+      singleton.initialize();
+      Assert.fail();
+    } catch (final ObjectInitializationException expected) {
+      Assert.assertEquals("not yet", expected.getMessage());
+    }
+
+    factory.body = () -> "now";
+    Assert.assertEquals("now", singleton.initialize());
+  }
+
+  @Test
+  public void testSelfCycle() throws Exception {
+    final TestFactory factory = new TestFactory();
+    final SingletonImplementationFactory<Object> singleton =
+        new SingletonImplementationFactory<>(factory, Collections.emptyMap());
+    factory.body = singleton::initialize;
+    try {
+      singleton.initialize();
+      Assert.fail();
+    } catch (final ObjectInitializationException expected) {
+      Assert.assertTrue(expected.getMessage(), expected.getMessage().startsWith("Dependency cycle"));
+    }
+  }
+
+  @Test
+  public void testCrossThreadCycle() throws Exception {
+    final TestFactory factoryA = new TestFactory();
+    final TestFactory factoryB = new TestFactory();
+    final SingletonImplementationFactory<Object> singletonA =
+        new SingletonImplementationFactory<>(factoryA, Collections.emptyMap());
+    final SingletonImplementationFactory<Object> singletonB =
+        new SingletonImplementationFactory<>(factoryB, Collections.emptyMap());
+    final CountDownLatch bothStarted = new CountDownLatch(2);
+    factoryA.body = () -> {
+      bothStarted.countDown();
+      bothStarted.await();
+      return singletonB.initialize();
+    };
+    factoryB.body = () -> {
+      bothStarted.countDown();
+      bothStarted.await();
+      return singletonA.initialize();
+    };
+
+    final Future<Object> a = this.executor.submit(() -> singletonA.initialize());
+    final Future<Object> b = this.executor.submit(() -> singletonB.initialize());
+    for (final Future<Object> result : Arrays.asList(a, b)) {
+      try {
+        result.get(10, TimeUnit.SECONDS);
+        Assert.fail();
+      } catch (final ExecutionException expected) {
+        Assert.assertTrue(expected.getCause() instanceof ObjectInitializationException);
+      }
+    }
+  }
+
+  @Test
+  public void testOverrideContexts() throws Exception {
+    final TestFactory factory = new TestFactory();
+    factory.body = Object::new;
+    final SingletonImplementationFactory<Object> singleton =
+        new SingletonImplementationFactory<>(factory, Collections.singletonMap(Runnable.class, "fast"));
+
+    final Map<Class<?>, String> overrides = new HashMap<>();
+    overrides.put(Callable.class, "slow");
+    final Map<Class<?>, String> combined = singleton.getCombinedOverrides(overrides);
+    Assert.assertSame(combined, singleton.getCombinedOverrides(new HashMap<>(overrides)));
+    Assert.assertEquals(2, combined.size());
+    Assert.assertEquals("fast", combined.get(Runnable.class));
+
+    final Object instance = singleton.initialize(overrides);
+    Assert.assertSame(instance, singleton.initialize(combined));
+    // Callable is not a default ref, so it doesn't make a different instance
+    Assert.assertSame(instance, singleton.initialize(Collections.emptyMap()));
+    Assert.assertSame(instance, singleton.initialize(Collections.emptyMap()));
+    Assert.assertEquals(2, factory.defaultRefsTraversals.get());
+
+    // Only a change to the default implementation of a default ref invalidates the memoized default refs
+    SingletonImplementationFactory.invalidateDefaultRefs(Callable.class);
+    Assert.assertSame(instance, singleton.initialize(combined));
+    Assert.assertEquals(2, factory.defaultRefsTraversals.get());
+    SingletonImplementationFactory.invalidateDefaultRefs(Runnable.class);
+    Assert.assertSame(instance, singleton.initialize(combined));
+    Assert.assertEquals(3, factory.defaultRefsTraversals.get());
+    Assert.assertSame(instance, singleton.initialize(combined));
+    Assert.assertEquals(3, factory.defaultRefsTraversals.get());
+    Assert.assertEquals(1, factory.created.get());
+  }
+
+  @Test
+  public void testOverrideContextsNotRetained() throws Exception {
+    final TestFactory factory = new TestFactory();
+    factory.body = Object::new;
+    final SingletonImplementationFactory<Object> singleton =
+        new SingletonImplementationFactory<>(factory, Collections.singletonMap(Runnable.class, "fast"));
+
+    final WeakReference<Map<Class<?>, String>> combined = combineOnce(singleton);
+    for (int i = 0; i < 50 && combined.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    Assert.assertNull(combined.get());
+  }
+
+  @Test
+  public void testDefaultOverridesInvalidateOnlyOnChange() throws Exception {
+    System.setProperty(Overridden.class.getName(), "other");
+    try {
+      final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(OverriddenBindings.class));
+      @SuppressWarnings("unchecked")
+      final ModifiableImpl<Object> property = (ModifiableImpl<Object>) PropertiesResolverFactory.getInstance()
+          .resolveModifiable(Overridden.class.getName());
+
+      final long generation = SingletonImplementationFactory.getDefaultRefsGeneration();
+      Assert.assertTrue(provider.getDefaultImplementation(Overridden.class).initialize() instanceof OtherOverridden);
+      Assert.assertTrue(provider.getDefaultImplementation(Overridden.class).initialize() instanceof OtherOverridden);
+      property.set("other");
+      Assert.assertEquals(generation, SingletonImplementationFactory.getDefaultRefsGeneration());
+
+      property.set("");
+      Assert.assertTrue(SingletonImplementationFactory.getDefaultRefsGeneration() > generation);
+      Assert.assertTrue(provider.getDefaultImplementation(Overridden.class).initialize() instanceof DefaultOverridden);
+    } finally {
+      System.clearProperty(Overridden.class.getName());
+    }
+  }
+
+  public interface Overridden {
+  }
+
+  public static class DefaultOverridden implements Overridden {
+  }
+
+  public static class OtherOverridden implements Overridden {
+  }
+
+  public static class OverriddenBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(DefaultOverridden.class, Overridden.class);
+      def.def(OtherOverridden.class).iface(Overridden.class, "other");
+    }
+  }
+
+  private static WeakReference<Map<Class<?>, String>> combineOnce(
+      final SingletonImplementationFactory<Object> singleton) throws Exception {
+    final Map<Class<?>, String> overrides = Collections.singletonMap(Callable.class, "unique");
+    final Map<Class<?>, String> combined = singleton.getCombinedOverrides(overrides);
+    // Callable is not a default ref, the instance doesn't keep the context
+    singleton.initialize(combined);
+    return new WeakReference<>(combined);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.ioc.ConfigurationItemNotDefinedException;
+import com.ibm.ioc.JavaBindings;
+import com.ibm.ioc.JavaBindingsProvider;
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+import com.ibm.ioc.PropertiesResolverFactory;
+import com.ibm.ioc.TypeUtils;
+import com.ibm.ioc.impl.MemoryPropertiesProvider;
+
+public class MetricsTest {
+  private InMemoryMetricsRegistry registry;
+
+  @Before
+  public void setUp() {
+    this.registry = new InMemoryMetricsRegistry();
+    Metrics.setRegistry(this.registry);
+  }
+
+  @After
+  public void tearDown() {
+    Metrics.setRegistry(null);
+  }
+
+  @Test
+  public void testInMemoryRegistry() {
+    final AtomicLong gauge = new AtomicLong(3);
+    this.registry.counter("test.counter").increment();
+    this.registry.counter("test.counter").add(2);
+    this.registry.timer("test.timer").record(10);
+    this.registry.timer("test.timer").record(30);
+    this.registry.gauge("test.gauge", gauge::get);
+    gauge.set(4);
+
+    final MetricsSnapshot snapshot = this.registry.snapshot();
+    Assert.assertEquals(3, snapshot.getCounter("test.counter"));
+    Assert.assertEquals(0, snapshot.getCounter("test.none"));
+    Assert.assertEquals(2, snapshot.getTimer("test.timer").getCount());
+    Assert.assertEquals(40, snapshot.getTimer("test.timer").getTotalNanos());
+    Assert.assertEquals(30, snapshot.getTimer("test.timer").getMaxNanos());
+    Assert.assertEquals(20, snapshot.getTimer("test.timer").getMeanNanos(), 0);
+    Assert.assertEquals(Long.valueOf(4), snapshot.getGauge("test.gauge"));
+    Assert.assertTrue(snapshot.toString(), snapshot.toString().contains("counter test.counter 3\n"));
+
+    this.registry.reset();
+    Assert.assertEquals(0, this.registry.snapshot().getCounter("test.counter"));
+    Assert.assertEquals(Long.valueOf(4), this.registry.snapshot().getGauge("test.gauge"));
+  }
+
+  @Test
+  public void testNoopByDefault() {
+    Metrics.setRegistry(null);
+    Assert.assertFalse(Metrics.isEnabled());
+    Assert.assertEquals(0, Metrics.startTime());
+    Metrics.increment(Metrics.CONVERSIONS);
+    Assert.assertTrue(Metrics.snapshot().getCounters().isEmpty());
+  }
+
+  @Test
+  public void testGaugesMoveToNextRegistry() {
+    Metrics.gauge("test.moved", () -> 7);
+    final InMemoryMetricsRegistry next = new InMemoryMetricsRegistry();
+    Metrics.setRegistry(next);
+    Assert.assertEquals(Long.valueOf(7), next.snapshot().getGauge("test.moved"));
+  }
+
+  @Test
+  public void testConfigurationMetrics() throws Exception {
+    final MemoryPropertiesProvider properties = new MemoryPropertiesProvider();
+    properties.addProperty("metrics.test.port", "8080");
+    PropertiesResolverFactory.getInstance().announcePropertiesProvider("metrics-test", 8);
+    PropertiesResolverFactory.getInstance().registerPropertiesProvider("metrics-test", properties);
+    try {
+      PropertiesResolverFactory.getInstance().getProperty("metrics.test.port");
+      try {
+        PropertiesResolverFactory.getInstance().getProperty("metrics.test.none");
+        Assert.fail("Property should not be found");
+      } catch (final ConfigurationItemNotDefinedException expected) {}
+    } finally {
+      PropertiesResolverFactory.getInstance().registerPropertiesProvider("metrics-test", null);
+    }
+    Assert.assertNull(TypeUtils.createObjectFromString(Integer.class, "not a number"));
+
+    final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(MetricsBindings.class));
+    provider.getDefaultImplementation(Service.class).initialize();
+    provider.getDefaultImplementation(Service.class).initialize();
+
+    final MetricsSnapshot snapshot = Metrics.snapshot();
+    Assert.assertEquals(snapshot.toString(), 1, snapshot.getCounter(Metrics.LOOKUP_HITS + ".metrics-test"));
+    Assert.assertTrue(snapshot.toString(), snapshot.getCounter(Metrics.LOOKUP_MISSES) >= 1);
+    Assert.assertTrue(snapshot.getTimer(Metrics.LOOKUP_TIME).getCount() >= 2);
+    Assert.assertTrue(snapshot.getCounter(Metrics.CONVERSION_FAILURES) >= 1);
+    Assert.assertEquals(1, snapshot.getCounter(Metrics.SINGLETONS_CREATED));
+    Assert.assertEquals(1, snapshot.getTimer(Metrics.SINGLETON_CREATION_TIME).getCount());
+    Assert.assertNotNull(snapshot.getGauge(Metrics.RESOLVED_PROPERTIES));
+  }
+
+  public static class MetricsBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(Service.class);
+    }
+  }
+
+  public static class Service {
+  }
+}
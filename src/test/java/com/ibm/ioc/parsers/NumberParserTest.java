@@ -0,0 +1,30 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.parsers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NumberParserTest {
+
+  @Test
+  public void numberWithUnitsTest() {
+    Assert.assertEquals(Integer.valueOf(90 * 1000), IntegerParser.parse(" 1.5 Minutes "));
+    Assert.assertEquals(Integer.valueOf(2 * 1024), IntegerParser.parse("2kib"));
+    Assert.assertNull(IntegerParser.parse("2 GiB")); // only long takes units past int range
+    Assert.assertNull(IntegerParser.parse("2 furlongs"));
+    Assert.assertEquals(-1, IntegerParser.parseInt("", -1));
+    Assert.assertEquals(7L * 24 * 3600 * 1000, LongParser.parseLong("1week", 0));
+    Assert.assertEquals(Long.valueOf(3L * 1000 * 1000 * 1000), LongParser.parse("3 G"));
+    Assert.assertEquals(Long.valueOf(12), LongParser.parse("12"));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void numberWithUnitsOverflowTest() {
+    IntegerParser.parse("2147483648 ms");
+  }
+}
@@ -0,0 +1,163 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.ioc.JavaBindings;
+import com.ibm.ioc.JavaBindingsProvider;
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+import com.ibm.ioc.ObjectInitializationException;
+
+public class EagerInitializerTest {
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final List<String> built = Collections.synchronizedList(new ArrayList<>());
+
+  @After
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  private ObjectNode node(final String name, final Runnable work, final ObjectNode... dependencies) {
+    return new ObjectNode(String.class, () -> {
+      work.run();
+      this.built.add(name);
+      return name;
+    }, Collections.emptyMap(), new ArrayList<>(Arrays.asList(dependencies)));
+  }
+
+  @Test
+  public void testDependencyOrderAndParallelism() throws Exception {
+    // left and right only finish once both are being built at the same time
+    final CountDownLatch bothStarted = new CountDownLatch(2);
+    final Runnable awaitOther = () -> {
+      bothStarted.countDown();
+      try {
+        Assert.assertTrue(bothStarted.await(10, TimeUnit.SECONDS));
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    };
+    final ObjectNode leaf = node("leaf", () -> {});
+    final ObjectNode left = node("left", awaitOther, leaf);
+    final ObjectNode right = node("right", awaitOther, leaf);
+    final ObjectNode root = node("root", () -> {}, left, right);
+
+    final EagerInitializer.Result result =
+        EagerInitializer.initialize(Collections.singletonList(root), this.executor);
+
+    Assert.assertEquals(4, this.built.size());
+    Assert.assertEquals("leaf", this.built.get(0));
+    Assert.assertEquals("root", this.built.get(3));
+    Assert.assertEquals(Arrays.asList(leaf, left, right, root),
+        new ArrayList<>(result.getConstructionTimes().keySet()));
+  }
+
+  @Test
+  public void testCycle() {
+    final List<ObjectNode> dependencies = new ArrayList<>();
+    final ObjectNode first = new ObjectNode(String.class, () -> "first", Collections.emptyMap(), dependencies);
+    final ObjectNode second = node("second", () -> {}, first);
+    dependencies.add(second);
+
+    try {
+      EagerInitializer.initialize(Collections.singletonList(first), this.executor);
+      Assert.fail("Cycle not detected");
+    } catch (final ObjectInitializationException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Dependency cycle"));
+    }
+    Assert.assertTrue(this.built.isEmpty());
+  }
+
+  @Test
+  public void testFailureStopsDependents() {
+    final ObjectNode failing = node("failing", () -> {
+      throw new IllegalStateException("no connection");
+    });
+    final ObjectNode dependent = node("dependent", () -> {}, failing);
+    final ObjectNode independent = node("independent", () -> {});
+
+    try {
+      EagerInitializer.initialize(Arrays.asList(dependent, independent), this.executor);
+      Assert.fail("Failure not reported");
+    } catch (final ObjectInitializationException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+    Assert.assertEquals(Collections.singletonList("independent"), this.built);
+  }
+
+  @Test
+  public void testDefaultImplementationOfBindings() throws Exception {
+    final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(DefaultBindings.class));
+    final EagerInitializer.Result result = EagerInitializer.initialize(provider, this.executor, Service.class);
+    Assert.assertEquals(Arrays.asList(MemoryStore.class, DefaultService.class), result.getConstructionTimes().keySet()
+        .stream().map(ObjectNode::getImplementationClass).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testCycleOfBindings() {
+    final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(CycleBindings.class));
+    try {
+      EagerInitializer.initialize(provider, this.executor, Service.class);
+      Assert.fail("Cycle not detected");
+    } catch (final ObjectInitializationException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Dependency cycle"));
+    }
+  }
+
+  public interface Service {
+  }
+
+  public interface Store {
+  }
+
+  public static class DefaultService implements Service {
+    public Store store;
+  }
+
+  public static class MemoryStore implements Store {
+  }
+
+  public static class CyclicStore implements Store {
+    public Service service;
+  }
+
+  public static class DefaultBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(DefaultService.class, Service.class)
+          .ref("store", Store.class);
+      def.def(MemoryStore.class, Store.class);
+    }
+  }
+
+  public static class CycleBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(DefaultService.class, Service.class)
+          .ref("store", Store.class);
+      def.def(CyclicStore.class)
+          .iface(Store.class)
+          .ref("service", Service.class, "named");
+      def.def(DefaultService.class)
+          .iface(Service.class, "named")
+          .ref("store", Store.class);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.util;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.ibm.ioc.PropertiesResolverFactory;
+import com.ibm.ioc.TypeUtils;
+import com.ibm.ioc.impl.MemoryPropertiesProvider;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecorderEventsTest {
+
+  @Test
+  public void testNothingBegunWithoutRecording() {
+    Assert.assertNull(FlightRecorderEvents.begin(FlightRecorderEvents.Kind.CONVERSION));
+    // must be fine with what begin returned
+    FlightRecorderEvents.endConversion(null, Integer.class, true);
+  }
+
+  @Test
+  public void testLookupAndConversionEvents() throws Exception {
+    Assume.assumeTrue(FlightRecorderEvents.isAvailable() && FlightRecorder.isAvailable());
+
+    final MemoryPropertiesProvider properties = new MemoryPropertiesProvider();
+    properties.addProperty("jfr.test.port", "8080");
+    PropertiesResolverFactory.getInstance().announcePropertiesProvider("jfr-test", 7);
+    PropertiesResolverFactory.getInstance().registerPropertiesProvider("jfr-test", properties);
+
+    final Path file = Files.createTempFile("ioc", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("com.ibm.ioc.PropertyLookup").withThreshold(Duration.ZERO);
+      recording.enable("com.ibm.ioc.Conversion").withThreshold(Duration.ZERO);
+      recording.start();
+
+      final Object value = PropertiesResolverFactory.getInstance().getProperty("jfr.test.port");
+      Assert.assertEquals(8080, TypeUtils.createObjectFromString(Integer.class, (String) value));
+
+      recording.stop();
+      recording.dump(file);
+
+      final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+      Assert.assertTrue(events.toString(), events.stream().anyMatch(
+          event -> event.getEventType().getName().equals("com.ibm.ioc.PropertyLookup")
+              && "jfr.test.port".equals(event.getString("name"))
+              && "jfr-test".equals(event.getString("provider"))
+              && event.getInt("variants") > 0));
+      Assert.assertTrue(events.toString(), events.stream().anyMatch(
+          event -> event.getEventType().getName().equals("com.ibm.ioc.Conversion")
+              && Integer.class.getName().equals(event.getString("type"))
+              && event.getBoolean("converted")));
+    } finally {
+      PropertiesResolverFactory.getInstance().registerPropertiesProvider("jfr-test", null);
+      Files.deleteIfExists(file);
+    }
+    Assert.assertNull(FlightRecorderEvents.begin(FlightRecorderEvents.Kind.PROPERTY_LOOKUP));
+  }
+}
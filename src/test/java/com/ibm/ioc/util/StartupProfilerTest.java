@@ -0,0 +1,85 @@
+/*
+* Copyright (c) IBM Corporation 2020. All Rights Reserved.
+* Project name: java-ioc
+* This project is licensed under the Apache License 2.0, see LICENSE.
+*/
+
+package com.ibm.ioc.util;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ibm.ioc.JavaBindings;
+import com.ibm.ioc.JavaBindingsProvider;
+import com.ibm.ioc.JavaBindingsProvider.BindingsFactory;
+
+public class StartupProfilerTest {
+
+  @Test
+  public void testNestedBindings() throws Exception {
+    final StartupProfiler profiler = StartupProfiler.start();
+    try {
+      final JavaBindingsProvider provider = new JavaBindingsProvider(Arrays.asList(ProfiledBindings.class));
+      provider.getDefaultImplementation(Client.class).initialize();
+    } finally {
+      profiler.stop();
+    }
+    Assert.assertFalse(StartupProfiler.isActive());
+
+    final StringWriter collapsed = new StringWriter();
+    profiler.writeCollapsedStacks(collapsed, true);
+    final String client = Client.class.getName();
+    final String transport = Transport.class.getName();
+    Assert.assertTrue(collapsed.toString(), collapsed.toString().contains(
+        client + ";" + StartupProfiler.RESOLVE_PARAMETERS + ";" + transport + ";" + StartupProfiler.INSTANTIATE + " "));
+    Assert.assertTrue(collapsed.toString(), collapsed.toString().startsWith(StartupProfiler.REGISTER + " ")
+        || collapsed.toString().contains("\n" + StartupProfiler.REGISTER + " "));
+    for (final String line : collapsed.toString().split("\n")) {
+      Assert.assertTrue(line, Long.parseLong(line.substring(line.lastIndexOf(' ') + 1)) > 0);
+    }
+
+    final StringWriter report = new StringWriter();
+    profiler.writeReport(report);
+    final String[] lines = report.toString().split("\n");
+    Assert.assertTrue(lines[0].contains("total ms"));
+    double previous = Double.MAX_VALUE;
+    for (int i = 1; i < lines.length; i++) {
+      final double total = Double.parseDouble(lines[i].trim().split("\\s+")[0]);
+      Assert.assertTrue(report.toString(), total <= previous);
+      previous = total;
+    }
+    Assert.assertTrue(report.toString().contains(client));
+    Assert.assertTrue(report.toString().contains(StartupProfiler.CONVERT));
+
+    Assert.assertTrue(profiler.getTotalNanos(client) > 0);
+    Assert.assertTrue(profiler.getSelfNanos(client) <= profiler.getTotalNanos(client));
+    Assert.assertEquals(0, profiler.getTotalNanos("nothing"));
+  }
+
+  @Test
+  public void testInactive() {
+    Assert.assertNull(StartupProfiler.enter("nothing"));
+    StartupProfiler.exit(null);
+  }
+
+  public static class ProfiledBindings implements JavaBindings {
+    @Override
+    public void register(final BindingsFactory def) {
+      def.def(Transport.class, Transport.class)
+          .set("port", "8080");
+      def.def(Client.class, Client.class)
+          .ref("transport", Transport.class);
+    }
+  }
+
+  public static class Transport {
+    public int port;
+  }
+
+  public static class Client {
+    public Transport transport;
+  }
+}